@@ -0,0 +1,107 @@
+package com.task.PortfolioPro.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.task.portfoliopro.config.R2dbcPoolConfig;
+import com.task.portfoliopro.repository.R2dbcStockRepository;
+import com.task.portfoliopro.repository.StockRepository;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactories;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@code concurrency} concurrent {@code StockRepository.findActivePositions} calls per
+ * operation through {@link R2dbcPoolConfig}'s pool, against 200 portfolios of 50 stocks in an
+ * in-memory H2 database. Calls run on the bounded elastic scheduler like the service's SQL
+ * reads, so with a pool smaller than {@code concurrency} they queue for a connection; the
+ * acquire wait is printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+
+    @Param({"1", "4", "16"})
+    private int maxSize;
+
+    @Param({"64"})
+    private int concurrency;
+
+    /** 0 leaves H2's default of 8 parsed statements per connection. */
+    @Param({"0", "64"})
+    private int statementCacheSize;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ConnectionPool connectionPool;
+
+    private StockRepository stockRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        R2dbcPoolConfig poolConfig = new R2dbcPoolConfig();
+        poolConfig.setInitialSize(maxSize);
+        poolConfig.setMinIdle(maxSize);
+        poolConfig.setMaxSize(maxSize);
+        poolConfig.setStatementCacheSize(statementCacheSize);
+        R2dbcProperties properties = new R2dbcProperties();
+        properties.setUrl("r2dbc:h2:mem:///pool-" + System.nanoTime() + "?options=DB_CLOSE_DELAY=-1");
+        connectionPool = poolConfig.connectionPool("benchmark",
+                ConnectionFactories.get(poolConfig.connectionOptions(properties)), meterRegistry);
+
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).populate(connectionPool).block();
+        DatabaseClient.create(connectionPool).sql("""
+                INSERT INTO stock (id, portfolio_id, stock_name, ticker, shares, price, total_cost, is_deleted)
+                SELECT 'id-' || X, 'P' || MOD(X, 200), 'Company ' || MOD(X, 300), 'T' || MOD(X, 300), 1 + MOD(X, 100),
+                    10.0 + MOD(X, 500), (1 + MOD(X, 100)) * (10.0 + MOD(X, 500)), FALSE
+                FROM SYSTEM_RANGE(0, 9999)""")
+            .then()
+            .block();
+        stockRepository = new R2dbcRepositoryFactory(new R2dbcEntityTemplate(connectionPool))
+                .getRepository(R2dbcStockRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Timer acquire = meterRegistry.get("portfoliopro.r2dbc.pool.acquire").tag("outcome", "success").timer();
+        System.out.printf("%nmaxSize=%d: %d acquisitions, mean wait %.3f ms, max %.3f ms%n", maxSize, acquire.count(),
+                acquire.mean(TimeUnit.MILLISECONDS), acquire.max(TimeUnit.MILLISECONDS));
+        connectionPool.dispose();
+    }
+
+    @Benchmark
+    public Object findActivePositions() {
+        return Flux.range(0, concurrency)
+                .flatMap(i -> stockRepository.findActivePositions("P" + (i % 200))
+                        .collectList()
+                        .subscribeOn(Schedulers.boundedElastic()), concurrency)
+                .blockLast();
+    }
+}
@@ -0,0 +1,57 @@
+package com.task.PortfolioPro.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.portfoliopro.dto.StockDTO;
+import com.task.portfoliopro.dto.StockPriceDTO;
+import com.task.portfoliopro.entities.Stock;
+
+/**
+ * Per-row mapping costs: {@code StockPriceDTO} from an already parsed intraday series and
+ * {@code Stock} from an incoming {@code StockDTO}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private JsonNode timeSeries;
+
+    private StockDTO stockDto;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/alphavantage/time-series-intraday-1min.json")) {
+            timeSeries = new ObjectMapper().readTree(in).path("Time Series (1min)");
+        }
+        stockDto = new StockDTO("Apple Inc", "AAPL", 10, 224.75);
+    }
+
+    @Benchmark
+    public StockPriceDTO stockPriceFromJsonNode() {
+        return new StockPriceDTO(timeSeries);
+    }
+
+    @Benchmark
+    public Stock stockFromStockDto() {
+        return new Stock(stockDto);
+    }
+}
@@ -0,0 +1,80 @@
+package com.task.PortfolioPro.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.portfoliopro.apiClients.FinnuhApiClient;
+import com.task.portfoliopro.config.FinnhubApiConfig;
+import com.task.portfoliopro.dto.FinnhubResponseDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decoding a recorded Finnhub symbol search, both with a bare mapper and through
+ * {@code FinnuhApiClient} with the HTTP exchange stubbed out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FinnhubResponseDecodingBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private byte[] payload;
+
+    private FinnuhApiClient finnhubApiClient;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/finnhub/search-apple.json")) {
+            payload = in.readAllBytes();
+        }
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        FinnhubApiConfig config = new FinnhubApiConfig();
+        config.setUrl("http://finnhub.local/api/v1/search");
+        config.setApiKey("benchmark");
+        config.getRateLimit().setEnabled(false);
+        WebClient.Builder webClientBuilder = WebClient.builder().exchangeFunction(request -> Mono.just(
+                ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(payload)))
+                        .build()));
+        finnhubApiClient = new FinnuhApiClient(webClientBuilder, config, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public FinnhubResponseDTO objectMapperDecode() throws IOException {
+        return objectMapper.readValue(payload, FinnhubResponseDTO.class);
+    }
+
+    @Benchmark
+    public String clientGetCompanyInfo() {
+        return finnhubApiClient.getCompanyInfo("AAPL").block();
+    }
+}
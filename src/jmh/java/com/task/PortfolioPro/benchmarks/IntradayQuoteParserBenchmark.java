@@ -0,0 +1,92 @@
+package com.task.PortfolioPro.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.portfoliopro.apiClients.IntradayQuoteParser;
+import com.task.portfoliopro.dto.StockPriceDTO;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Tree decode (what {@code StockService} used to do) against the streaming decoder, on a
+ * recorded compact {@code TIME_SERIES_INTRADAY} payload. Run with {@code -prof gc} to compare
+ * allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntradayQuoteParserBenchmark {
+
+    /** Netty hands the body over in chunks of roughly this size. */
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private final ObjectMapper sharedMapper = new ObjectMapper();
+
+    private IntradayQuoteParser parser;
+
+    private byte[] payload;
+
+    private String payloadText;
+
+    private List<byte[]> chunks;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/alphavantage/time-series-intraday-1min.json")) {
+            payload = in.readAllBytes();
+        }
+        payloadText = new String(payload, StandardCharsets.UTF_8);
+        parser = new IntradayQuoteParser(sharedMapper);
+        chunks = new ArrayList<>();
+        for (int offset = 0; offset < payload.length; offset += CHUNK_SIZE) {
+            chunks.add(Arrays.copyOfRange(payload, offset, Math.min(payload.length, offset + CHUNK_SIZE)));
+        }
+    }
+
+    @Benchmark
+    public StockPriceDTO treeDecodeWithNewMapper() throws IOException {
+        JsonNode root = new ObjectMapper().readTree(payloadText);
+        return new StockPriceDTO(root.path("Time Series (1min)"));
+    }
+
+    @Benchmark
+    public StockPriceDTO treeDecodeWithSharedMapper() throws IOException {
+        JsonNode root = sharedMapper.readTree(payloadText);
+        return new StockPriceDTO(root.path("Time Series (1min)"));
+    }
+
+    @Benchmark
+    public StockPriceDTO streamingDecode() {
+        return parser.parseLatest(payload);
+    }
+
+    @Benchmark
+    public StockPriceDTO streamingDecodeDataBuffers() {
+        Flux<DataBuffer> body = Flux.fromIterable(chunks).map(DefaultDataBufferFactory.sharedInstance::wrap);
+        return parser.parseLatest(body).block();
+    }
+}
@@ -0,0 +1,122 @@
+package com.task.PortfolioPro.benchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.task.portfoliopro.config.JdbcConfig;
+import com.task.portfoliopro.config.PersistenceConfig;
+import com.task.portfoliopro.config.R2dbcPoolConfig;
+import com.task.portfoliopro.repository.JdbcStockRepository;
+import com.task.portfoliopro.repository.R2dbcStockRepository;
+import com.task.portfoliopro.repository.StockRepository;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactories;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@code concurrency} concurrent {@link StockRepository} calls per operation in each persistence
+ * mode, against one in-memory H2 database of 10k stocks in one portfolio and 200 in each of 50
+ * others. {@code r2dbc} subscribes to the R2DBC repository directly, {@code r2dbc-elastic} on the
+ * bounded elastic scheduler as the service does for its SQL reads, {@code jdbc-virtual} to
+ * {@link JdbcStockRepository}. Both pools hold 16 connections. {@code findById} reads one row by
+ * primary key; {@code fullScan} reads every active stock of the 10k portfolio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceModeBenchmark {
+
+    private static final int STOCKS = 20_000;
+
+    @Param({"r2dbc", "r2dbc-elastic", "jdbc-virtual"})
+    private String mode;
+
+    @Param({"1", "64"})
+    private int concurrency;
+
+    private ConnectionPool connectionPool;
+
+    private JdbcStockRepository jdbcStockRepository;
+
+    private StockRepository stockRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        R2dbcPoolConfig poolConfig = new R2dbcPoolConfig();
+        // 64 full scans queue for longer than the default 5s on a small machine; measure the wait instead
+        poolConfig.setMaxAcquireTime(Duration.ofMinutes(1));
+        R2dbcProperties properties = new R2dbcProperties();
+        properties.setUrl("r2dbc:h2:mem:///modes-" + System.nanoTime() + "?options=DB_CLOSE_DELAY=-1");
+        connectionPool = poolConfig.connectionPool("benchmark",
+                ConnectionFactories.get(poolConfig.connectionOptions(properties)), new SimpleMeterRegistry());
+
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).populate(connectionPool).block();
+        DatabaseClient.create(connectionPool).sql("""
+                INSERT INTO stock (id, portfolio_id, stock_name, ticker, shares, price, total_cost, is_deleted)
+                SELECT 'id-' || X, CASE WHEN X < 10000 THEN 'large' ELSE 'P' || MOD(X, 50) END, 'Company ' || MOD(X, 300),
+                    'T' || MOD(X, 300), 1 + MOD(X, 100), 10.0 + MOD(X, 500), (1 + MOD(X, 100)) * (10.0 + MOD(X, 500)), FALSE
+                FROM SYSTEM_RANGE(0, %d)""".formatted(STOCKS - 1))
+            .then()
+            .block();
+
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(PersistenceConfig.jdbcUrl(poolConfig.connectionOptions(properties)));
+        dataSource.setMaximumPoolSize(new JdbcConfig().getMaxPoolSize());
+        dataSource.setConnectionTimeout(Duration.ofMinutes(1).toMillis());
+        jdbcStockRepository = new JdbcStockRepository(dataSource);
+        stockRepository = "jdbc-virtual".equals(mode) ? jdbcStockRepository
+                : new R2dbcRepositoryFactory(new R2dbcEntityTemplate(connectionPool)).getRepository(R2dbcStockRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        jdbcStockRepository.close();
+        connectionPool.dispose();
+    }
+
+    @Benchmark
+    public Object findById() {
+        return Flux.range(0, concurrency)
+                .flatMap(i -> subscribe(stockRepository.findByIdAndIsDeletedFalse("id-" + (i * 7919 % STOCKS))), concurrency)
+                .blockLast();
+    }
+
+    @Benchmark
+    public Object fullScan() {
+        return Flux.range(0, concurrency)
+                .flatMap(i -> subscribe(stockRepository.findActiveByPortfolioId("large").collectList()), concurrency)
+                .blockLast();
+    }
+
+    private <T> Mono<T> subscribe(final Mono<T> call) {
+        return "r2dbc-elastic".equals(mode) ? call.subscribeOn(Schedulers.boundedElastic()) : call;
+    }
+}
@@ -0,0 +1,141 @@
+package com.task.PortfolioPro.benchmarks;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.task.portfoliopro.apiClients.AlphaVantageApiClient;
+import com.task.portfoliopro.apiClients.MarketDataProvider.Capability;
+import com.task.portfoliopro.apiClients.MarketDataProviderRegistry;
+import com.task.portfoliopro.config.CacheConfig;
+import com.task.portfoliopro.config.CompanyInfoCacheConfig;
+import com.task.portfoliopro.config.MarketDataConfig;
+import com.task.portfoliopro.config.QuoteCacheConfig;
+import com.task.portfoliopro.config.ValuationConfig;
+import com.task.portfoliopro.dto.StockPriceDTO;
+import com.task.portfoliopro.entities.Stock;
+import com.task.portfoliopro.repository.R2dbcStockRepository;
+import com.task.portfoliopro.repository.StockRepository;
+import com.task.portfoliopro.services.PortfolioAggregate;
+import com.task.portfoliopro.services.PortfolioAggregateReconciler;
+import com.task.portfoliopro.services.PortfolioValueCache;
+import com.task.portfoliopro.services.PositionColumns;
+import com.task.portfoliopro.services.QuoteCache;
+import com.task.portfoliopro.services.StockService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@code StockService.totalPortfolioValue} over synthetic books in an in-memory H2 database
+ * created from {@code schema.sql}. The Alpha Vantage client is stubbed, so this measures
+ * reading and reducing the positions only. {@code source=sql} sums positions per ticker in
+ * the database, {@code source=aggregate} values from the loaded in-memory aggregate, and
+ * {@code source=rows} is the old path that read every stock row and grouped in the JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class PortfolioValuationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int positions;
+
+    @Param({"300"})
+    private int tickers;
+
+    @Param({"sql", "aggregate", "rows"})
+    private String source;
+
+    private DatabaseClient databaseClient;
+
+    private StockRepository stockRepository;
+
+    private StockService stockService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ConnectionFactory connectionFactory =
+                ConnectionFactories.get("r2dbc:h2:mem:///valuation-" + System.nanoTime() + "?options=DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).populate(connectionFactory).block();
+        databaseClient = DatabaseClient.create(connectionFactory);
+        databaseClient.sql("""
+                INSERT INTO stock (id, stock_name, ticker, shares, price, total_cost, is_deleted)
+                SELECT 'id-' || X, 'Company ' || MOD(X, :tickers), 'T' || MOD(X, :tickers), 1 + MOD(X, 100),
+                    10.0 + MOD(X, 500), (1 + MOD(X, 100)) * (10.0 + MOD(X, 500)), FALSE
+                FROM SYSTEM_RANGE(0, :last)""")
+            .bind("tickers", tickers)
+            .bind("last", positions - 1)
+            .then()
+            .block();
+        stockRepository = new R2dbcRepositoryFactory(new R2dbcEntityTemplate(connectionFactory))
+                .getRepository(R2dbcStockRepository.class);
+
+        AlphaVantageApiClient alpha = mock(AlphaVantageApiClient.class);
+        when(alpha.getLatestStockPrice(anyString())).thenReturn(Mono.just(new StockPriceDTO(101.0, 102.5, 103.0, 100.0)));
+        when(alpha.name()).thenReturn(AlphaVantageApiClient.NAME);
+        when(alpha.capabilities()).thenReturn(Set.of(Capability.QUOTES, Capability.COMPANY_INFO));
+        MarketDataConfig marketDataConfig = new MarketDataConfig();
+        marketDataConfig.setQuoteProviders(List.of(AlphaVantageApiClient.NAME));
+        marketDataConfig.setCompanyInfoProviders(List.of(AlphaVantageApiClient.NAME));
+
+        PortfolioAggregate portfolioAggregate = new PortfolioAggregate();
+        if ("aggregate".equals(source)) {
+            new PortfolioAggregateReconciler(stockRepository, portfolioAggregate, new SimpleMeterRegistry()).reconcile().block();
+        }
+
+        stockService = new StockService();
+        ReflectionTestUtils.setField(stockService, "stockRepository", stockRepository);
+        ReflectionTestUtils.setField(stockService, "marketData",
+                new MarketDataProviderRegistry(List.of(alpha), marketDataConfig, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(stockService, "quoteCache", new QuoteCache(new CacheConfig().cacheManager(new QuoteCacheConfig(), new CompanyInfoCacheConfig(), new ValuationConfig())));
+        ReflectionTestUtils.setField(stockService, "valuationConfig", new ValuationConfig());
+        ReflectionTestUtils.setField(stockService, "portfolioAggregate", portfolioAggregate);
+        ReflectionTestUtils.setField(stockService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(stockService, "portfolioValueCache", new PortfolioValueCache(new CacheConfig().cacheManager(new QuoteCacheConfig(), new CompanyInfoCacheConfig(), new ValuationConfig())));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        databaseClient.sql("SHUTDOWN").then().block();
+    }
+
+    @Benchmark
+    public Object totalPortfolioValue() {
+        if ("rows".equals(source)) {
+            return PositionColumns.collect(stockRepository.findActiveByPortfolioId(Stock.DEFAULT_PORTFOLIO),
+                    Stock::getTicker, Stock::getShares, Stock::getTotalCost).block();
+        }
+        // revalue so the result cache does not answer repeat invocations
+        return stockService.revaluePortfolio(Stock.DEFAULT_PORTFOLIO).block();
+    }
+}
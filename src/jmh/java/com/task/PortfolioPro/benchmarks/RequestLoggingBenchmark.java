@@ -0,0 +1,126 @@
+package com.task.PortfolioPro.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.task.portfoliopro.logging.LogSamplingFilter;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+
+/**
+ * Logging cost of one price request from four request threads, writing to a file the way the
+ * console appender writes to stdout. {@code beforeRequest} logs the three INFO lines the
+ * controller, service and client used to write; {@code afterRequest} logs the controller line
+ * at INFO and the others at DEBUG. {@code appender} is {@code sync} for the previous Boot
+ * default, {@code async} and {@code async-sampled} for logback-spring.xml without and with
+ * {@link LogSamplingFilter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+    @Param({"sync", "async", "async-sampled"})
+    private String appender;
+
+    private LoggerContext context;
+
+    private Path logFile;
+
+    private Logger controller;
+
+    private Logger service;
+
+    private Logger client;
+
+    @Setup
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("request-logging", ".log");
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n");
+        encoder.start();
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(logFile.toString());
+        file.setEncoder(encoder);
+        file.start();
+
+        Appender<ILoggingEvent> root = file;
+        if (!appender.equals("sync")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(file);
+            async.start();
+            root = async;
+        }
+        if (appender.equals("async-sampled")) {
+            LogSamplingFilter sampling = new LogSamplingFilter();
+            sampling.setLoggerPrefix("com.task.portfoliopro");
+            sampling.setMaxPerInterval(20);
+            sampling.setInterval("1s");
+            sampling.start();
+            context.addTurboFilter(sampling);
+        }
+        Logger rootLogger = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.INFO);
+        rootLogger.addAppender(root);
+
+        controller = context.getLogger("com.task.portfoliopro.api.v1.StockController");
+        service = context.getLogger("com.task.portfoliopro.services.StockService");
+        client = context.getLogger("com.task.portfoliopro.apiClients.AlphaVantageApiClient");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void beforeRequest() {
+        controller.info("Request received to fetch the real time price data for {}", "AAPL");
+        service.info("Quote received for {}", "AAPL");
+        client.info("Sending request to Alpha Vantage API for latest price of stock {}", "AAPL");
+    }
+
+    @Benchmark
+    public void afterRequest() {
+        controller.info("Request received to fetch the real time price data for {}", "AAPL");
+        service.debug("Quote received for {}", "AAPL");
+        client.debug("Sending request to Alpha Vantage API for latest price of stock {}", "AAPL");
+    }
+}
@@ -0,0 +1,121 @@
+package com.task.PortfolioPro.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time from launching the application until it reports itself started, and its resident memory
+ * at that point, for the packaged jar and for the extracted jar of {@code -Pfast-startup} with
+ * AOT bean definitions alone and with the CDS archive. Needs {@code ./mvnw -Pfast-startup package}
+ * first. Each run uses an in-memory database and a random port; RSS is read from /proc, so it is
+ * only printed on Linux.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final String JAR = "PortfolioPro-0.0.1-SNAPSHOT.jar";
+
+    private static final Path APP = Path.of("target", "app");
+
+    @Param({"jar", "aot", "aot-cds"})
+    private String launch;
+
+    private final List<Long> rssKb = new ArrayList<>();
+
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (!Files.exists(APP.resolve("application.jsa"))) {
+            throw new IllegalStateException("Run ./mvnw -Pfast-startup package before this benchmark");
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            process.waitFor();
+            process = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%s: RSS when started %s kB%n", launch, rssKb);
+    }
+
+    @Benchmark
+    public void startUntilReady() throws IOException {
+        process = new ProcessBuilder(command()).directory(APP.toFile()).redirectErrorStream(true).start();
+        BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        String line;
+        while ((line = output.readLine()) != null && !line.contains("Started PortfolioProApplication")) {
+            // skip startup logging
+        }
+        if (line == null) {
+            throw new IllegalStateException("Application exited with " + process.exitValue() + " before it started");
+        }
+        recordRss();
+        Thread.ofVirtual().start(() -> {
+            try {
+                output.transferTo(Writer.nullWriter());
+            } catch (IOException e) {
+                // process stopped
+            }
+        });
+    }
+
+    private List<String> command() {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        if (launch.equals("aot-cds")) {
+            command.add("-XX:SharedArchiveFile=application.jsa");
+        }
+        if (!launch.equals("jar")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add(launch.equals("jar") ? Path.of("..", JAR).toString() : JAR);
+        command.add("--server.port=0");
+        command.add("--spring.r2dbc.url=r2dbc:h2:mem:///startup");
+        return command;
+    }
+
+    private void recordRss() throws IOException {
+        Path status = Path.of("/proc", String.valueOf(process.pid()), "status");
+        if (Files.exists(status)) {
+            Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst()
+                .ifPresent(rssKb::add);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.task.PortfolioPro.loadtest;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Closed-loop load against a running application: {@code concurrency} workers each send a
+ * request drawn from the endpoint mix, wait for the whole response and send the next one. The
+ * latency of every request, from sending it until its body has been read, is recorded as
+ * {@code portfoliopro.loadtest.requests} per endpoint and for {@code all}, and its status as
+ * {@code portfoliopro.loadtest.responses}.
+ */
+public class LoadDriver {
+
+    static final List<String> ENDPOINTS = List.of("stocks", "total-value", "stock-price", "company-info");
+
+    static final String ALL = "all";
+
+    private final LoadTestSettings settings;
+
+    private final List<String> portfolioIds;
+
+    private final List<String> tickers;
+
+    private final WebClient webClient;
+
+    private final String[] weightedEndpoints;
+
+    public LoadDriver(final String baseUrl, final LoadTestSettings settings, final List<String> portfolioIds,
+            final List<String> tickers) {
+        this.settings = settings;
+        this.portfolioIds = portfolioIds;
+        this.tickers = tickers;
+        ConnectionProvider connections = ConnectionProvider.builder("loadtest")
+            .maxConnections(settings.getConcurrency())
+            .pendingAcquireMaxCount(-1)
+            .build();
+        this.webClient = WebClient.builder()
+            .baseUrl(baseUrl)
+            .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)
+                .responseTimeout(Duration.ofSeconds(30))))
+            .build();
+        this.weightedEndpoints = settings.getMix().entrySet().stream()
+            .flatMap(weight -> Collections.nCopies(weight.getValue(), weight.getKey()).stream())
+            .toArray(String[]::new);
+    }
+
+    /**
+     * Applies the load for {@code duration} and returns how long it actually ran. Workers are
+     * seeded from the run seed and {@code phase}, so the same run sends the same requests.
+     */
+    public Duration run(final Duration duration, final long phase, final MeterRegistry registry) {
+        Map<String, Timer> timers = new LinkedHashMap<>();
+        for (String endpoint : settings.getMix().keySet()) {
+            timers.put(endpoint, timer(endpoint, duration, registry));
+        }
+        timers.put(ALL, timer(ALL, duration, registry));
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        Flux.range(0, settings.getConcurrency())
+            .flatMap(worker -> {
+                SplittableRandom random = new SplittableRandom(settings.getSeed() * 31 + phase * 1_000_003 + worker);
+                return Mono.defer(() -> request(random, timers, registry)).repeat(() -> System.nanoTime() < end);
+            }, settings.getConcurrency())
+            .blockLast();
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    /** Called on subscription, so the request is timed from when it is sent. */
+    private Mono<Void> request(final SplittableRandom random, final Map<String, Timer> timers, final MeterRegistry registry) {
+        String endpoint = weightedEndpoints[random.nextInt(weightedEndpoints.length)];
+        String portfolioId = portfolioIds.get(random.nextInt(portfolioIds.size()));
+        String ticker = tickers.get(random.nextInt(tickers.size()));
+        String uri = switch (endpoint) {
+            case "stocks" -> "/portfolios/" + portfolioId + "/stocks";
+            case "total-value" -> "/portfolios/" + portfolioId + "/total-value";
+            case "stock-price" -> "/stock-price?ticker=" + ticker;
+            default -> "/company-info?ticker=" + ticker;
+        };
+        long start = System.nanoTime();
+        return webClient.get().uri(uri)
+            .exchangeToMono(response -> response.releaseBody().thenReturn(String.valueOf(response.statusCode().value())))
+            .onErrorResume(error -> Mono.just("error"))
+            .doOnNext(status -> {
+                long elapsed = System.nanoTime() - start;
+                timers.get(endpoint).record(elapsed, TimeUnit.NANOSECONDS);
+                timers.get(ALL).record(elapsed, TimeUnit.NANOSECONDS);
+                registry.counter("portfoliopro.loadtest.responses", "endpoint", endpoint, "status", status).increment();
+            })
+            .then();
+    }
+
+    /** Percentiles over the whole run rather than over a sliding window. */
+    private static Timer timer(final String endpoint, final Duration duration, final MeterRegistry registry) {
+        return Timer.builder("portfoliopro.loadtest.requests")
+            .tag("endpoint", endpoint)
+            .publishPercentiles(0.5, 0.99, 0.999)
+            .percentilePrecision(3)
+            .distributionStatisticExpiry(duration.multipliedBy(2))
+            .distributionStatisticBufferLength(1)
+            .register(registry);
+    }
+}
@@ -0,0 +1,94 @@
+package com.task.PortfolioPro.loadtest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+/**
+ * Throughput, non-2xx responses and latency percentiles per endpoint of a measured run, and the
+ * thresholds from {@link LoadTestSettings} it violates.
+ */
+public class LoadReport {
+
+    private final MeterRegistry registry;
+
+    private final Duration elapsed;
+
+    public LoadReport(final MeterRegistry registry, final Duration elapsed) {
+        this.registry = registry;
+        this.elapsed = elapsed;
+    }
+
+    public void print(final PrintStream out) {
+        out.printf(Locale.ROOT, "%nMeasured for %.1f s%n", elapsed.toNanos() / 1e9);
+        out.printf(Locale.ROOT, "%-14s %10s %10s %10s %10s %10s %10s %10s%n", "endpoint", "requests", "req/s", "non-2xx",
+                "p50 ms", "p99 ms", "p999 ms", "max ms");
+        List<String> endpoints = new ArrayList<>(LoadDriver.ENDPOINTS);
+        endpoints.add(LoadDriver.ALL);
+        for (String endpoint : endpoints) {
+            Timer timer = registry.find("portfoliopro.loadtest.requests").tag("endpoint", endpoint).timer();
+            if (timer == null) {
+                continue;
+            }
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            out.printf(Locale.ROOT, "%-14s %10d %10.1f %10d %10.1f %10.1f %10.1f %10.1f%n", endpoint, timer.count(),
+                    throughput(timer), failed(endpoint), percentile(snapshot, 0.5), percentile(snapshot, 0.99),
+                    percentile(snapshot, 0.999), snapshot.max(TimeUnit.MILLISECONDS));
+        }
+        for (Counter counter : registry.find("portfoliopro.loadtest.responses").counters()) {
+            if (!counter.getId().getTag("status").startsWith("2")) {
+                out.printf(Locale.ROOT, "%s answered %s %d times%n", counter.getId().getTag("endpoint"),
+                        counter.getId().getTag("status"), (long) counter.count());
+            }
+        }
+    }
+
+    /** Thresholds the run did not meet, empty when it passes. */
+    public List<String> violations(final LoadTestSettings settings) {
+        List<String> violations = new ArrayList<>();
+        Timer all = registry.get("portfoliopro.loadtest.requests").tag("endpoint", LoadDriver.ALL).timer();
+        double p99 = percentile(all.takeSnapshot(), 0.99);
+        if (settings.getMaxP99() != null && p99 > settings.getMaxP99().toMillis()) {
+            violations.add("p99 of %.1f ms is above %d ms".formatted(p99, settings.getMaxP99().toMillis()));
+        }
+        if (throughput(all) < settings.getMinThroughput()) {
+            violations.add("%.1f requests/s is below %.1f".formatted(throughput(all), settings.getMinThroughput()));
+        }
+        double errorRate = all.count() > 0 ? (double) failed(LoadDriver.ALL) / all.count() : 0;
+        if (errorRate > settings.getMaxErrorRate()) {
+            violations.add("%.2f%% of responses were not 2xx, above %.2f%%".formatted(errorRate * 100,
+                    settings.getMaxErrorRate() * 100));
+        }
+        return violations;
+    }
+
+    private double throughput(final Timer timer) {
+        return timer.count() / (elapsed.toNanos() / 1e9);
+    }
+
+    private long failed(final String endpoint) {
+        return (long) registry.find("portfoliopro.loadtest.responses").counters().stream()
+            .filter(counter -> LoadDriver.ALL.equals(endpoint) || endpoint.equals(counter.getId().getTag("endpoint")))
+            .filter(counter -> !counter.getId().getTag("status").startsWith("2"))
+            .mapToDouble(Counter::count)
+            .sum();
+    }
+
+    private static double percentile(final HistogramSnapshot snapshot, final double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,105 @@
+package com.task.PortfolioPro.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.task.portfoliopro.PortfolioProApplication;
+import com.task.portfoliopro.entities.Stock;
+import com.task.portfoliopro.services.StockService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * End-to-end load test: starts Alpha Vantage and Finnhub stand-ins, boots the application
+ * against them and an in-memory database, seeds portfolios, then drives the stock listing,
+ * portfolio value, quote and company info endpoints and prints throughput and latency
+ * percentiles. Exits with 1 when a threshold given in {@link LoadTestSettings} is not met, so
+ * it can gate a release.
+ *
+ * <pre>./mvnw -Ploadtest test-compile exec:exec -Dloadtest.args="concurrency=64 duration=60s max-p99=250ms"</pre>
+ */
+public class LoadTest {
+
+    public static void main(final String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+        List<String> violations;
+        try (MarketDataStandIn alphaVantage = new MarketDataStandIn("alpha-vantage", settings);
+                MarketDataStandIn finnhub = new MarketDataStandIn("finnhub", settings);
+                ConfigurableApplicationContext application = start(settings, alphaVantage, finnhub)) {
+            List<String> tickers = tickers(settings);
+            List<String> portfolioIds = seed(application.getBean(StockService.class), settings, tickers);
+            int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+            LoadDriver driver = new LoadDriver("http://localhost:" + port + "/api/v1/portfoliopro", settings,
+                    portfolioIds, tickers);
+
+            System.out.printf("%nWarming up for %s at concurrency %d%n", settings.getWarmup(), settings.getConcurrency());
+            driver.run(settings.getWarmup(), 0, new SimpleMeterRegistry());
+            System.out.printf("Measuring for %s%n", settings.getDuration());
+            SimpleMeterRegistry measured = new SimpleMeterRegistry();
+            LoadReport report = new LoadReport(measured, driver.run(settings.getDuration(), 1, measured));
+
+            report.print(System.out);
+            System.out.println(alphaVantage.summary());
+            System.out.println(finnhub.summary());
+            violations = report.violations(settings);
+            violations.forEach(violation -> System.out.println("FAILED: " + violation));
+        }
+        System.exit(violations.isEmpty() ? 0 : 1);
+    }
+
+    private static ConfigurableApplicationContext start(final LoadTestSettings settings,
+            final MarketDataStandIn alphaVantage, final MarketDataStandIn finnhub) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.r2dbc.url", "r2dbc:h2:mem:///loadtest?options=DB_CLOSE_DELAY=-1");
+        properties.put("spring.sql.init.mode", "always");
+        properties.put("portfoliopro.alpha-vantage-api.url", alphaVantage.url("/query"));
+        properties.put("portfoliopro.alpha-vantage-api.api-key", "loadtest");
+        properties.put("portfoliopro.finnhub-api.url", finnhub.url("/api/v1/search"));
+        properties.put("portfoliopro.finnhub-api.quote-url", finnhub.url("/api/v1/quote"));
+        properties.put("portfoliopro.finnhub-api.api-key", "loadtest");
+        properties.putAll(settings.getApplicationProperties());
+        // devtools is on the test classpath and would restart main with the application's arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return SpringApplication.run(PortfolioProApplication.class, properties.entrySet().stream()
+            .map(property -> "--" + property.getKey() + "=" + property.getValue())
+            .toArray(String[]::new));
+    }
+
+    private static List<String> tickers(final LoadTestSettings settings) {
+        List<String> tickers = new ArrayList<>();
+        for (int i = 0; i < settings.getTickers(); i++) {
+            tickers.add("LT%03d".formatted(i));
+        }
+        return tickers;
+    }
+
+    /** Inserts already priced stocks, so seeding does not spend the providers' rate limits. */
+    private static List<String> seed(final StockService stockService, final LoadTestSettings settings,
+            final List<String> tickers) {
+        SplittableRandom random = new SplittableRandom(settings.getSeed());
+        List<String> portfolioIds = new ArrayList<>();
+        for (int p = 0; p < settings.getPortfolios(); p++) {
+            String portfolioId = "loadtest-" + p;
+            List<Stock> stocks = new ArrayList<>();
+            for (int s = 0; s < settings.getStocksPerPortfolio(); s++) {
+                String ticker = tickers.get(random.nextInt(tickers.size()));
+                int shares = 1 + random.nextInt(100);
+                double price = 20 + random.nextInt(480);
+                stocks.add(new Stock(UUID.randomUUID().toString(), "Company " + ticker, ticker, shares, price, false,
+                        shares * price, portfolioId));
+            }
+            stockService.addStocks(portfolioId, stocks).blockLast();
+            portfolioIds.add(portfolioId);
+        }
+        return portfolioIds;
+    }
+}
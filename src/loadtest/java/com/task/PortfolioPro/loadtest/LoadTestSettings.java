@@ -0,0 +1,109 @@
+package com.task.PortfolioPro.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import lombok.Getter;
+
+/**
+ * Settings of a load test run, given as {@code name=value} arguments; durations take the same
+ * form as in application.yml. Arguments starting with {@code --} are passed on to the
+ * application as properties, e.g. {@code --portfoliopro.quote-cache.ttl=5s}.
+ */
+@Getter
+public class LoadTestSettings {
+
+    /** Requests in flight at any time; each worker sends its next request once the last one completed. */
+    private int concurrency = 32;
+
+    /** Load applied before measuring, so caches, pools and the JIT settle first. */
+    private Duration warmup = Duration.ofSeconds(10);
+
+    private Duration duration = Duration.ofSeconds(30);
+
+    private int portfolios = 20;
+
+    private int stocksPerPortfolio = 50;
+
+    /** Distinct tickers the seeded stocks and the quote and company info requests draw from. */
+    private int tickers = 25;
+
+    /** Relative weight of each endpoint in the request mix, e.g. {@code stocks:4,total-value:3}. */
+    private Map<String, Integer> mix = parseMix("stocks:4,total-value:3,stock-price:2,company-info:1");
+
+    /** Delay of every stand-in response. */
+    private Duration upstreamLatency = Duration.ofMillis(50);
+
+    /** Fraction of stand-in responses that are a 500. */
+    private double upstreamErrorRate = 0.01;
+
+    /** Fraction of stand-in responses that are a 429. */
+    private double upstreamThrottleRate = 0.01;
+
+    /** Seeds the stand-ins' failures and the request sequence of every worker. */
+    private long seed = 42;
+
+    /** Fails the run when the p99 latency over all endpoints is higher; not checked when unset. */
+    private Duration maxP99;
+
+    /** Fails the run when fewer requests per second completed; 0 is not checked. */
+    private double minThroughput;
+
+    /** Fails the run when a larger fraction of responses was not 2xx. */
+    private double maxErrorRate = 1.0;
+
+    private final Map<String, String> applicationProperties = new LinkedHashMap<>();
+
+    public static LoadTestSettings parse(final String... args) {
+        LoadTestSettings settings = new LoadTestSettings();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected name=value but got " + arg);
+            }
+            String name = arg.substring(0, separator);
+            String value = arg.substring(separator + 1);
+            if (name.startsWith("--")) {
+                settings.applicationProperties.put(name.substring(2), value);
+            } else {
+                settings.set(name, value);
+            }
+        }
+        return settings;
+    }
+
+    private void set(final String name, final String value) {
+        switch (name) {
+            case "concurrency" -> concurrency = Integer.parseInt(value);
+            case "warmup" -> warmup = DurationStyle.detectAndParse(value);
+            case "duration" -> duration = DurationStyle.detectAndParse(value);
+            case "portfolios" -> portfolios = Integer.parseInt(value);
+            case "stocks-per-portfolio" -> stocksPerPortfolio = Integer.parseInt(value);
+            case "tickers" -> tickers = Integer.parseInt(value);
+            case "mix" -> mix = parseMix(value);
+            case "upstream-latency" -> upstreamLatency = DurationStyle.detectAndParse(value);
+            case "upstream-error-rate" -> upstreamErrorRate = Double.parseDouble(value);
+            case "upstream-throttle-rate" -> upstreamThrottleRate = Double.parseDouble(value);
+            case "seed" -> seed = Long.parseLong(value);
+            case "max-p99" -> maxP99 = DurationStyle.detectAndParse(value);
+            case "min-throughput" -> minThroughput = Double.parseDouble(value);
+            case "max-error-rate" -> maxErrorRate = Double.parseDouble(value);
+            default -> throw new IllegalArgumentException("Unknown load test setting " + name);
+        }
+    }
+
+    private static Map<String, Integer> parseMix(final String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] weight = entry.split(":");
+            if (!LoadDriver.ENDPOINTS.contains(weight[0])) {
+                throw new IllegalArgumentException("Unknown endpoint " + weight[0] + ", expected one of " + LoadDriver.ENDPOINTS);
+            }
+            mix.put(weight[0], weight.length > 1 ? Integer.parseInt(weight[1]) : 1);
+        }
+        return mix;
+    }
+}
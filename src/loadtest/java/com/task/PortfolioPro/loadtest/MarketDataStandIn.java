@@ -0,0 +1,127 @@
+package com.task.PortfolioPro.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Local HTTP server answering the Alpha Vantage intraday series and the Finnhub search and
+ * quote endpoints the application calls, so a load test never reaches the real providers.
+ * Every response is held back by the configured latency; the configured fractions of requests
+ * are answered with a 500 or with a 429 carrying {@code Retry-After}. Which request fails is
+ * drawn from a seeded random, so runs with the same seed fail alike.
+ */
+public class MarketDataStandIn extends Dispatcher implements AutoCloseable {
+
+    private final String name;
+
+    private final Duration latency;
+
+    private final double errorRate;
+
+    private final double throttleRate;
+
+    private final Random random;
+
+    private final String intradaySeries;
+
+    private final String search;
+
+    private final MockWebServer server = new MockWebServer();
+
+    private final AtomicLong served = new AtomicLong();
+
+    private final AtomicLong errors = new AtomicLong();
+
+    private final AtomicLong throttled = new AtomicLong();
+
+    public MarketDataStandIn(final String name, final LoadTestSettings settings) throws IOException {
+        this.name = name;
+        this.latency = settings.getUpstreamLatency();
+        this.errorRate = settings.getUpstreamErrorRate();
+        this.throttleRate = settings.getUpstreamThrottleRate();
+        this.random = new Random(settings.getSeed() ^ name.hashCode());
+        this.intradaySeries = resource("/alphavantage/time-series-intraday-1min.json");
+        this.search = resource("/finnhub/search-apple.json");
+        Logger.getLogger(MockWebServer.class.getName()).setLevel(Level.WARNING);
+        server.setDispatcher(this);
+        server.start();
+    }
+
+    /** Base URL to point a provider's {@code url} property at, with the given path. */
+    public String url(final String path) {
+        return server.url(path).toString();
+    }
+
+    @Override
+    public MockResponse dispatch(final RecordedRequest request) {
+        served.incrementAndGet();
+        double draw = random.nextDouble();
+        MockResponse response;
+        if (draw < throttleRate) {
+            throttled.incrementAndGet();
+            response = new MockResponse().setResponseCode(429).setHeader("Retry-After", "1");
+        } else if (draw < throttleRate + errorRate) {
+            errors.incrementAndGet();
+            response = new MockResponse().setResponseCode(500);
+        } else {
+            response = json(body(request));
+        }
+        return response.setHeadersDelay(latency.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** One line of requests served, and how many of them failed or were throttled. */
+    public String summary() {
+        return "%s stand-in: %d requests, %d answered 500, %d answered 429".formatted(name, served.get(), errors.get(),
+                throttled.get());
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    private String body(final RecordedRequest request) {
+        String path = request.getRequestUrl().encodedPath();
+        if (path.endsWith("/quote")) {
+            return quote(request.getRequestUrl().queryParameter("symbol"));
+        }
+        if (path.endsWith("/search")) {
+            return search;
+        }
+        return intradaySeries;
+    }
+
+    /** A price that stays the same for a symbol across runs, moving a little on every quote. */
+    private String quote(final String symbol) {
+        double base = 20 + Math.floorMod(String.valueOf(symbol).hashCode(), 480);
+        double current = base * (0.99 + random.nextDouble() * 0.02);
+        return String.format(Locale.ROOT, "{\"c\":%.2f,\"o\":%.2f,\"h\":%.2f,\"l\":%.2f,\"pc\":%.2f,\"t\":%d}",
+                current, base, Math.max(base, current), Math.min(base, current), base, System.currentTimeMillis() / 1000);
+    }
+
+    private static MockResponse json(final String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+    }
+
+    private static String resource(final String path) throws IOException {
+        try (InputStream in = MarketDataStandIn.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IOException("Missing recorded payload " + path);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -3,15 +3,16 @@ package com.task.portfoliopro;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.reactive.config.EnableWebFlux;
 
-@SpringBootApplication
+// jars built with -Pjdbc carry spring-jdbc; the JDBC persistence mode builds its own pool from spring.r2dbc.*
+@SpringBootApplication(excludeName = "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration")
 @EnableWebFlux
-@EnableRetry
 @EnableCaching
 @EnableAsync
+@EnableScheduling
 public class PortfolioProApplication {
 
 	public static void main(String[] args) {
@@ -1,5 +1,9 @@
 package com.task.portfoliopro.api.v1;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,9 +16,16 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.task.portfoliopro.dto.PortfolioUpdateDTO;
+import com.task.portfoliopro.dto.PriceBarDTO;
+import com.task.portfoliopro.dto.PriceResolution;
 import com.task.portfoliopro.dto.StockDTO;
+import com.task.portfoliopro.dto.StockImportResultDTO;
+import com.task.portfoliopro.dto.StockPageDTO;
 import com.task.portfoliopro.dto.StockPriceDTO;
 import com.task.portfoliopro.entities.Stock;
+import com.task.portfoliopro.services.PortfolioValuationStream;
+import com.task.portfoliopro.services.PriceHistoryService;
+import com.task.portfoliopro.services.StockImportService;
 import com.task.portfoliopro.services.StockService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -34,40 +45,75 @@ public class StockController {
     @Autowired
     private StockService stockService;
 
+    @Autowired
+    private PortfolioValuationStream valuationStream;
+
+    @Autowired
+    private StockImportService stockImportService;
+
+    @Autowired
+    private PriceHistoryService priceHistoryService;
+
+
+    @GetMapping({"/stocks", "/portfolios/{portfolioId}/stocks"})
+    @Operation(summary = "Retrieve all added stocks", description = "Fetches all active stocks of the portfolio, the default one when none is given")
+    public Flux<Stock> getAllStocks(@PathVariable(required = false) final String portfolioId) {
+        return stockService.getAllStocks(portfolio(portfolioId));
+    }
 
-    @GetMapping("/stocks")
-    @Operation(summary = "Retrieve all added stocks", description = "Fetches all available stocks in the db")
-    public Flux<Stock> getAllStocks() {
-        return stockService.getAllStocks();
+    @GetMapping(value = {"/stocks", "/portfolios/{portfolioId}/stocks"}, params = "limit")
+    @Operation(summary = "Retrieve a page of added stocks", description = "Keyset paginated listing, optionally filtered by ticker and limited to the given fields; pass nextCursor back as after for the next page")
+    public Mono<StockPageDTO> getStockPage(@PathVariable(required = false) final String portfolioId,
+            @RequestParam final int limit,
+            @RequestParam(required = false) final String after,
+            @RequestParam(required = false) final List<String> ticker,
+            @RequestParam(required = false) final List<String> fields) {
+        log.info("Request received to list a page of {} stocks", limit);
+        return stockService.getStockPage(portfolio(portfolioId), limit, after, ticker, fields);
     }
 
-    @PostMapping("/stocks")
+    @PostMapping({"/stocks", "/portfolios/{portfolioId}/stocks"})
     @Operation(summary = "Add new stock to user's portfolio", description = "Allow user to add new stock to their portfolio")
-    public Mono<Stock> addStock(@RequestBody final StockDTO stockDto) {
+    public Mono<Stock> addStock(@PathVariable(required = false) final String portfolioId, @RequestBody final StockDTO stockDto) {
         log.info("Request received to add stock {}", stockDto.getStockName());
-        return stockService.addStock(stockDto);
+        return stockService.addStock(portfolio(portfolioId), stockDto);
     }
 
-    @DeleteMapping("stocks/{id}")
+    @PostMapping(value = {"/stocks/batch", "/portfolios/{portfolioId}/stocks/batch"}, consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk import stocks into user's portfolio", description = "Streams one StockDTO per line and returns one result per line")
+    public Flux<StockImportResultDTO> importStocks(@PathVariable(required = false) final String portfolioId,
+            @RequestBody final Flux<String> lines) {
+        log.info("Request received to bulk import stocks");
+        return stockImportService.importStocks(portfolio(portfolioId), lines);
+    }
+
+    @DeleteMapping({"stocks/{id}", "/portfolios/{portfolioId}/stocks/{id}"})
     @Operation(summary = "Soft delete a stock from the user portfolio", description = "Remove a stock from the user portfolio")
-    public Mono<Stock> removeStock(@PathVariable final String id) {
+    public Mono<Stock> removeStock(@PathVariable(required = false) final String portfolioId, @PathVariable final String id) {
         log.info("Request recived to soft delete stock with id {}", id);
-        return stockService.removeStock(id);
+        return stockService.removeStock(portfolio(portfolioId), id);
     }
 
-    @DeleteMapping("stocks/{id}/delete")
+    @DeleteMapping({"stocks/{id}/delete", "/portfolios/{portfolioId}/stocks/{id}/delete"})
     // @PreAuthorize("hasRole('Admin')")
     @Operation(summary = "Hard delete a stock from the user portfolio", description = "Permanently delete a stock from the user portfolio")
-    public Mono<Void> deleteStock(@PathVariable final String id) {
+    public Mono<Void> deleteStock(@PathVariable(required = false) final String portfolioId, @PathVariable final String id) {
         log.info("Request recived to hard delete stock with id {}", id);
-        return stockService.deleteStock(id);
+        return stockService.deleteStock(portfolio(portfolioId), id);
     }
 
-    @GetMapping("/total-value")
+    @GetMapping({"/total-value", "/portfolios/{portfolioId}/total-value"})
     @Operation(summary = "Returns the total value of the portfolio", description = "Calculate the total value of the user portfolio")
-    public Mono<PortfolioUpdateDTO> getTotalPortfolioValue() {
+    public Mono<PortfolioUpdateDTO> getTotalPortfolioValue(@PathVariable(required = false) final String portfolioId) {
         log.info("Request received to calculate the total portfolio value for the user");
-        return stockService.totalPortfolioValue();
+        return stockService.totalPortfolioValue(portfolio(portfolioId));
+    }
+
+    @GetMapping(value = {"/total-value/stream", "/portfolios/{portfolioId}/total-value/stream"}, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Streams the total value of the portfolio", description = "Pushes the portfolio value whenever a quote or position changes")
+    public Flux<PortfolioUpdateDTO> streamTotalPortfolioValue(@PathVariable(required = false) final String portfolioId) {
+        log.info("Client subscribed to the live portfolio value stream");
+        return valuationStream.updates(portfolio(portfolioId));
     }
 
     @GetMapping("/stock-price")
@@ -84,9 +130,24 @@ public class StockController {
         return stockService.stockRealTimeSeries(ticker);
     }
 
+    @GetMapping("/stocks/price-history")
+    @Operation(summary = "Returns stored price bars of the given ticker", description = "Serves 1min, 5min or 1day bars in [from, to) from the local price history")
+    public Flux<PriceBarDTO> getPriceHistory(@RequestParam final String ticker,
+            @RequestParam(defaultValue = "1min") final String resolution,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime to) {
+        log.info("Request received to fetch {} price history for {}", resolution, ticker);
+        return priceHistoryService.history(ticker, PriceResolution.fromCode(resolution), from, to);
+    }
+
     @GetMapping("/company-info")
     public Mono<String> getCompanyInfo(@RequestParam final String ticker) {
         log.info("Request received to fetch company info for stock ticker {}", ticker);
         return stockService.getCompanyInfo(ticker);
     }
+
+    /** Paths without a portfolio address the default one. */
+    private static String portfolio(final String portfolioId) {
+        return portfolioId != null ? portfolioId : Stock.DEFAULT_PORTFOLIO;
+    }
 }
@@ -1,49 +1,121 @@
 package com.task.portfoliopro.apiClients;
 
 import java.time.Duration;
+import java.util.Set;
 
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import com.task.portfoliopro.config.AlphaVantageApiConfig;
+import com.task.portfoliopro.dto.StockPriceDTO;
 import com.task.portfoliopro.errors.HttpError;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 import reactor.util.retry.Retry;
 
 @Service
 @Slf4j
-public class AlphaVantageApiClient {
+public class AlphaVantageApiClient implements MarketDataProvider {
 
+    public static final String NAME = "alpha-vantage";
 
     private final AlphaVantageApiConfig alpha;
 
     private final WebClient webClient;
 
-    public AlphaVantageApiClient(final WebClient.Builder webClientBuilder, final AlphaVantageApiConfig alpha) {
+    private final IntradayQuoteParser quoteParser;
+
+    private final TokenBucketRateLimiter rateLimiter;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final UpstreamMetrics metrics;
+
+    public AlphaVantageApiClient(final WebClient.Builder webClientBuilder, final AlphaVantageApiConfig alpha,
+            final IntradayQuoteParser quoteParser, final MeterRegistry meterRegistry) {
         this.alpha  = alpha;
         this.webClient = webClientBuilder.baseUrl(this.alpha.getUrl()).build();
+        this.quoteParser = quoteParser;
+        this.rateLimiter = new TokenBucketRateLimiter(NAME, alpha.getRateLimit(), meterRegistry);
+        this.circuitBreaker = new CircuitBreaker(NAME, alpha.getCircuitBreaker(), meterRegistry);
+        this.metrics = new UpstreamMetrics(NAME, meterRegistry);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Set<Capability> capabilities() {
+        return Set.of(Capability.QUOTES);
     }
 
     public Mono<String> getStockPrice(final String ticker) {
-        log.info("Sending request to Alpha Vantage API for stock {}", ticker);
+        log.debug("Sending request to Alpha Vantage API for stock {}", ticker);
+        return circuitBreaker.protect(rateLimiter.acquire().then(metrics.timed("series", intradaySeries(ticker)
+                                    .retrieve()
+                                    .bodyToMono(String.class))))
+                                    .retryWhen(retry())
+                                    .onErrorMap(exception -> toHttpError(ticker, exception));
+    }
+
+    /**
+     * Fetches the intraday series and decodes only the latest bar straight off the response
+     * {@link DataBuffer} stream.
+     */
+    @Override
+    public Mono<StockPriceDTO> getLatestStockPrice(final String ticker) {
+        log.debug("Sending request to Alpha Vantage API for latest price of stock {}", ticker);
+        return circuitBreaker.protect(rateLimiter.acquire().then(metrics.timed("quote", quoteParser.parseLatest(intradaySeries(ticker)
+                                    .retrieve()
+                                    .bodyToFlux(DataBuffer.class)))))
+                                    .retryWhen(retry())
+                                    .onErrorMap(exception -> toHttpError(ticker, exception));
+    }
+
+    private WebClient.RequestHeadersSpec<?> intradaySeries(final String ticker) {
         return webClient.get().uri(uriBuilder -> uriBuilder
                                     .queryParam("symbol", ticker)
                                     .queryParam("function", "TIME_SERIES_INTRADAY")
                                     .queryParam("interval", "1min")
                                     .queryParam("apikey", alpha.getApiKey())
-                                    .build())
-                                    .retrieve()
-                                    .bodyToMono(String.class)
-                                    .onErrorMap(exception -> {
-                                        log.error("ALPHA VANTAGE API: error from alpha vantage api for stock ticker %s"
-                                                .formatted(exception));
-                                        return new HttpError(HttpStatus.EXPECTATION_FAILED, exception.getMessage());
-                                    }).retryWhen(Retry.fixedDelay(3, Duration.ofSeconds(1))
-                                    .filter(ex -> ex instanceof RuntimeException))
-                                    .subscribeOn(Schedulers.boundedElastic());
+                                    .build());
+    }
+
+    /**
+     * Retries transport failures and 5xx or 429 responses only; an unknown symbol, a spent quota
+     * or any other payload error fails the same way on every attempt. Each attempt goes through
+     * the circuit breaker, so retries stop as soon as the circuit opens.
+     */
+    private static Retry retry() {
+        return Retry.fixedDelay(3, Duration.ofSeconds(1))
+            .filter(AlphaVantageApiClient::isTransient)
+            .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    private static boolean isTransient(final Throwable exception) {
+        if (exception instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError()
+                    || response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+        }
+        return exception instanceof WebClientRequestException;
+    }
+
+    private HttpError toHttpError(final String ticker, final Throwable exception) {
+        if (CircuitBreaker.isRejection(exception)) {
+            return (HttpError) exception;
+        }
+        log.error("ALPHA VANTAGE API: error from alpha vantage api for stock ticker {}", ticker, exception);
+        if (exception instanceof HttpError httpError) {
+            return httpError;
+        }
+        return new HttpError(HttpStatus.EXPECTATION_FAILED, exception.getMessage());
     }
 }
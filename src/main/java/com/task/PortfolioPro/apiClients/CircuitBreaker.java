@@ -0,0 +1,159 @@
+package com.task.portfoliopro.apiClients;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpStatus;
+
+import com.task.portfoliopro.config.CircuitBreakerConfig;
+import com.task.portfoliopro.errors.HttpError;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Circuit breaker in front of one market-data provider. After {@code failure-threshold}
+ * consecutive failed calls the circuit opens and calls fail fast with
+ * {@code 503 SERVICE_UNAVAILABLE} for {@code open-duration}. Then one trial call is let
+ * through: its success closes the circuit, its failure opens it again. Rejections by the
+ * rate limiter say nothing about the provider and are not counted. A {@code 404} for an
+ * unknown symbol is an answer from a healthy provider and counts as a success.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final String provider;
+
+    private final CircuitBreakerConfig config;
+
+    private final Scheduler scheduler;
+
+    private final Counter rejected;
+
+    private State state = State.CLOSED;
+
+    private int failures;
+
+    private long openedAt;
+
+    private boolean probing;
+
+    public CircuitBreaker(final String provider, final CircuitBreakerConfig config, final MeterRegistry meterRegistry) {
+        this(provider, config, meterRegistry, Schedulers.parallel());
+    }
+
+    public CircuitBreaker(final String provider, final CircuitBreakerConfig config, final MeterRegistry meterRegistry,
+            final Scheduler scheduler) {
+        if (config.isEnabled() && config.getFailureThreshold() < 1) {
+            throw new IllegalArgumentException(provider + ": circuit breaker failure threshold must be positive");
+        }
+        this.provider = provider;
+        this.config = config;
+        this.scheduler = scheduler;
+
+        Gauge.builder("portfoliopro.circuitbreaker.state", this, breaker -> breaker.state().ordinal())
+            .description("Circuit breaker state: 0 closed, 1 half open, 2 open")
+            .tag("provider", provider)
+            .register(meterRegistry);
+        this.rejected = Counter.builder("portfoliopro.circuitbreaker.rejected")
+            .description("Upstream calls failed fast by an open circuit")
+            .tag("provider", provider)
+            .register(meterRegistry);
+    }
+
+    /** Runs {@code call} if the circuit lets it through, recording its outcome. */
+    public <T> Mono<T> protect(final Mono<T> call) {
+        if (!config.isEnabled()) {
+            return call;
+        }
+        return Mono.defer(() -> {
+            Permit permit = permit();
+            if (permit == Permit.REJECTED) {
+                rejected.increment();
+                return Mono.error(new HttpError(HttpStatus.SERVICE_UNAVAILABLE,
+                        "%s: circuit open, failing fast".formatted(provider)));
+            }
+            boolean probe = permit == Permit.PROBE;
+            return call
+                .doOnSuccess(ignored -> onSuccess())
+                .doOnError(error -> onError(error, probe))
+                .doOnCancel(() -> onCancel(probe));
+        });
+    }
+
+    /** Whether the error is an open circuit turning a call away; retrying it only fails again. */
+    public static boolean isRejection(final Throwable error) {
+        return error instanceof HttpError httpError && httpError.getStatus() == HttpStatus.SERVICE_UNAVAILABLE;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private synchronized Permit permit() {
+        if (state == State.CLOSED) {
+            return Permit.CALL;
+        }
+        if (state == State.OPEN) {
+            if (scheduler.now(TimeUnit.NANOSECONDS) - openedAt < config.getOpenDuration().toNanos()) {
+                return Permit.REJECTED;
+            }
+            state = State.HALF_OPEN;
+        }
+        if (probing) {
+            return Permit.REJECTED;
+        }
+        probing = true;
+        return Permit.PROBE;
+    }
+
+    private synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("{}: circuit closed", provider);
+        }
+        state = State.CLOSED;
+        failures = 0;
+        probing = false;
+    }
+
+    private synchronized void onError(final Throwable error, final boolean probe) {
+        if (TokenBucketRateLimiter.isRejection(error) || isRejection(error)) {
+            onCancel(probe);
+            return;
+        }
+        if (error instanceof HttpError httpError && httpError.getStatus() == HttpStatus.NOT_FOUND) {
+            onSuccess();
+            return;
+        }
+        failures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= config.getFailureThreshold())) {
+            log.warn("{}: circuit open for {} after {} consecutive failures", provider, config.getOpenDuration(), failures);
+            state = State.OPEN;
+            openedAt = scheduler.now(TimeUnit.NANOSECONDS);
+            probing = false;
+        }
+    }
+
+    /** A trial call that ends without an outcome frees the slot for the next one. */
+    private synchronized void onCancel(final boolean probe) {
+        if (probe) {
+            probing = false;
+        }
+    }
+
+    private enum Permit {
+        REJECTED,
+        CALL,
+        PROBE
+    }
+}
@@ -1,53 +1,118 @@
 package com.task.portfoliopro.apiClients;
 
 import java.time.Duration;
+import java.util.Set;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import com.task.portfoliopro.config.FinnhubApiConfig;
 import com.task.portfoliopro.dto.CompanyDTO;
+import com.task.portfoliopro.dto.FinnhubQuoteDTO;
 import com.task.portfoliopro.dto.FinnhubResponseDTO;
+import com.task.portfoliopro.dto.StockPriceDTO;
 import com.task.portfoliopro.errors.HttpError;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 import reactor.util.retry.Retry;
 
 @Service
 @Slf4j
-public class FinnuhApiClient {
+public class FinnuhApiClient implements MarketDataProvider {
+
+    public static final String NAME = "finnhub";
 
     private final FinnhubApiConfig finnhubApiConfig;
 
     private final WebClient webClient;
 
-    public FinnuhApiClient(final WebClient.Builder webClientBuilder, final FinnhubApiConfig finnhubApiConfig) {
+    private final TokenBucketRateLimiter rateLimiter;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final UpstreamMetrics metrics;
+
+    public FinnuhApiClient(final WebClient.Builder webClientBuilder, final FinnhubApiConfig finnhubApiConfig,
+            final MeterRegistry meterRegistry) {
         this.finnhubApiConfig = finnhubApiConfig;
         this.webClient = webClientBuilder.baseUrl(this.finnhubApiConfig.getUrl()).build();
+        this.rateLimiter = new TokenBucketRateLimiter(NAME, finnhubApiConfig.getRateLimit(), meterRegistry);
+        this.circuitBreaker = new CircuitBreaker(NAME, finnhubApiConfig.getCircuitBreaker(), meterRegistry);
+        this.metrics = new UpstreamMetrics(NAME, meterRegistry);
     }
 
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Set<Capability> capabilities() {
+        return Set.of(Capability.QUOTES, Capability.COMPANY_INFO);
+    }
+
+    @Override
     public Mono<String> getCompanyInfo(final String ticker) {
-        log.info("Sending request to FINNHUB API for stock {}", ticker);
-        return webClient.get().uri(uriBuilder -> uriBuilder
+        log.debug("Sending request to FINNHUB API for stock {}", ticker);
+        return circuitBreaker.protect(rateLimiter.acquire().then(metrics.timed("company-info", webClient.get().uri(uriBuilder -> uriBuilder
                                     .queryParam("q", ticker)
                                     .queryParam("token", finnhubApiConfig.getApiKey())
                                     .build())
                                     .retrieve()
-                                    .bodyToMono(FinnhubResponseDTO.class)
+                                    .bodyToMono(FinnhubResponseDTO.class))))
                                     .flatMap(respone -> Flux.fromIterable(respone.getResult())
                                     .next()
                                     .map(CompanyDTO::getDescription))
-                                    .onErrorMap(exception -> {
-                                        log.error("FINNHUB API: error from Finnhub api for stock ticker %s"
-                                                .formatted(exception));
-                                        return new HttpError(HttpStatus.EXPECTATION_FAILED, exception.getMessage());
-                                    }).retryWhen(Retry.fixedDelay(3, Duration.ofSeconds(1))
-                                    .filter(ex -> ex instanceof RuntimeException))
-                                    .subscribeOn(Schedulers.boundedElastic());
+                                    .retryWhen(retry())
+                                    .onErrorMap(exception -> toHttpError(ticker, exception));
+    }
+
+    /** Latest quote from the {@code /quote} endpoint; a symbol Finnhub does not know fails with 404. */
+    @Override
+    public Mono<StockPriceDTO> getLatestStockPrice(final String ticker) {
+        log.debug("Sending request to FINNHUB API for latest price of stock {}", ticker);
+        return circuitBreaker.protect(rateLimiter.acquire().then(metrics.timed("quote", webClient.get().uri(finnhubApiConfig.getQuoteUrl(), uriBuilder -> uriBuilder
+                                    .queryParam("symbol", ticker)
+                                    .queryParam("token", finnhubApiConfig.getApiKey())
+                                    .build())
+                                    .retrieve()
+                                    .bodyToMono(FinnhubQuoteDTO.class))))
+                                    .flatMap(quote -> quote.getCurrentPrice() > 0
+                                            ? Mono.just(quote.toStockPrice())
+                                            : Mono.error(new HttpError(HttpStatus.NOT_FOUND, "FINNHUB API: no quote for " + ticker)))
+                                    .retryWhen(retry())
+                                    .onErrorMap(exception -> toHttpError(ticker, exception));
     }
 
+    /**
+     * Retries transport failures and 5xx or 429 responses only; rejections, open circuits, unknown
+     * symbols and other client errors fail the same way on every attempt.
+     */
+    private static Retry retry() {
+        return Retry.fixedDelay(3, Duration.ofSeconds(1))
+            .filter(FinnuhApiClient::isTransient)
+            .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    private static boolean isTransient(final Throwable exception) {
+        if (exception instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError()
+                    || response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+        }
+        return exception instanceof WebClientRequestException;
+    }
+
+    private HttpError toHttpError(final String ticker, final Throwable exception) {
+        if (exception instanceof HttpError httpError) {
+            return httpError;
+        }
+        log.error("FINNHUB API: error from Finnhub api for stock ticker {}", ticker, exception);
+        return new HttpError(HttpStatus.EXPECTATION_FAILED, exception.getMessage());
+    }
 }
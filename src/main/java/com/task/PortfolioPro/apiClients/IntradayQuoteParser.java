@@ -0,0 +1,297 @@
+package com.task.portfoliopro.apiClients;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.portfoliopro.dto.PriceBarDTO;
+import com.task.portfoliopro.dto.PriceResolution;
+import com.task.portfoliopro.dto.StockPriceDTO;
+import com.task.portfoliopro.errors.HttpError;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Token-streaming decoder for Alpha Vantage {@code TIME_SERIES_INTRADAY} payloads. Only the
+ * latest bar (the first entry of the series) is decoded; no tree is built and the body is
+ * never buffered as a whole. {@link #parseSeries} decodes every bar for the price history.
+ */
+@Component
+public class IntradayQuoteParser {
+
+    static final String TIME_SERIES_FIELD = "Time Series (1min)";
+
+    private static final List<String> UPSTREAM_MESSAGE_FIELDS = List.of("Error Message", "Note", "Information");
+
+    private static final DateTimeFormatter BAR_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final ObjectMapper objectMapper;
+
+    private final JsonFactory jsonFactory;
+
+    public IntradayQuoteParser(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Emits the latest bar as soon as it has been read. Buffers arriving after that are
+     * released without being tokenized, so the connection can still go back to the pool.
+     */
+    public Mono<StockPriceDTO> parseLatest(final Flux<DataBuffer> body) {
+        return Mono.create(sink -> {
+            LatestBarReader reader = newReader();
+            Disposable subscription = body.subscribe(buffer -> {
+                try {
+                    if (!reader.isDone() && reader.feed(buffer)) {
+                        sink.success(reader.quote());
+                    }
+                } catch (IOException | RuntimeException exception) {
+                    reader.fail();
+                    sink.error(parseError(exception));
+                } finally {
+                    DataBufferUtils.release(buffer);
+                }
+            }, error -> {
+                reader.close();
+                if (!reader.isDone()) {
+                    sink.error(error);
+                }
+            }, () -> {
+                try {
+                    if (!reader.isDone()) {
+                        sink.success(reader.finish());
+                    }
+                } catch (IOException | RuntimeException exception) {
+                    sink.error(parseError(exception));
+                } finally {
+                    reader.close();
+                }
+            });
+            sink.onCancel(() -> {
+                subscription.dispose();
+                reader.close();
+            });
+        });
+    }
+
+    public StockPriceDTO parseLatest(final byte[] payload) {
+        LatestBarReader reader = newReader();
+        try {
+            return reader.feed(ByteBuffer.wrap(payload)) ? reader.quote() : reader.finish();
+        } catch (IOException exception) {
+            throw parseError(exception);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /** Every one-minute bar of the payload, oldest first. */
+    public List<PriceBarDTO> parseSeries(final String ticker, final String payload) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(payload);
+        } catch (IOException exception) {
+            throw parseError(exception);
+        }
+        JsonNode series = root.path(TIME_SERIES_FIELD);
+        if (!series.isObject()) {
+            for (String field : UPSTREAM_MESSAGE_FIELDS) {
+                JsonNode message = root.path(field);
+                if (message.isTextual()) {
+                    throw upstreamError(field, message.asText());
+                }
+            }
+            throw new HttpError(HttpStatus.EXPECTATION_FAILED, "ALPHA VANTAGE API: no intraday data in response");
+        }
+        List<PriceBarDTO> bars = new ArrayList<>(series.size());
+        for (Iterator<Map.Entry<String, JsonNode>> fields = series.fields(); fields.hasNext();) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode bar = field.getValue();
+            bars.add(new PriceBarDTO(ticker, PriceResolution.ONE_MINUTE, LocalDateTime.parse(field.getKey(), BAR_TIME),
+                bar.path("1. open").asDouble(),
+                bar.path("2. high").asDouble(),
+                bar.path("3. low").asDouble(),
+                bar.path("4. close").asDouble(),
+                bar.path("5. volume").asLong()));
+        }
+        bars.sort(Comparator.comparing(PriceBarDTO::getTime));
+        return bars;
+    }
+
+    private LatestBarReader newReader() {
+        try {
+            return new LatestBarReader(jsonFactory.createNonBlockingByteBufferParser());
+        } catch (IOException exception) {
+            throw parseError(exception);
+        }
+    }
+
+    /**
+     * Alpha Vantage answers 200 with a message instead of a series: {@code Error Message} for an
+     * unknown symbol or a bad call, which fails with {@code 404} like every other provider's
+     * unknown symbol, and {@code Note} or {@code Information} once the quota is spent, which fails
+     * like a rate limiter rejection. Neither counts against the circuit breaker.
+     */
+    private static HttpError upstreamError(final String field, final String message) {
+        HttpStatus status = "Error Message".equals(field) ? HttpStatus.NOT_FOUND : HttpStatus.TOO_MANY_REQUESTS;
+        return new HttpError(status, "ALPHA VANTAGE API: " + message);
+    }
+
+    private static HttpError parseError(final Throwable exception) {
+        if (exception instanceof HttpError httpError) {
+            return httpError;
+        }
+        return new HttpError(HttpStatus.EXPECTATION_FAILED, "Error parsing stock price data: " + exception.getMessage());
+    }
+
+    /**
+     * Incremental state machine over the token stream. Depth 1 is the root object, depth 2
+     * the time series and depth 3 the bar being read.
+     */
+    private static final class LatestBarReader {
+
+        private final JsonParser parser;
+
+        private final ByteBufferFeeder feeder;
+
+        private final StockPriceDTO quote = new StockPriceDTO();
+
+        private int depth;
+
+        private boolean inTimeSeries;
+
+        private boolean done;
+
+        private String upstreamField;
+
+        private String upstreamMessage;
+
+        LatestBarReader(final JsonParser parser) {
+            this.parser = parser;
+            this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        boolean feed(final DataBuffer buffer) throws IOException {
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                while (iterator.hasNext()) {
+                    if (feed(iterator.next())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        boolean feed(final ByteBuffer buffer) throws IOException {
+            feeder.feedInput(buffer);
+            return advance();
+        }
+
+        StockPriceDTO finish() throws IOException {
+            feeder.endOfInput();
+            if (advance()) {
+                return quote;
+            }
+            done = true;
+            if (upstreamMessage != null) {
+                throw upstreamError(upstreamField, upstreamMessage);
+            }
+            throw new HttpError(HttpStatus.EXPECTATION_FAILED, "ALPHA VANTAGE API: no intraday data in response");
+        }
+
+        StockPriceDTO quote() {
+            return quote;
+        }
+
+        boolean isDone() {
+            return done;
+        }
+
+        void fail() {
+            done = true;
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // nothing left to release
+            }
+        }
+
+        private boolean advance() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                switch (token) {
+                    case START_OBJECT, START_ARRAY -> depth++;
+                    case END_OBJECT, END_ARRAY -> {
+                        depth--;
+                        if (inTimeSeries && depth == 2) {
+                            done = true;
+                            return true;
+                        }
+                        if (depth == 1) {
+                            inTimeSeries = false;
+                        }
+                    }
+                    case FIELD_NAME -> {
+                        if (depth == 1) {
+                            inTimeSeries = TIME_SERIES_FIELD.equals(parser.currentName());
+                        }
+                    }
+                    case VALUE_STRING, VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> readValue();
+                    default -> {
+                        // booleans and nulls carry nothing we need
+                    }
+                }
+            }
+            return false;
+        }
+
+        private void readValue() throws IOException {
+            String field = parser.currentName();
+            if (field == null) {
+                return;
+            }
+            if (depth == 1) {
+                if (UPSTREAM_MESSAGE_FIELDS.contains(field)) {
+                    upstreamField = field;
+                    upstreamMessage = parser.getText();
+                }
+                return;
+            }
+            if (!inTimeSeries || depth != 3) {
+                return;
+            }
+            switch (field) {
+                case "1. open" -> quote.setOpenPrice(parser.getValueAsDouble());
+                case "2. high" -> quote.setHighPrice(parser.getValueAsDouble());
+                case "3. low" -> quote.setLowPrice(parser.getValueAsDouble());
+                case "4. close" -> quote.setClosePrice(parser.getValueAsDouble());
+                default -> {
+                    // volume is not part of the quote
+                }
+            }
+        }
+    }
+}
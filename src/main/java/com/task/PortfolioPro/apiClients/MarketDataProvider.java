@@ -0,0 +1,33 @@
+package com.task.portfoliopro.apiClients;
+
+import java.util.Set;
+
+import com.task.portfoliopro.dto.StockPriceDTO;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * A source of market data, looked up by {@link #name()} in {@link MarketDataProviderRegistry}.
+ * A provider only has to implement the calls listed in its {@link #capabilities()}.
+ */
+public interface MarketDataProvider {
+
+    enum Capability {
+        QUOTES,
+        COMPANY_INFO
+    }
+
+    /** Name used in {@code portfoliopro.market-data} and in metric tags. */
+    String name();
+
+    Set<Capability> capabilities();
+
+    default Mono<StockPriceDTO> getLatestStockPrice(final String ticker) {
+        return Mono.error(new UnsupportedOperationException(name() + " does not serve quotes"));
+    }
+
+    /** Company description, empty when the provider does not know the ticker. */
+    default Mono<String> getCompanyInfo(final String ticker) {
+        return Mono.error(new UnsupportedOperationException(name() + " does not serve company info"));
+    }
+}
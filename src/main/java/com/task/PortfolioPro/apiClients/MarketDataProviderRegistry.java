@@ -0,0 +1,195 @@
+package com.task.portfoliopro.apiClients;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.task.portfoliopro.apiClients.MarketDataProvider.Capability;
+import com.task.portfoliopro.config.HedgeConfig;
+import com.task.portfoliopro.config.MarketDataConfig;
+import com.task.portfoliopro.dto.StockPriceDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Routes market-data requests to the providers configured under {@code portfoliopro.market-data}.
+ * A request goes to the first provider. If that one has not answered within the
+ * {@code hedge.quantile} of its recent latencies, or fails or finds nothing, the same request
+ * is sent to the second provider and whichever answers first wins; the other is cancelled.
+ * {@link RequestPriority#BACKGROUND} requests only go to the first provider: they are not
+ * waited on, so a hedge would only spend quota.
+ */
+@Component
+@Slf4j
+public class MarketDataProviderRegistry {
+
+    /** Latencies kept per provider and call for the hedge delay. */
+    private static final int LATENCY_WINDOW = 256;
+
+    private final Map<String, MarketDataProvider> providers = new LinkedHashMap<>();
+
+    private final List<MarketDataProvider> quoteProviders;
+
+    private final List<MarketDataProvider> companyInfoProviders;
+
+    private final HedgeConfig hedge;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Scheduler scheduler;
+
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MarketDataProviderRegistry(final List<MarketDataProvider> providers, final MarketDataConfig config,
+            final MeterRegistry meterRegistry) {
+        this(providers, config, meterRegistry, Schedulers.parallel());
+    }
+
+    public MarketDataProviderRegistry(final List<MarketDataProvider> providers, final MarketDataConfig config,
+            final MeterRegistry meterRegistry, final Scheduler scheduler) {
+        for (MarketDataProvider provider : providers) {
+            this.providers.put(provider.name(), provider);
+        }
+        this.quoteProviders = resolve(config.getQuoteProviders(), Capability.QUOTES);
+        this.companyInfoProviders = resolve(config.getCompanyInfoProviders(), Capability.COMPANY_INFO);
+        this.hedge = config.getHedge();
+        this.meterRegistry = meterRegistry;
+        this.scheduler = scheduler;
+    }
+
+    public MarketDataProvider provider(final String name) {
+        MarketDataProvider provider = providers.get(name);
+        if (provider == null) {
+            throw new IllegalArgumentException("Unknown market-data provider " + name + ", known: " + providers.keySet());
+        }
+        return provider;
+    }
+
+    public Mono<StockPriceDTO> getLatestStockPrice(final String ticker) {
+        return hedged(quoteProviders, Capability.QUOTES, provider -> provider.getLatestStockPrice(ticker));
+    }
+
+    /** Company description, empty when no provider knows the ticker. */
+    public Mono<String> getCompanyInfo(final String ticker) {
+        return hedged(companyInfoProviders, Capability.COMPANY_INFO, provider -> provider.getCompanyInfo(ticker));
+    }
+
+    private <T> Mono<T> hedged(final List<MarketDataProvider> candidates, final Capability capability,
+            final Function<MarketDataProvider, Mono<T>> call) {
+        MarketDataProvider primary = candidates.get(0);
+        if (!hedge.isEnabled() || candidates.size() < 2) {
+            return call.apply(primary);
+        }
+        MarketDataProvider alternate = candidates.get(1);
+        LatencyWindow latency = latencies.computeIfAbsent(primary.name() + "/" + capability,
+                key -> new LatencyWindow(primary, capability));
+
+        return Mono.deferContextual(context -> {
+            if (RequestPriority.from(context) == RequestPriority.BACKGROUND) {
+                return call.apply(primary);
+            }
+            long start = scheduler.now(TimeUnit.NANOSECONDS);
+            Sinks.Empty<Void> primaryMissed = Sinks.empty();
+            Mono<T> first = call.apply(primary)
+                .doOnSuccess(value -> {
+                    latency.record(scheduler.now(TimeUnit.NANOSECONDS) - start);
+                    if (value == null) {
+                        primaryMissed.tryEmitEmpty();
+                    }
+                })
+                .doOnError(error -> primaryMissed.tryEmitEmpty())
+                // a cancelled primary lost to the hedge, so it took at least this long
+                .doOnCancel(() -> latency.record(scheduler.now(TimeUnit.NANOSECONDS) - start));
+            Mono<T> second = Mono.firstWithSignal(Mono.delay(latency.hedgeDelay(), scheduler).then(), primaryMissed.asMono())
+                .then(Mono.defer(() -> {
+                    latency.hedged.increment();
+                    log.debug("Hedging {} request to {}", primary.name(), alternate.name());
+                    return call.apply(alternate);
+                }));
+            return Mono.firstWithValue(first, second)
+                .onErrorResume(NoSuchElementException.class, MarketDataProviderRegistry::firstFailure);
+        });
+    }
+
+    /** Neither provider had a value: the first real error, or empty when both found nothing. */
+    private static <T> Mono<T> firstFailure(final NoSuchElementException noValue) {
+        return Arrays.stream(noValue.getSuppressed())
+            .filter(error -> !(error instanceof NoSuchElementException))
+            .findFirst()
+            .<Mono<T>>map(Mono::error)
+            .orElseGet(Mono::empty);
+    }
+
+    private List<MarketDataProvider> resolve(final List<String> names, final Capability capability) {
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("No market-data provider configured for " + capability);
+        }
+        return names.stream()
+            .map(this::provider)
+            .peek(provider -> {
+                if (!provider.capabilities().contains(capability)) {
+                    throw new IllegalArgumentException(provider.name() + " does not serve " + capability);
+                }
+            })
+            .toList();
+    }
+
+    /** The last {@link #LATENCY_WINDOW} latencies of one provider call. */
+    private final class LatencyWindow {
+
+        private final long[] samples = new long[LATENCY_WINDOW];
+
+        private final Counter hedged;
+
+        private int count;
+
+        private int next;
+
+        private long delayNanos = -1;
+
+        LatencyWindow(final MarketDataProvider provider, final Capability capability) {
+            this.hedged = Counter.builder("portfoliopro.marketdata.hedged")
+                .description("Market-data requests also sent to the next provider")
+                .tag("provider", provider.name())
+                .tag("capability", capability.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+        }
+
+        synchronized void record(final long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % LATENCY_WINDOW;
+            count = Math.min(count + 1, LATENCY_WINDOW);
+            delayNanos = -1;
+        }
+
+        synchronized Duration hedgeDelay() {
+            if (count < hedge.getMinSamples()) {
+                return hedge.getInitialDelay();
+            }
+            if (delayNanos < 0) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                int index = (int) Math.ceil(hedge.getQuantile() * count) - 1;
+                delayNanos = Math.max(sorted[Math.max(index, 0)], hedge.getMinDelay().toNanos());
+            }
+            return Duration.ofNanos(delayNanos);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.task.portfoliopro.apiClients;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * Queue priority of an upstream market-data call, carried in the Reactor context. Calls are
+ * {@link #INTERACTIVE} unless the pipeline was marked with {@link #background(Mono)}.
+ */
+public enum RequestPriority {
+    INTERACTIVE,
+    BACKGROUND;
+
+    private static final String CONTEXT_KEY = RequestPriority.class.getName();
+
+    public static RequestPriority from(final ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, INTERACTIVE);
+    }
+
+    public static <T> Mono<T> background(final Mono<T> work) {
+        return work.contextWrite(context -> context.put(CONTEXT_KEY, BACKGROUND));
+    }
+
+    public static <T> Flux<T> background(final Flux<T> work) {
+        return work.contextWrite(context -> context.put(CONTEXT_KEY, BACKGROUND));
+    }
+}
@@ -0,0 +1,257 @@
+package com.task.portfoliopro.apiClients;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.http.HttpStatus;
+
+import com.task.portfoliopro.config.RateLimitConfig;
+import com.task.portfoliopro.errors.HttpError;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Token bucket in front of one market-data provider. Tokens refill continuously at
+ * {@code permits / period} up to {@code burst}. Callers that find the bucket empty wait in a
+ * queue ordered by {@link RequestPriority}, then arrival, and are released as tokens refill;
+ * nothing blocks a thread while waiting. Interactive callers give up after
+ * {@code interactive-queue-timeout}, background ones after {@code queue-timeout}.
+ */
+public class TokenBucketRateLimiter {
+
+    private final String provider;
+
+    private final RateLimitConfig config;
+
+    private final Scheduler scheduler;
+
+    private final double tokensPerNano;
+
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>(
+            Comparator.comparing(Waiter::priority).thenComparingLong(Waiter::sequence));
+
+    private final Timer interactiveWait;
+
+    private final Timer backgroundWait;
+
+    private final Counter queueFull;
+
+    private final Counter timedOut;
+
+    private double tokens;
+
+    private long refilledAt;
+
+    private long sequence;
+
+    private Disposable pendingDrain;
+
+    public TokenBucketRateLimiter(final String provider, final RateLimitConfig config, final MeterRegistry meterRegistry) {
+        this(provider, config, meterRegistry, Schedulers.parallel());
+    }
+
+    public TokenBucketRateLimiter(final String provider, final RateLimitConfig config, final MeterRegistry meterRegistry,
+            final Scheduler scheduler) {
+        if (config.isEnabled() && (config.getPermits() < 1 || config.getBurst() < 1)) {
+            throw new IllegalArgumentException(provider + ": rate limit permits and burst must be positive");
+        }
+        this.provider = provider;
+        this.config = config;
+        this.scheduler = scheduler;
+        this.tokensPerNano = (double) config.getPermits() / config.getPeriod().toNanos();
+        this.tokens = config.getBurst();
+        this.refilledAt = scheduler.now(TimeUnit.NANOSECONDS);
+
+        Gauge.builder("portfoliopro.ratelimiter.queue.depth", this, TokenBucketRateLimiter::queueDepth)
+            .description("Upstream calls waiting for a rate limiter token")
+            .tag("provider", provider)
+            .register(meterRegistry);
+        this.interactiveWait = waitTimer(meterRegistry, RequestPriority.INTERACTIVE);
+        this.backgroundWait = waitTimer(meterRegistry, RequestPriority.BACKGROUND);
+        this.queueFull = rejections(meterRegistry, "queue-full");
+        this.timedOut = rejections(meterRegistry, "timeout");
+    }
+
+    /** Completes once the caller may send one request, at the priority found in the context. */
+    public Mono<Void> acquire() {
+        if (!config.isEnabled()) {
+            return Mono.empty();
+        }
+        return Mono.deferContextual(context -> acquire(RequestPriority.from(context)));
+    }
+
+    public Mono<Void> acquire(final RequestPriority priority) {
+        if (!config.isEnabled()) {
+            return Mono.empty();
+        }
+        Duration queueTimeout = config.queueTimeout(priority);
+        return Mono.<Void>create(sink -> enqueue(sink, priority))
+            .timeout(queueTimeout, scheduler)
+            .onErrorMap(TimeoutException.class, exception -> {
+                timedOut.increment();
+                return new HttpError(HttpStatus.TOO_MANY_REQUESTS,
+                        "%s: no request quota available within %s".formatted(provider, queueTimeout));
+            });
+    }
+
+    /** Whether the error is this limiter turning a call away; retrying it only adds load. */
+    public static boolean isRejection(final Throwable error) {
+        return error instanceof HttpError httpError && httpError.getStatus() == HttpStatus.TOO_MANY_REQUESTS;
+    }
+
+    public synchronized int queueDepth() {
+        return queue.size();
+    }
+
+    private void enqueue(final MonoSink<Void> sink, final RequestPriority priority) {
+        long now = scheduler.now(TimeUnit.NANOSECONDS);
+        Waiter waiter = new Waiter(sink, priority, now);
+        sink.onCancel(() -> cancel(waiter));
+        synchronized (this) {
+            if (waiter.cancelled) {
+                return;
+            }
+            refill(now);
+            if (!queue.isEmpty() || tokens < 1) {
+                if (queue.size() >= config.getMaxQueueSize()) {
+                    queueFull.increment();
+                    sink.error(new HttpError(HttpStatus.TOO_MANY_REQUESTS, provider + ": too many requests waiting for quota"));
+                    return;
+                }
+                waiter.sequence = sequence++;
+                queue.add(waiter);
+                scheduleDrain();
+                return;
+            }
+            tokens -= 1;
+            waiter.granted = true;
+        }
+        timer(priority).record(0, TimeUnit.NANOSECONDS);
+        sink.success();
+    }
+
+    private void drain() {
+        long now = scheduler.now(TimeUnit.NANOSECONDS);
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            pendingDrain = null;
+            refill(now);
+            while (tokens >= 1 && !queue.isEmpty()) {
+                tokens -= 1;
+                Waiter waiter = queue.poll();
+                waiter.granted = true;
+                granted.add(waiter);
+            }
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+        for (Waiter waiter : granted) {
+            timer(waiter.priority()).record(now - waiter.enqueuedAt(), TimeUnit.NANOSECONDS);
+            waiter.sink().success();
+        }
+    }
+
+    /**
+     * A caller that times out or cancels while queued leaves the queue; one that cancels after
+     * being granted but before the grant reached it hands the token back.
+     */
+    private synchronized void cancel(final Waiter waiter) {
+        waiter.cancelled = true;
+        if (!waiter.granted) {
+            queue.remove(waiter);
+            return;
+        }
+        tokens = Math.min(config.getBurst(), tokens + 1);
+        if (!queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    /** Must hold the lock. */
+    private void scheduleDrain() {
+        if (pendingDrain != null) {
+            return;
+        }
+        long delay = (long) Math.ceil((1 - tokens) / tokensPerNano);
+        pendingDrain = scheduler.schedule(this::drain, Math.max(delay, 0), TimeUnit.NANOSECONDS);
+    }
+
+    /** Must hold the lock. */
+    private void refill(final long now) {
+        tokens = Math.min(config.getBurst(), tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+
+    private Timer timer(final RequestPriority priority) {
+        return priority == RequestPriority.BACKGROUND ? backgroundWait : interactiveWait;
+    }
+
+    private Timer waitTimer(final MeterRegistry meterRegistry, final RequestPriority priority) {
+        return Timer.builder("portfoliopro.ratelimiter.wait")
+            .description("Time upstream calls spent waiting for a rate limiter token")
+            .tag("provider", provider)
+            .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+            .register(meterRegistry);
+    }
+
+    private Counter rejections(final MeterRegistry meterRegistry, final String reason) {
+        return Counter.builder("portfoliopro.ratelimiter.rejected")
+            .description("Upstream calls that never got a rate limiter token")
+            .tag("provider", provider)
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    /** {@code sequence}, {@code granted} and {@code cancelled} are guarded by the limiter lock. */
+    private static final class Waiter {
+
+        private final MonoSink<Void> sink;
+
+        private final RequestPriority priority;
+
+        private final long enqueuedAt;
+
+        private long sequence;
+
+        private boolean granted;
+
+        private boolean cancelled;
+
+        private Waiter(final MonoSink<Void> sink, final RequestPriority priority, final long enqueuedAt) {
+            this.sink = sink;
+            this.priority = priority;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        MonoSink<Void> sink() {
+            return sink;
+        }
+
+        RequestPriority priority() {
+            return priority;
+        }
+
+        long sequence() {
+            return sequence;
+        }
+
+        long enqueuedAt() {
+            return enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.task.portfoliopro.apiClients;
+
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Latency and outcome of every request sent to one market-data provider, one attempt at a
+ * time, as {@code portfoliopro.marketdata.requests}; failed attempts are also counted in
+ * {@code portfoliopro.marketdata.errors}. Time spent waiting for a rate limiter token is not
+ * included, it is in {@code portfoliopro.ratelimiter.wait}.
+ */
+public class UpstreamMetrics {
+
+    private final String provider;
+
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamMetrics(final String provider, final MeterRegistry meterRegistry) {
+        this.provider = provider;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** Times {@code request} from subscription until it completes, fails or is cancelled. */
+    public <T> Mono<T> timed(final String call, final Mono<T> request) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return request
+                .doOnSuccess(ignored -> sample.stop(timer(call, "success")))
+                .doOnError(error -> {
+                    String outcome = outcome(error);
+                    sample.stop(timer(call, outcome));
+                    Counter.builder("portfoliopro.marketdata.errors")
+                        .description("Failed requests to a market-data provider")
+                        .tag("provider", provider)
+                        .tag("call", call)
+                        .tag("outcome", outcome)
+                        .tag("exception", error.getClass().getSimpleName())
+                        .register(meterRegistry)
+                        .increment();
+                })
+                .doOnCancel(() -> sample.stop(timer(call, "cancelled")));
+        });
+    }
+
+    private Timer timer(final String call, final String outcome) {
+        return Timer.builder("portfoliopro.marketdata.requests")
+            .description("Requests to a market-data provider, excluding rate limiter waits")
+            .tag("provider", provider)
+            .tag("call", call)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private static String outcome(final Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is4xxClientError() ? "client-error" : "server-error";
+        }
+        if (error instanceof TimeoutException || error.getCause() instanceof TimeoutException) {
+            return "timeout";
+        }
+        return "error";
+    }
+}
@@ -1,5 +1,7 @@
 package com.task.portfoliopro.config;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
@@ -15,4 +17,9 @@ import lombok.NoArgsConstructor;
 public class AlphaVantageApiConfig {
     private String url;
     private String apiKey;
+
+    /** The free tier allows 5 requests a minute. */
+    private RateLimitConfig rateLimit = RateLimitConfig.of(5, Duration.ofMinutes(1), 5);
+
+    private CircuitBreakerConfig circuitBreaker = new CircuitBreakerConfig();
 }
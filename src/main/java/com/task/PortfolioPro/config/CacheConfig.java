@@ -0,0 +1,54 @@
+package com.task.portfoliopro.config;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+public class CacheConfig {
+
+    public static final String QUOTES_CACHE = "quotes";
+
+    public static final String LAST_KNOWN_QUOTES_CACHE = "lastKnownQuotes";
+
+    public static final String COMPANY_INFO_CACHE = "companyInfo";
+
+    public static final String PORTFOLIO_VALUES_CACHE = "portfolioValues";
+
+    /**
+     * Async Caffeine caches so reactive callers can share in-flight loads. Caches are
+     * registered up front so actuator binds their hit/miss/eviction metrics on startup.
+     */
+    @Bean
+    public CacheManager cacheManager(final QuoteCacheConfig quoteCacheConfig,
+            final CompanyInfoCacheConfig companyInfoCacheConfig, final ValuationConfig valuationConfig) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAsyncCacheMode(true);
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(QUOTES_CACHE, Caffeine.newBuilder()
+                .maximumSize(quoteCacheConfig.getMaximumSize())
+                .expireAfterWrite(quoteCacheConfig.getTtl())
+                .recordStats()
+                .buildAsync());
+        cacheManager.registerCustomCache(LAST_KNOWN_QUOTES_CACHE, Caffeine.newBuilder()
+                .maximumSize(quoteCacheConfig.getMaximumSize())
+                .expireAfterWrite(quoteCacheConfig.getLastKnownGoodTtl())
+                .recordStats()
+                .buildAsync());
+        // freshness is tracked per entry by CompanyInfoCache, so only size bounds this cache
+        cacheManager.registerCustomCache(COMPANY_INFO_CACHE, Caffeine.newBuilder()
+                .maximumSize(companyInfoCacheConfig.getMaximumSize())
+                .recordStats()
+                .buildAsync());
+        // one small entry per portfolio, so a large portfolio cannot crowd out the others
+        cacheManager.registerCustomCache(PORTFOLIO_VALUES_CACHE, Caffeine.newBuilder()
+                .maximumSize(valuationConfig.getResultCacheSize())
+                .expireAfterWrite(valuationConfig.getResultTtl())
+                .recordStats()
+                .buildAsync());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,17 @@
+package com.task.portfoliopro.config;
+
+import java.time.Duration;
+
+import lombok.Data;
+
+/** Circuit breaker settings for one market-data provider. */
+@Data
+public class CircuitBreakerConfig {
+    private boolean enabled = true;
+
+    /** Consecutive failed calls that open the circuit. */
+    private int failureThreshold = 5;
+
+    /** How long an open circuit fails calls fast before letting one trial call through. */
+    private Duration openDuration = Duration.ofSeconds(30);
+}
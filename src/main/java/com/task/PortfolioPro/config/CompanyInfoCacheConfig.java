@@ -0,0 +1,25 @@
+package com.task.portfoliopro.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Configuration
+@ConfigurationProperties(prefix = "portfoliopro.company-info-cache")
+@Data
+public class CompanyInfoCacheConfig {
+    /** Upper bound on the number of tickers kept in memory; all of them stay in the database. */
+    private long maximumSize = 10_000;
+
+    /** How long a company description is served without asking Finnhub again. */
+    private Duration ttl = Duration.ofDays(7);
+
+    /** How long past {@code ttl} a description is still served while it is refreshed in the background. */
+    private Duration staleWhileRevalidate = Duration.ofDays(30);
+
+    /** How long a ticker Finnhub does not know is answered as unknown without asking again. */
+    private Duration negativeTtl = Duration.ofDays(1);
+}
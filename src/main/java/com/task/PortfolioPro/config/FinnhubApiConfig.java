@@ -1,5 +1,7 @@
 package com.task.portfoliopro.config;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
@@ -12,4 +14,11 @@ public class FinnhubApiConfig {
     private String url;
     private String apiKey;
 
+    /** Latest quote endpoint, used when Finnhub serves quotes. */
+    private String quoteUrl = "https://finnhub.io/api/v1/quote";
+
+    /** The free tier allows 60 requests a minute. */
+    private RateLimitConfig rateLimit = RateLimitConfig.of(60, Duration.ofMinutes(1), 30);
+
+    private CircuitBreakerConfig circuitBreaker = new CircuitBreakerConfig();
 }
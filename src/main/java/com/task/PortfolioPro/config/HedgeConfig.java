@@ -0,0 +1,22 @@
+package com.task.portfoliopro.config;
+
+import java.time.Duration;
+
+import lombok.Data;
+
+/** When a market-data request is also sent to the next provider. */
+@Data
+public class HedgeConfig {
+    private boolean enabled = true;
+
+    /** The hedge is sent once the first provider has taken longer than this quantile of its recent latencies. */
+    private double quantile = 0.95;
+
+    /** Latencies recorded before the quantile is trusted; {@code initial-delay} is used until then. */
+    private int minSamples = 20;
+
+    private Duration initialDelay = Duration.ofSeconds(2);
+
+    /** Floor on the hedge delay, so a fast provider is not doubled up on every small hiccup. */
+    private Duration minDelay = Duration.ofMillis(100);
+}
@@ -0,0 +1,78 @@
+package com.task.portfoliopro.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+
+import io.netty.channel.ChannelOption;
+import lombok.Data;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Connection pool and HTTP client shared by the market-data clients. Declaring the
+ * {@link ClientHttpConnector} bean makes Spring Boot apply it to every injected
+ * {@code WebClient.Builder}. Pool metrics are published under
+ * {@code reactor.netty.connection.provider.*}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "portfoliopro.http-client")
+@Data
+public class HttpClientConfig {
+    /** Connections kept open per remote host. */
+    private int maxConnections = 50;
+
+    /** Requests allowed to wait for a free connection before failing fast. */
+    private int pendingAcquireMaxCount = 500;
+
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+
+    /** Idle connections are closed after this, before providers drop them silently. */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    private Duration responseTimeout = Duration.ofSeconds(15);
+
+    private boolean compress = true;
+
+    /** Offer HTTP/2 over TLS, falling back to HTTP/1.1 when the provider does not support it. */
+    private boolean http2 = false;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider marketDataConnectionProvider() {
+        return ConnectionProvider.builder("market-data")
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(pendingAcquireMaxCount)
+            .pendingAcquireTimeout(pendingAcquireTimeout)
+            .maxIdleTime(maxIdleTime)
+            .maxLifeTime(maxLifeTime)
+            .evictInBackground(maxIdleTime)
+            .metrics(true)
+            .build();
+    }
+
+    @Bean
+    public ClientHttpConnector marketDataClientHttpConnector(final ConnectionProvider marketDataConnectionProvider) {
+        return new ReactorClientHttpConnector(httpClient(marketDataConnectionProvider));
+    }
+
+    public HttpClient httpClient(final ConnectionProvider connectionProvider) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+            .option(ChannelOption.SO_KEEPALIVE, true)
+            .responseTimeout(responseTimeout)
+            .compress(compress);
+        if (http2) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+        return httpClient;
+    }
+}
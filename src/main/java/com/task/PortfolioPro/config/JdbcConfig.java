@@ -0,0 +1,22 @@
+package com.task.portfoliopro.config;
+
+import java.time.Duration;
+
+import lombok.Data;
+
+/** Connection pool of the {@code jdbc} persistence mode. */
+@Data
+public class JdbcConfig {
+    /** Database of the JDBC persistence mode; derived from {@code spring.r2dbc.url} when unset. */
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    /** Most JDBC statements in flight at once; further calls wait for a connection. */
+    private int maxPoolSize = 16;
+
+    /** Calls fail after waiting this long for a free connection. */
+    private Duration connectionTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,21 @@
+package com.task.portfoliopro.config;
+
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Configuration
+@ConfigurationProperties(prefix = "portfoliopro.market-data")
+@Data
+public class MarketDataConfig {
+    /** Providers asked for quotes, first choice first; the second one receives hedged requests. */
+    private List<String> quoteProviders = List.of("alpha-vantage", "finnhub");
+
+    /** Providers asked for company descriptions, first choice first. */
+    private List<String> companyInfoProviders = List.of("finnhub");
+
+    private HedgeConfig hedge = new HedgeConfig();
+}
@@ -0,0 +1,19 @@
+package com.task.portfoliopro.config;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+import lombok.Data;
+
+/** Regular trading session, Monday to Friday. Exchange holidays are not modelled. */
+@Data
+public class MarketHoursConfig {
+    /** When disabled the market is treated as always open. */
+    private boolean enabled = true;
+
+    private ZoneId zone = ZoneId.of("America/New_York");
+
+    private LocalTime open = LocalTime.of(9, 30);
+
+    private LocalTime close = LocalTime.of(16, 0);
+}
@@ -0,0 +1,34 @@
+package com.task.portfoliopro.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import com.task.portfoliopro.repository.RepositoryMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Adds {@link RepositoryMetrics} to every Spring Data repository before its proxy is built.
+     * Static, and the registry looked up lazily, so post-processing does not initialise the
+     * metrics beans early.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryMetricsPostProcessor(final ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(final Object bean, final String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor(new RepositoryMetrics(meterRegistry.getObject())));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.task.portfoliopro.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.StringUtils;
+
+import com.task.portfoliopro.repository.JdbcStockRepository;
+import com.task.portfoliopro.repository.R2dbcStockRepository;
+import com.task.portfoliopro.repository.RepositoryMetrics;
+import com.task.portfoliopro.repository.StockRepository;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import lombok.Data;
+
+/**
+ * Chooses how {@link StockRepository} reaches the database. {@code r2dbc} uses the reactive
+ * driver and pool of {@link R2dbcPoolConfig}; {@code jdbc} runs the same queries on plain JDBC,
+ * one virtual thread per call, over a Hikari pool whose occupancy is published under
+ * {@code hikaricp.connections.*}. Everything else stays on R2DBC in both modes. Only jars
+ * packaged with the {@code jdbc} Maven profile carry the JDBC classes {@code jdbc} mode needs.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "portfoliopro.persistence")
+@Data
+public class PersistenceConfig {
+
+    public enum Mode { R2DBC, JDBC }
+
+    private Mode mode = Mode.R2DBC;
+
+    private JdbcConfig jdbc = new JdbcConfig();
+
+    @Bean
+    @Primary
+    public StockRepository stockRepository(final R2dbcStockRepository r2dbcStockRepository,
+            final ObjectProvider<JdbcStockRepository> jdbcStockRepository, final MeterRegistry meterRegistry) {
+        if (mode == Mode.JDBC) {
+            JdbcStockRepository repository = jdbcStockRepository.getIfAvailable();
+            if (repository == null) {
+                throw new IllegalStateException(
+                        "portfoliopro.persistence.mode=jdbc needs spring-jdbc and HikariCP; package with -Pjdbc");
+            }
+            return new RepositoryMetrics(meterRegistry).timed(repository, StockRepository.class);
+        }
+        return r2dbcStockRepository;
+    }
+
+    /** Left out of builds without the {@code jdbc} profile, which carry no JDBC pool or driver support. */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "com.zaxxer.hikari.HikariDataSource")
+    static class JdbcPool {
+
+        /** Only created in {@code jdbc} mode, so the default mode opens no JDBC connections. */
+        @Bean(destroyMethod = "close")
+        @Lazy
+        JdbcStockRepository jdbcStockRepository(final PersistenceConfig persistenceConfig,
+                final R2dbcProperties r2dbcProperties, final R2dbcPoolConfig r2dbcPoolConfig, final MeterRegistry meterRegistry) {
+            JdbcConfig jdbc = persistenceConfig.getJdbc();
+            HikariConfig pool = new HikariConfig();
+            pool.setPoolName("portfoliopro-jdbc");
+            pool.setJdbcUrl(StringUtils.hasText(jdbc.getUrl()) ? jdbc.getUrl()
+                    : jdbcUrl(r2dbcPoolConfig.connectionOptions(r2dbcProperties)));
+            pool.setUsername(StringUtils.hasText(jdbc.getUsername()) ? jdbc.getUsername() : r2dbcProperties.getUsername());
+            pool.setPassword(StringUtils.hasText(jdbc.getPassword()) ? jdbc.getPassword() : r2dbcProperties.getPassword());
+            pool.setMaximumPoolSize(jdbc.getMaxPoolSize());
+            pool.setConnectionTimeout(jdbc.getConnectionTimeout().toMillis());
+            pool.setMetricRegistry(meterRegistry);
+            return new JdbcStockRepository(new HikariDataSource(pool));
+        }
+    }
+
+    /**
+     * JDBC URL of the H2 database an R2DBC URL opens, with its H2 settings, the statement cache
+     * included.
+     */
+    public static String jdbcUrl(final ConnectionFactoryOptions options) {
+        if (!"h2".equals(options.getValue(ConnectionFactoryOptions.DRIVER))) {
+            throw new IllegalStateException(
+                    "portfoliopro.persistence.jdbc.url must be set unless spring.r2dbc.url names an H2 database");
+        }
+        Object h2Options = options.getValue(Option.valueOf("options"));
+        return "jdbc:h2:" + options.getRequiredValue(ConnectionFactoryOptions.PROTOCOL) + ":"
+                + options.getRequiredValue(ConnectionFactoryOptions.DATABASE) + (h2Options != null ? ";" + h2Options : "");
+    }
+}
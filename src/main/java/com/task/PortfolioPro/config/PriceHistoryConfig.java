@@ -0,0 +1,29 @@
+package com.task.portfoliopro.config;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Configuration
+@ConfigurationProperties(prefix = "portfoliopro.price-history")
+@Data
+public class PriceHistoryConfig {
+    /** Time zone of the bar timestamps Alpha Vantage reports. */
+    private ZoneId zone = ZoneId.of("America/New_York");
+
+    /** A ticker's intraday series is downloaded at most this often; reads in between are served from stored bars. */
+    private Duration refreshAfter = Duration.ofMinutes(1);
+
+    /** How long one-minute bars are kept before being compacted into five-minute bars. */
+    private Duration minuteRetention = Duration.ofDays(1);
+
+    /** How long five-minute bars are kept before being compacted into daily bars. */
+    private Duration fiveMinuteRetention = Duration.ofDays(30);
+
+    /** How often aged price bars are compacted. */
+    private Duration compactionInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,22 @@
+package com.task.portfoliopro.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Configuration
+@ConfigurationProperties(prefix = "portfoliopro.quote-cache")
+@Data
+public class QuoteCacheConfig {
+    /** How long a quote is served from the cache before it is fetched again. */
+    private Duration ttl = Duration.ofSeconds(60);
+
+    /** Upper bound on the number of tickers kept in the cache. */
+    private long maximumSize = 10_000;
+
+    /** How long the last fetched quote of a ticker is kept to value it with while the provider fails. */
+    private Duration lastKnownGoodTtl = Duration.ofDays(1);
+}
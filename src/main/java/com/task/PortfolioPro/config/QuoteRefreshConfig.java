@@ -0,0 +1,32 @@
+package com.task.portfoliopro.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Configuration
+@ConfigurationProperties(prefix = "portfoliopro.quote-refresh")
+@Data
+public class QuoteRefreshConfig {
+    private boolean enabled = true;
+
+    /** Delay between refresh runs. */
+    private Duration interval = Duration.ofSeconds(30);
+
+    /**
+     * Most upstream calls made per run. Each run refreshes as many tickers as it takes to go
+     * over every held ticker within the quote cache ttl, up to this; with the defaults that is
+     * at most 4 of the 5 Alpha Vantage calls a minute, leaving the rest to request paths. A
+     * refreshed quote is served until the next pass is expected to replace it, and loaded on
+     * the request path once that time has passed.
+     */
+    private int maxTickersPerRun = 2;
+
+    /** Quotes refreshed more recently than this are left alone. */
+    private Duration maxAge = Duration.ofSeconds(30);
+
+    private MarketHoursConfig marketHours = new MarketHoursConfig();
+}
@@ -0,0 +1,113 @@
+package com.task.portfoliopro.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import com.task.portfoliopro.repository.R2dbcPoolMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import lombok.Data;
+import reactor.core.publisher.Mono;
+
+/**
+ * Connection pool in front of the database at {@code spring.r2dbc.url}. Declaring the
+ * {@link ConnectionFactory} bean replaces the pool Spring Boot would build from
+ * {@code spring.r2dbc.pool}. Occupancy is published under {@code r2dbc.pool.*}, waits for a
+ * connection and connection churn under {@code portfoliopro.r2dbc.pool.*}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "portfoliopro.r2dbc-pool")
+@Data
+public class R2dbcPoolConfig {
+    /** Semicolon separated settings passed through to H2. */
+    private static final Option<String> H2_OPTIONS = Option.valueOf("options");
+
+    /** Connections opened at startup. */
+    private int initialSize = 4;
+
+    private int maxSize = 16;
+
+    /** Idle connections kept open below which none is closed for being idle. */
+    private int minIdle = 4;
+
+    /** Requests fail with a timeout after waiting this long for a free connection. */
+    private Duration maxAcquireTime = Duration.ofSeconds(5);
+
+    private Duration maxCreateConnectionTime = Duration.ofSeconds(5);
+
+    private Duration maxIdleTime = Duration.ofMinutes(10);
+
+    private Duration maxLifeTime = Duration.ofMinutes(30);
+
+    /** Run on every acquire when set; otherwise only a local check that the connection is open. */
+    private String validationQuery;
+
+    /**
+     * Parsed statements kept per connection by H2, so a repository query is parsed once per
+     * pooled connection rather than on every call. Applied when the database is opened; 0
+     * leaves the H2 default of 8.
+     */
+    private int statementCacheSize = 64;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory(final R2dbcProperties properties, final MeterRegistry meterRegistry) {
+        String name = StringUtils.hasText(properties.getName()) ? properties.getName() : "portfoliopro";
+        // built by Boot so the script initializer can still tell the database type through the pool
+        return connectionPool(name, ConnectionFactoryBuilder.withOptions(connectionOptions(properties).mutate()).build(),
+            meterRegistry);
+    }
+
+    /** Options of {@code spring.r2dbc.url} and credentials, with the statement cache for H2. */
+    public ConnectionFactoryOptions connectionOptions(final R2dbcProperties properties) {
+        ConnectionFactoryOptions parsed = ConnectionFactoryOptions.parse(properties.getUrl());
+        ConnectionFactoryOptions.Builder options = parsed.mutate();
+        if (StringUtils.hasText(properties.getUsername())) {
+            options.option(ConnectionFactoryOptions.USER, properties.getUsername());
+        }
+        if (StringUtils.hasText(properties.getPassword())) {
+            options.option(ConnectionFactoryOptions.PASSWORD, properties.getPassword());
+        }
+        if (statementCacheSize > 0 && "h2".equals(parsed.getValue(ConnectionFactoryOptions.DRIVER))) {
+            Object h2Options = parsed.getValue(H2_OPTIONS);
+            options.option(H2_OPTIONS, (h2Options != null ? h2Options + ";" : "") + "QUERY_CACHE_SIZE=" + statementCacheSize);
+        }
+        return options.build();
+    }
+
+    public ConnectionPool connectionPool(final String name, final ConnectionFactory connectionFactory,
+            final MeterRegistry meterRegistry) {
+        R2dbcPoolMetrics metrics = new R2dbcPoolMetrics(name, meterRegistry);
+        ConnectionPoolConfiguration.Builder pool = ConnectionPoolConfiguration.builder(connectionFactory)
+            .name(name)
+            .initialSize(initialSize)
+            .maxSize(maxSize)
+            .minIdle(minIdle)
+            .maxAcquireTime(maxAcquireTime)
+            .maxCreateConnectionTime(maxCreateConnectionTime)
+            .maxIdleTime(maxIdleTime)
+            .maxLifeTime(maxLifeTime)
+            .backgroundEvictionInterval(maxIdleTime)
+            .metricsRecorder(metrics);
+        if (StringUtils.hasText(validationQuery)) {
+            pool.validationQuery(validationQuery);
+        }
+        return new ConnectionPool(pool.build()) {
+            @Override
+            public Mono<Connection> create() {
+                return metrics.timedAcquire(super.create());
+            }
+        };
+    }
+}
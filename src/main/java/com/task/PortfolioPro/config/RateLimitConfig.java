@@ -0,0 +1,42 @@
+package com.task.portfoliopro.config;
+
+import java.time.Duration;
+
+import com.task.portfoliopro.apiClients.RequestPriority;
+
+import lombok.Data;
+
+/** Token bucket settings for one market-data provider. */
+@Data
+public class RateLimitConfig {
+    private boolean enabled = true;
+
+    /** Requests granted per {@link #period}, i.e. the provider quota. */
+    private int permits;
+
+    private Duration period = Duration.ofMinutes(1);
+
+    /** Tokens the bucket can hold, i.e. the largest burst sent at once. */
+    private int burst;
+
+    /** Waiting requests beyond this are rejected instead of queued. */
+    private int maxQueueSize = 1_000;
+
+    /** Longest a background request waits for a token before failing. */
+    private Duration queueTimeout = Duration.ofMinutes(2);
+
+    /** Longest an interactive request waits for a token; someone is waiting on the answer. */
+    private Duration interactiveQueueTimeout = Duration.ofSeconds(5);
+
+    public Duration queueTimeout(final RequestPriority priority) {
+        return priority == RequestPriority.INTERACTIVE ? interactiveQueueTimeout : queueTimeout;
+    }
+
+    public static RateLimitConfig of(final int permits, final Duration period, final int burst) {
+        RateLimitConfig config = new RateLimitConfig();
+        config.setPermits(permits);
+        config.setPeriod(period);
+        config.setBurst(burst);
+        return config;
+    }
+}
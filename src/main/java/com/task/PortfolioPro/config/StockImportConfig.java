@@ -0,0 +1,17 @@
+package com.task.portfoliopro.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Configuration
+@ConfigurationProperties(prefix = "portfoliopro.stock-import")
+@Data
+public class StockImportConfig {
+    /** Number of NDJSON lines priced and written per multi-row insert. */
+    private int chunkSize = 500;
+
+    /** Maximum number of distinct tickers of a chunk priced concurrently. */
+    private int quoteConcurrency = 8;
+}
@@ -0,0 +1,28 @@
+package com.task.portfoliopro.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Configuration
+@ConfigurationProperties(prefix = "portfoliopro.valuation")
+@Data
+public class ValuationConfig {
+    /** Maximum number of distinct tickers priced concurrently during a valuation. */
+    private int concurrency = 8;
+
+    /** Longest a valuation waits for a fresh quote before using the last known one. */
+    private Duration quoteTimeout = Duration.ofSeconds(10);
+
+    /** How often the live valuation stream re-prices the portfolio when no position changes. */
+    private Duration streamInterval = Duration.ofSeconds(5);
+
+    /** How long a portfolio valuation is served to other requests unless a position of that portfolio changes. */
+    private Duration resultTtl = Duration.ofSeconds(5);
+
+    /** Most portfolios whose valuation is cached at once. */
+    private long resultCacheSize = 10_000;
+}
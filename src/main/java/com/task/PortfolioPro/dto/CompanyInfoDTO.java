@@ -0,0 +1,19 @@
+package com.task.portfoliopro.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Cached company description of a ticker; {@code description} is null when Finnhub does not know the ticker. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyInfoDTO {
+    private String ticker;
+
+    private String description;
+
+    private Instant fetchedAt;
+}
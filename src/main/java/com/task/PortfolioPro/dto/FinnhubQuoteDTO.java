@@ -0,0 +1,29 @@
+package com.task.portfoliopro.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Finnhub {@code /quote} response; every price is 0 when Finnhub does not know the symbol. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FinnhubQuoteDTO {
+    @JsonProperty("c")
+    private double currentPrice;
+
+    @JsonProperty("o")
+    private double openPrice;
+
+    @JsonProperty("h")
+    private double highPrice;
+
+    @JsonProperty("l")
+    private double lowPrice;
+
+    public StockPriceDTO toStockPrice() {
+        return new StockPriceDTO(openPrice, currentPrice, highPrice, lowPrice);
+    }
+}
@@ -1,5 +1,7 @@
 package com.task.portfoliopro.dto;
 
+import java.util.List;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,4 +15,13 @@ public class PortfolioUpdateDTO {
 
     private double currentPortfolioValue;
 
+    /** Tickers valued at their last known quote because a fresh one could not be fetched. */
+    private List<String> staleTickers = List.of();
+
+    /** Tickers with no quote at all, valued at their cost basis. */
+    private List<String> unpricedTickers = List.of();
+
+    public PortfolioUpdateDTO(final double initialPortfolioValue, final double currentPortfolioValue) {
+        this(initialPortfolioValue, currentPortfolioValue, List.of(), List.of());
+    }
 }
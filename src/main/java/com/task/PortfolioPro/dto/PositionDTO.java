@@ -0,0 +1,16 @@
+package com.task.portfoliopro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PositionDTO {
+    private String ticker;
+
+    private long shares;
+
+    private double totalCost;
+}
@@ -0,0 +1,29 @@
+package com.task.portfoliopro.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceBarDTO {
+    private String ticker;
+
+    private PriceResolution resolution;
+
+    /** Start of the bar, in exchange local time as reported by Alpha Vantage. */
+    private LocalDateTime time;
+
+    private double openPrice;
+
+    private double highPrice;
+
+    private double lowPrice;
+
+    private double closePrice;
+
+    private long volume;
+}
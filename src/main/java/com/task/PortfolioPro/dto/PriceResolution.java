@@ -0,0 +1,44 @@
+package com.task.portfoliopro.dto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.task.portfoliopro.errors.HttpError;
+
+/** Width of a stored price bar. Minute bars are compacted into five-minute and then daily bars as they age. */
+public enum PriceResolution {
+    ONE_MINUTE("1min"),
+    FIVE_MINUTES("5min"),
+    DAILY("1day");
+
+    private final String code;
+
+    PriceResolution(final String code) {
+        this.code = code;
+    }
+
+    @JsonValue
+    public String code() {
+        return code;
+    }
+
+    /** Start of the bar of this resolution that contains {@code time}. */
+    public LocalDateTime bucket(final LocalDateTime time) {
+        return switch (this) {
+            case ONE_MINUTE -> time.truncatedTo(ChronoUnit.MINUTES);
+            case FIVE_MINUTES -> time.truncatedTo(ChronoUnit.HOURS).plusMinutes(time.getMinute() / 5 * 5);
+            case DAILY -> time.truncatedTo(ChronoUnit.DAYS);
+        };
+    }
+
+    public static PriceResolution fromCode(final String code) {
+        return Arrays.stream(values())
+            .filter(resolution -> resolution.code.equalsIgnoreCase(code))
+            .findFirst()
+            .orElseThrow(() -> new HttpError(HttpStatus.BAD_REQUEST, "Unknown price resolution " + code));
+    }
+}
@@ -0,0 +1,32 @@
+package com.task.portfoliopro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockImportResultDTO {
+
+    public enum Status { CREATED, FAILED }
+
+    /** 1-based line number in the uploaded NDJSON body. */
+    private long line;
+
+    private String ticker;
+
+    private Status status;
+
+    private String stockId;
+
+    private String error;
+
+    public static StockImportResultDTO created(final long line, final String ticker, final String stockId) {
+        return new StockImportResultDTO(line, ticker, Status.CREATED, stockId, null);
+    }
+
+    public static StockImportResultDTO failed(final long line, final String ticker, final String error) {
+        return new StockImportResultDTO(line, ticker, Status.FAILED, null, error);
+    }
+}
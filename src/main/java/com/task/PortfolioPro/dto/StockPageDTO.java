@@ -0,0 +1,19 @@
+package com.task.portfoliopro.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockPageDTO {
+    /** Requested fields of each stock, always including its id. */
+    private List<Map<String, Object>> items;
+
+    /** Pass as {@code after} to get the next page; null on the last page. */
+    private String nextCursor;
+}
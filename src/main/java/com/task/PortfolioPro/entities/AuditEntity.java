@@ -12,34 +12,29 @@ import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.annotation.LastModifiedBy;
-
-import jakarta.persistence.Column;
-import jakarta.persistence.Temporal;
-import jakarta.persistence.TemporalType;
+import org.springframework.data.relational.core.mapping.Column;
 
 @Getter
 @Setter
 @NoArgsConstructor
 public class AuditEntity {
     
-    @Column(name = "created_by")
+    @Column("createdBy")
     @JsonIgnore
     @CreatedBy
     private String createdBy;
 
-    @Column(name = "lastUpdatedBy")
+    @Column("lastUpdatedBy")
     @JsonIgnore
     @LastModifiedBy
     private String lastUpdatedBy;
 
-    @Temporal(TemporalType.TIMESTAMP)
-    @Column(name = "created_at", nullable = false, updatable =  false)
+    @Column("created_at")
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:s")
     @CreatedDate
     private LocalDateTime createdAt;
 
-    @Temporal(TemporalType.TIMESTAMP)
-    @Column(name = "updated_at", nullable = false)
+    @Column("updated_at")
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:s")
     @LastModifiedDate
     private LocalDateTime updatedAt;
@@ -1,14 +1,15 @@
 package com.task.portfoliopro.entities;
 
-import jakarta.persistence.Id;
-import jakarta.persistence.Column;
-import jakarta.persistence.Entity;
-import jakarta.persistence.Table;
-
 import java.util.UUID;
 
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
 import org.springframework.validation.annotation.Validated;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import com.task.portfoliopro.dto.StockDTO;
 
 import lombok.AllArgsConstructor;
@@ -17,36 +18,44 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-@Entity
-@Table(name = "stock")
+@Table("stock")
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Validated
 @EqualsAndHashCode(callSuper = false)
-public class Stock extends AuditEntity {
+public class Stock extends AuditEntity implements Persistable<String> {
+    /** Portfolio of stocks added without naming one, and of every stock from before portfolios existed. */
+    public static final String DEFAULT_PORTFOLIO = "default";
+
     @Id
     private String id  = UUID.randomUUID().toString();
 
-    @Column(name = "stock_name", nullable = false)
+    @Column("stock_name")
     private String stockName;
 
-    @Column(nullable = false)
     private String ticker;
 
-    @Column(nullable = false)
     private int shares;
 
-    @Column(nullable = false)
     private double price;
 
-    @Column(name = "is_deleted")
+    @Column("is_deleted")
     private boolean isDeleted;
 
-    @Column(name = "total_cost", nullable = false)
+    @Column("total_cost")
     private double totalCost;
 
+    @Column("portfolio_id")
+    private String portfolioId = DEFAULT_PORTFOLIO;
+
+    /** A stock of the default portfolio. */
+    public Stock(final String id, final String stockName, final String ticker, final int shares, final double price,
+            final boolean isDeleted, final double totalCost) {
+        this(id, stockName, ticker, shares, price, isDeleted, totalCost, DEFAULT_PORTFOLIO);
+    }
+
     public Stock(final StockDTO stockDto) {
         setStockName(stockDto.getStockName());
         setPrice(stockDto.getPrice());
@@ -54,4 +63,19 @@ public class Stock extends AuditEntity {
         setTicker(stockDto.getTicker());
         setTotalCost(stockDto.getPrice() * stockDto.getShares());
     }
+
+    public Stock(final String portfolioId, final StockDTO stockDto) {
+        this(stockDto);
+        setPortfolioId(portfolioId);
+    }
+
+    /**
+     * Ids are assigned on construction, so a stock counts as new until it has been read back
+     * with the creation time the database sets, and saving it inserts rather than updates.
+     */
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return getCreatedAt() == null;
+    }
 }
@@ -2,7 +2,7 @@ package com.task.portfoliopro.exception;
 
 import com.task.portfoliopro.errors.HttpError;
 
-import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
@@ -13,8 +13,8 @@ import lombok.extern.slf4j.Slf4j;
 
 
 @Slf4j
-@ControllerAdvice
-public abstract class CustomeExcptionHandler extends  RuntimeException {
+@RestControllerAdvice
+public class CustomeExcptionHandler {
     @ExceptionHandler({HttpError.class})
     public ResponseEntity<?> handleError(final HttpError error) {
         log.error(error.getMessage());
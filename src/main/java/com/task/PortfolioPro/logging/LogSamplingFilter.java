@@ -0,0 +1,94 @@
+package com.task.portfoliopro.logging;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Marker;
+import org.springframework.boot.convert.DurationStyle;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Lets through at most {@code maxPerInterval} INFO (or finer) events per log statement and
+ * {@code interval}; the rest are dropped before a logging event is even built. A statement is
+ * identified by its logger and message template, so a request path that logs the same line on
+ * every call is sampled while rarer lines and every WARN or ERROR still get through. Only
+ * loggers under {@code loggerPrefix} are sampled; {@code maxPerInterval} of 0 turns sampling off.
+ */
+public class LogSamplingFilter extends TurboFilter {
+
+    /** Statements tracked at once; the windows are reset when a run of distinct templates exceeds it. */
+    private static final int MAX_STATEMENTS = 1024;
+
+    private final Map<Statement, Window> windows = new ConcurrentHashMap<>();
+
+    private final Clock clock;
+
+    private String loggerPrefix = "";
+
+    private int maxPerInterval;
+
+    private long intervalMillis = 1000;
+
+    public LogSamplingFilter() {
+        this(Clock.systemUTC());
+    }
+
+    public LogSamplingFilter(final Clock clock) {
+        this.clock = clock;
+    }
+
+    public void setLoggerPrefix(final String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setMaxPerInterval(final int maxPerInterval) {
+        this.maxPerInterval = maxPerInterval;
+    }
+
+    /** Accepts the formats of Spring Boot duration properties, such as {@code 1s} or {@code 500ms}. */
+    public void setInterval(final String interval) {
+        this.intervalMillis = DurationStyle.detectAndParse(interval).toMillis();
+    }
+
+    @Override
+    public FilterReply decide(final Marker marker, final Logger logger, final Level level, final String format,
+            final Object[] params, final Throwable t) {
+        if (maxPerInterval <= 0 || format == null || level == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel()) || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (windows.size() >= MAX_STATEMENTS) {
+            windows.clear();
+        }
+        long now = clock.millis();
+        Window window = windows.computeIfAbsent(new Statement(logger.getName(), format), statement -> new Window(now));
+        return window.tryAcquire(now) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private record Statement(String logger, String format) {
+    }
+
+    private final class Window {
+
+        private long start;
+
+        private int count;
+
+        Window(final long start) {
+            this.start = start;
+        }
+
+        synchronized boolean tryAcquire(final long now) {
+            if (now - start >= intervalMillis) {
+                start = now;
+                count = 0;
+            }
+            return ++count <= maxPerInterval;
+        }
+    }
+}
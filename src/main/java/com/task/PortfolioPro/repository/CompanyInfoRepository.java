@@ -0,0 +1,47 @@
+package com.task.portfoliopro.repository;
+
+import java.time.Instant;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.task.portfoliopro.dto.CompanyInfoDTO;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Mono;
+
+/** Company descriptions keyed by ticker, the persistent level of {@code CompanyInfoCache}. */
+@Repository
+public class CompanyInfoRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public CompanyInfoRepository(final DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<CompanyInfoDTO> findByTicker(final String ticker) {
+        return databaseClient.sql("SELECT ticker, description, fetched_at FROM company_info WHERE ticker = :ticker")
+            .bind("ticker", ticker)
+            .map(CompanyInfoRepository::toCompanyInfo)
+            .one();
+    }
+
+    public Mono<Long> upsert(final CompanyInfoDTO companyInfo) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient
+            .sql("MERGE INTO company_info (ticker, description, fetched_at) KEY (ticker) VALUES (:ticker, :description, :fetchedAt)")
+            .bind("ticker", companyInfo.getTicker())
+            .bind("fetchedAt", companyInfo.getFetchedAt());
+        spec = companyInfo.getDescription() != null
+            ? spec.bind("description", companyInfo.getDescription())
+            : spec.bindNull("description", String.class);
+        return spec.fetch().rowsUpdated();
+    }
+
+    private static CompanyInfoDTO toCompanyInfo(final Readable row) {
+        return new CompanyInfoDTO(
+            row.get("ticker", String.class),
+            row.get("description", String.class),
+            row.get("fetched_at", Instant.class));
+    }
+}
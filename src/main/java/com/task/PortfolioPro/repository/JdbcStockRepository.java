@@ -0,0 +1,149 @@
+package com.task.portfoliopro.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+import com.task.portfoliopro.dto.PositionDTO;
+import com.task.portfoliopro.entities.Stock;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link StockRepository} on plain JDBC. Every call blocks a virtual thread of its own for the
+ * statement and reading its rows, so callers subscribe from any thread, event loop included,
+ * and the number of statements in flight is bounded by the connection pool rather than by a
+ * thread pool. Runs the same SQL as {@link R2dbcStockRepository}.
+ */
+public class JdbcStockRepository implements StockRepository, AutoCloseable {
+
+    private final DataSource dataSource;
+
+    private final JdbcClient jdbcClient;
+
+    private final Scheduler scheduler = Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(),
+            "jdbc-virtual");
+
+    public JdbcStockRepository(final DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcClient = JdbcClient.create(dataSource);
+    }
+
+    @Override
+    public <S extends Stock> Mono<S> save(final S stock) {
+        boolean insert = stock.isNew();
+        return blocking(() -> {
+            int updated = jdbcClient.sql(insert ? StockQueries.INSERT : StockQueries.UPDATE)
+                .param("id", stock.getId())
+                .param("portfolioId", stock.getPortfolioId())
+                .param("stockName", stock.getStockName())
+                .param("ticker", stock.getTicker())
+                .param("shares", stock.getShares())
+                .param("price", stock.getPrice())
+                .param("totalCost", stock.getTotalCost())
+                .param("deleted", stock.isDeleted())
+                .update();
+            // as the R2DBC repository does when the row to update is gone
+            if (updated == 0) {
+                throw new TransientDataAccessResourceException(
+                        "Failed to update table [stock]; Row with Id [%s] does not exist".formatted(stock.getId()));
+            }
+            return stock;
+        });
+    }
+
+    @Override
+    public Mono<Stock> findById(final String id) {
+        return blocking(() -> jdbcClient.sql(StockQueries.FIND_BY_ID)
+            .param("id", id)
+            .query(JdbcStockRepository::stock)
+            .optional()
+            .orElse(null));
+    }
+
+    @Override
+    public Mono<Void> deleteById(final String id) {
+        return blocking(() -> jdbcClient.sql(StockQueries.DELETE_BY_ID).param("id", id).update()).then();
+    }
+
+    @Override
+    public Mono<Stock> findByIdAndIsDeletedFalse(final String id) {
+        return blocking(() -> jdbcClient.sql(StockQueries.FIND_ACTIVE_BY_ID)
+            .param("id", id)
+            .query(JdbcStockRepository::stock)
+            .optional()
+            .orElse(null));
+    }
+
+    @Override
+    public Flux<Stock> findActiveByPortfolioId(final String portfolioId) {
+        return rows(() -> jdbcClient.sql(StockQueries.FIND_ACTIVE_BY_PORTFOLIO_ID)
+            .param("portfolioId", portfolioId)
+            .query(JdbcStockRepository::stock)
+            .list());
+    }
+
+    @Override
+    public Flux<PositionDTO> findActivePositions(final String portfolioId) {
+        return rows(() -> jdbcClient.sql(StockQueries.FIND_ACTIVE_POSITIONS)
+            .param("portfolioId", portfolioId)
+            .query((rs, row) -> new PositionDTO(rs.getString("ticker"), rs.getLong("shares"), rs.getDouble("total_cost")))
+            .list());
+    }
+
+    @Override
+    public Flux<String> findActivePortfolioIds() {
+        return rows(() -> jdbcClient.sql(StockQueries.FIND_ACTIVE_PORTFOLIO_IDS).query(String.class).list());
+    }
+
+    @Override
+    public Flux<String> findActiveTickers() {
+        return rows(() -> jdbcClient.sql(StockQueries.FIND_ACTIVE_TICKERS).query(String.class).list());
+    }
+
+    @Override
+    public Mono<Integer> softDeleteById(final String id) {
+        return blocking(() -> jdbcClient.sql(StockQueries.SOFT_DELETE_BY_ID).param("id", id).update());
+    }
+
+    /** Stops the virtual thread executor and closes the data source when it can be closed. */
+    @Override
+    public void close() throws Exception {
+        scheduler.dispose();
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /** Runs the call on a virtual thread on subscription; a {@code null} result completes empty. */
+    private <T> Mono<T> blocking(final Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(scheduler);
+    }
+
+    /** Reads all rows on a virtual thread, then emits them to the subscriber. */
+    private <T> Flux<T> rows(final Callable<List<T>> query) {
+        return blocking(query).flatMapIterable(rows -> rows);
+    }
+
+    private static Stock stock(final ResultSet rs, final int row) throws SQLException {
+        Stock stock = new Stock(rs.getString("id"), rs.getString("stock_name"), rs.getString("ticker"),
+                rs.getInt("shares"), rs.getDouble("price"), rs.getBoolean("is_deleted"), rs.getDouble("total_cost"),
+                rs.getString("portfolio_id"));
+        stock.setCreatedBy(rs.getString("createdBy"));
+        stock.setLastUpdatedBy(rs.getString("lastUpdatedBy"));
+        stock.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        stock.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        return stock;
+    }
+}
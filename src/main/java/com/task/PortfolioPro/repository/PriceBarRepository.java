@@ -0,0 +1,140 @@
+package com.task.portfoliopro.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.task.portfoliopro.dto.PriceBarDTO;
+import com.task.portfoliopro.dto.PriceResolution;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Price bars keyed by ticker, resolution and bar start. Writes are multi-row {@code MERGE}
+ * upserts, so downloading an overlapping series again replaces bars instead of duplicating them.
+ */
+@Repository
+public class PriceBarRepository {
+
+    private static final String COLUMNS = "ticker, resolution, bar_time, open_price, high_price, low_price, close_price, volume";
+
+    private static final String UPSERT = "MERGE INTO price_bar (" + COLUMNS + ") KEY (ticker, resolution, bar_time) VALUES ";
+
+    private final DatabaseClient databaseClient;
+
+    public PriceBarRepository(final DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Long> upsertAll(final List<PriceBarDTO> bars) {
+        if (bars.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return bind(databaseClient.sql(values(new StringBuilder(UPSERT), bars).toString()), bars).fetch().rowsUpdated();
+    }
+
+    /**
+     * Merges bars into the stored bars of the same bucket instead of replacing them, for bars
+     * rolled up from only part of a bucket. High and low widen to cover both; open, close and
+     * volume are taken from whichever bar saw more volume, as it covers more of the bucket.
+     */
+    public Mono<Long> mergeAll(final List<PriceBarDTO> bars) {
+        if (bars.isEmpty()) {
+            return Mono.just(0L);
+        }
+        StringBuilder sql = values(new StringBuilder("MERGE INTO price_bar t USING (VALUES "), bars)
+            .append(") AS s (").append(COLUMNS).append(")")
+            .append(" ON t.ticker = s.ticker AND t.resolution = s.resolution AND t.bar_time = s.bar_time")
+            .append(" WHEN MATCHED THEN UPDATE SET")
+            .append(" open_price = CASE WHEN s.volume > t.volume THEN s.open_price ELSE t.open_price END,")
+            .append(" high_price = GREATEST(t.high_price, s.high_price),")
+            .append(" low_price = LEAST(t.low_price, s.low_price),")
+            .append(" close_price = CASE WHEN s.volume > t.volume THEN s.close_price ELSE t.close_price END,")
+            .append(" volume = GREATEST(t.volume, s.volume)")
+            .append(" WHEN NOT MATCHED THEN INSERT (").append(COLUMNS).append(") VALUES (s.ticker, s.resolution, s.bar_time,")
+            .append(" s.open_price, s.high_price, s.low_price, s.close_price, s.volume)");
+        return bind(databaseClient.sql(sql.toString()), bars).fetch().rowsUpdated();
+    }
+
+    private static StringBuilder values(final StringBuilder sql, final List<PriceBarDTO> bars) {
+        for (int i = 0; i < bars.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:ticker").append(i)
+                .append(", :resolution").append(i)
+                .append(", :time").append(i)
+                .append(", :open").append(i)
+                .append(", :high").append(i)
+                .append(", :low").append(i)
+                .append(", :close").append(i)
+                .append(", :volume").append(i).append(')');
+        }
+        return sql;
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(final DatabaseClient.GenericExecuteSpec executeSpec,
+            final List<PriceBarDTO> bars) {
+        DatabaseClient.GenericExecuteSpec spec = executeSpec;
+        for (int i = 0; i < bars.size(); i++) {
+            PriceBarDTO bar = bars.get(i);
+            spec = spec.bind("ticker" + i, bar.getTicker())
+                .bind("resolution" + i, bar.getResolution().code())
+                .bind("time" + i, bar.getTime())
+                .bind("open" + i, bar.getOpenPrice())
+                .bind("high" + i, bar.getHighPrice())
+                .bind("low" + i, bar.getLowPrice())
+                .bind("close" + i, bar.getClosePrice())
+                .bind("volume" + i, bar.getVolume());
+        }
+        return spec;
+    }
+
+    /** Bars of any of {@code resolutions} starting in {@code [from, to)}, oldest first. */
+    public Flux<PriceBarDTO> findRange(final String ticker, final Collection<PriceResolution> resolutions,
+            final LocalDateTime from, final LocalDateTime to) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM price_bar WHERE ticker = :ticker AND resolution IN (:resolutions)"
+                + " AND bar_time >= :from AND bar_time < :to ORDER BY bar_time, resolution")
+            .bind("ticker", ticker)
+            .bind("resolutions", resolutions.stream().map(PriceResolution::code).toList())
+            .bind("from", from)
+            .bind("to", to)
+            .map(PriceBarRepository::toBar)
+            .all();
+    }
+
+    /** Every bar of {@code resolution} starting before {@code before}, grouped by ticker, oldest first. */
+    public Flux<PriceBarDTO> findBefore(final PriceResolution resolution, final LocalDateTime before) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM price_bar WHERE resolution = :resolution AND bar_time < :before"
+                + " ORDER BY ticker, bar_time")
+            .bind("resolution", resolution.code())
+            .bind("before", before)
+            .map(PriceBarRepository::toBar)
+            .all();
+    }
+
+    public Mono<Long> deleteBefore(final PriceResolution resolution, final LocalDateTime before) {
+        return databaseClient.sql("DELETE FROM price_bar WHERE resolution = :resolution AND bar_time < :before")
+            .bind("resolution", resolution.code())
+            .bind("before", before)
+            .fetch()
+            .rowsUpdated();
+    }
+
+    private static PriceBarDTO toBar(final Readable row) {
+        return new PriceBarDTO(
+            row.get("ticker", String.class),
+            PriceResolution.fromCode(row.get("resolution", String.class)),
+            row.get("bar_time", LocalDateTime.class),
+            row.get("open_price", Double.class),
+            row.get("high_price", Double.class),
+            row.get("low_price", Double.class),
+            row.get("close_price", Double.class),
+            row.get("volume", Long.class));
+    }
+}
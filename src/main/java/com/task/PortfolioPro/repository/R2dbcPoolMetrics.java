@@ -0,0 +1,124 @@
+package com.task.portfoliopro.repository;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.R2dbcTimeoutException;
+import reactor.core.publisher.Mono;
+import reactor.pool.PoolMetricsRecorder;
+
+/**
+ * Records how long requests wait for a pooled database connection and how often connections
+ * are opened and closed, tagged by pool. Occupancy gauges (acquired, idle, pending) are
+ * published by Spring Boot as {@code r2dbc.pool.*}.
+ */
+public class R2dbcPoolMetrics implements PoolMetricsRecorder {
+
+    private final String pool;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer createdSuccess;
+
+    private final Timer createdFailure;
+
+    private final Timer closed;
+
+    private final Timer lifetime;
+
+    public R2dbcPoolMetrics(final String pool, final MeterRegistry meterRegistry) {
+        this.pool = pool;
+        this.meterRegistry = meterRegistry;
+        this.createdSuccess = createTimer(pool, "success", meterRegistry);
+        this.createdFailure = createTimer(pool, "failure", meterRegistry);
+        this.closed = Timer.builder("portfoliopro.r2dbc.pool.connections.closed")
+            .description("Connections closed by the pool and how long closing took")
+            .tag("pool", pool)
+            .register(meterRegistry);
+        this.lifetime = Timer.builder("portfoliopro.r2dbc.pool.connections.lifetime")
+            .description("How long connections stayed open before the pool closed them")
+            .tag("pool", pool)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Times a connection acquisition as {@code portfoliopro.r2dbc.pool.acquire} from subscription
+     * until it gets a connection, times out, fails or is cancelled. The pool only reports waits
+     * for acquisitions with their own timeout, which {@code ConnectionPool} does not use.
+     */
+    public Mono<Connection> timedAcquire(final Mono<Connection> acquire) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return acquire
+                .doOnSuccess(connection -> sample.stop(acquireTimer("success")))
+                .doOnError(error -> sample.stop(acquireTimer(error instanceof R2dbcTimeoutException ? "timeout" : "error")))
+                .doOnCancel(() -> sample.stop(acquireTimer("cancelled")));
+        });
+    }
+
+    @Override
+    public void recordAllocationSuccessAndLatency(final long latencyMs) {
+        createdSuccess.record(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordAllocationFailureAndLatency(final long latencyMs) {
+        createdFailure.record(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordDestroyLatency(final long latencyMs) {
+        closed.record(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordLifetimeDuration(final long millisecondsSinceAllocation) {
+        lifetime.record(millisecondsSinceAllocation, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordPendingSuccessAndLatency(final long latencyMs) {
+    }
+
+    @Override
+    public void recordPendingFailureAndLatency(final long latencyMs) {
+    }
+
+    @Override
+    public void recordResetLatency(final long latencyMs) {
+    }
+
+    @Override
+    public void recordRecycled() {
+    }
+
+    @Override
+    public void recordIdleTime(final long millisecondsIdle) {
+    }
+
+    @Override
+    public void recordFastPath() {
+    }
+
+    @Override
+    public void recordSlowPath() {
+    }
+
+    private Timer acquireTimer(final String outcome) {
+        return Timer.builder("portfoliopro.r2dbc.pool.acquire")
+            .description("Time requests waited for a pooled connection")
+            .tag("pool", pool)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static Timer createTimer(final String pool, final String outcome, final MeterRegistry meterRegistry) {
+        return Timer.builder("portfoliopro.r2dbc.pool.connections.created")
+            .description("Connections opened by the pool and how long opening took")
+            .tag("pool", pool)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,45 @@
+package com.task.portfoliopro.repository;
+
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.stereotype.Repository;
+
+import com.task.portfoliopro.dto.PositionDTO;
+import com.task.portfoliopro.entities.Stock;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/** {@link StockRepository} on the reactive driver; the default persistence mode. */
+@Repository()
+public interface R2dbcStockRepository extends StockRepository, R2dbcRepository<Stock, String> {
+
+    @Override
+    @Query(StockQueries.FIND_ACTIVE_BY_ID)
+    Mono<Stock> findByIdAndIsDeletedFalse(@Param("id") String id);
+
+    @Override
+    @Query(StockQueries.FIND_ACTIVE_BY_PORTFOLIO_ID)
+    Flux<Stock> findActiveByPortfolioId(@Param("portfolioId") String portfolioId);
+
+    @Override
+    @Query(StockQueries.FIND_ACTIVE_POSITIONS)
+    Flux<PositionDTO> findActivePositions(@Param("portfolioId") String portfolioId);
+
+    @Override
+    @Query(StockQueries.FIND_ACTIVE_PORTFOLIO_IDS)
+    Flux<String> findActivePortfolioIds();
+
+    @Override
+    @Query(StockQueries.FIND_ACTIVE_TICKERS)
+    Flux<String> findActiveTickers();
+
+    @Override
+    @Modifying
+    @Query(StockQueries.SOFT_DELETE_BY_ID)
+    Mono<Integer> softDeleteById(@Param("id") String id);
+
+}
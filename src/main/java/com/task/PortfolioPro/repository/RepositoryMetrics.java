@@ -0,0 +1,99 @@
+package com.task.portfoliopro.repository;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.support.RepositoryProxyPostProcessor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Times every method of a Spring Data repository, or of one given to {@link #timed}, as
+ * {@code portfoliopro.repository.invocations}, tagged by repository, method and outcome. A
+ * reactive method returns before its query runs, so a {@link Mono} or {@link Flux} is timed from
+ * subscription until it completes, fails or is cancelled.
+ */
+public class RepositoryMetrics implements RepositoryProxyPostProcessor {
+
+    private final MeterRegistry meterRegistry;
+
+    public RepositoryMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void postProcess(final ProxyFactory factory, final RepositoryInformation repositoryInformation) {
+        factory.addAdvice(new TimingInterceptor(repositoryInformation.getRepositoryInterface().getSimpleName()));
+    }
+
+    /**
+     * Times the methods of {@code type} on a repository Spring Data does not build, tagged with
+     * the implementation's class name. The proxy implements {@code type} only.
+     */
+    public <T> T timed(final T repository, final Class<T> type) {
+        ProxyFactory factory = new ProxyFactory();
+        factory.setTarget(repository);
+        factory.addInterface(type);
+        factory.addAdvice(new TimingInterceptor(repository.getClass().getSimpleName()));
+        return type.cast(factory.getProxy(type.getClassLoader()));
+    }
+
+    private final class TimingInterceptor implements MethodInterceptor {
+
+        private final String repository;
+
+        TimingInterceptor(final String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(final MethodInvocation invocation) throws Throwable {
+            String method = invocation.getMethod().getName();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Object result;
+            try {
+                result = invocation.proceed();
+            } catch (Throwable error) {
+                sample.stop(timer(method, "error"));
+                throw error;
+            }
+            if (result instanceof Mono<?> mono) {
+                return Mono.defer(() -> {
+                    Timer.Sample subscribed = Timer.start(meterRegistry);
+                    return mono.doFinally(signal -> subscribed.stop(timer(method, outcome(signal))));
+                });
+            }
+            if (result instanceof Flux<?> flux) {
+                return Flux.defer(() -> {
+                    Timer.Sample subscribed = Timer.start(meterRegistry);
+                    return flux.doFinally(signal -> subscribed.stop(timer(method, outcome(signal))));
+                });
+            }
+            sample.stop(timer(method, "success"));
+            return result;
+        }
+
+        private Timer timer(final String method, final String outcome) {
+            return Timer.builder("portfoliopro.repository.invocations")
+                .description("Repository method calls, from subscription to the last row for reactive results")
+                .tag("repository", repository)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        }
+    }
+
+    private static String outcome(final SignalType signal) {
+        return switch (signal) {
+            case ON_COMPLETE -> "success";
+            case ON_ERROR -> "error";
+            default -> "cancelled";
+        };
+    }
+}
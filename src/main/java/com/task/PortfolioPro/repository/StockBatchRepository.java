@@ -0,0 +1,60 @@
+package com.task.portfoliopro.repository;
+
+import java.util.List;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.task.portfoliopro.entities.Stock;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes many stocks with a single multi-row {@code INSERT}, one round trip per call instead
+ * of one per row as {@code StockRepository.saveAll} does.
+ */
+@Repository
+public class StockBatchRepository {
+
+    private static final String INSERT = "INSERT INTO stock (id, portfolio_id, stock_name, ticker, shares, price, total_cost, is_deleted) VALUES ";
+
+    private final DatabaseClient databaseClient;
+
+    public StockBatchRepository(final DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Long> insertAll(final List<Stock> stocks) {
+        if (stocks.isEmpty()) {
+            return Mono.just(0L);
+        }
+        StringBuilder sql = new StringBuilder(INSERT.length() + stocks.size() * 64).append(INSERT);
+        for (int i = 0; i < stocks.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:id").append(i)
+                .append(", :portfolioId").append(i)
+                .append(", :stockName").append(i)
+                .append(", :ticker").append(i)
+                .append(", :shares").append(i)
+                .append(", :price").append(i)
+                .append(", :totalCost").append(i)
+                .append(", :deleted").append(i).append(')');
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < stocks.size(); i++) {
+            Stock stock = stocks.get(i);
+            spec = spec.bind("id" + i, stock.getId())
+                .bind("portfolioId" + i, stock.getPortfolioId())
+                .bind("stockName" + i, stock.getStockName())
+                .bind("ticker" + i, stock.getTicker())
+                .bind("shares" + i, stock.getShares())
+                .bind("price" + i, stock.getPrice())
+                .bind("totalCost" + i, stock.getTotalCost())
+                .bind("deleted" + i, stock.isDeleted());
+        }
+        return spec.fetch().rowsUpdated();
+    }
+}
@@ -0,0 +1,77 @@
+package com.task.portfoliopro.repository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Keyset paging over the active stocks of one portfolio: each page continues after the last id of the previous
+ * one, so a page costs the same however deep it is. Only the requested columns are read.
+ */
+@Repository
+public class StockPageRepository {
+
+    /** Listable fields by JSON name, in response order, mapped to their column. */
+    public static final Map<String, String> FIELDS;
+
+    static {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("id", "id");
+        fields.put("stockName", "stock_name");
+        fields.put("ticker", "ticker");
+        fields.put("shares", "shares");
+        fields.put("price", "price");
+        fields.put("totalCost", "total_cost");
+        FIELDS = Collections.unmodifiableMap(fields);
+    }
+
+    private final DatabaseClient databaseClient;
+
+    public StockPageRepository(final DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Up to {@code limit} active stocks of the portfolio ordered by id, starting after
+     * {@code after} when given and restricted to {@code tickers} when not empty.
+     * {@code fields} must be keys of {@link #FIELDS} and include {@code id}.
+     */
+    public Flux<Map<String, Object>> findActivePage(final String portfolioId, final List<String> fields,
+            final Collection<String> tickers, final String after, final int limit) {
+        StringBuilder sql = new StringBuilder("SELECT ")
+            .append(fields.stream().map(FIELDS::get).collect(Collectors.joining(", ")))
+            .append(" FROM stock WHERE portfolio_id = :portfolioId AND is_deleted = false");
+        if (!tickers.isEmpty()) {
+            sql.append(" AND ticker IN (:tickers)");
+        }
+        if (after != null) {
+            sql.append(" AND id > :after");
+        }
+        sql.append(" ORDER BY id LIMIT :limit");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+            .bind("portfolioId", portfolioId)
+            .bind("limit", limit);
+        if (!tickers.isEmpty()) {
+            spec = spec.bind("tickers", tickers);
+        }
+        if (after != null) {
+            spec = spec.bind("after", after);
+        }
+        return spec.map(row -> {
+            Map<String, Object> item = new LinkedHashMap<>();
+            for (String field : fields) {
+                item.put(field, row.get(FIELDS.get(field)));
+            }
+            return item;
+        }).all();
+    }
+}
@@ -0,0 +1,31 @@
+package com.task.portfoliopro.repository;
+
+/**
+ * SQL of the {@link StockRepository} queries, shared by the R2DBC and the JDBC implementation so
+ * both run the same statements. Parameters are named, which both drivers accept.
+ */
+final class StockQueries {
+
+    static final String FIND_BY_ID = "SELECT * FROM stock WHERE id = :id";
+
+    static final String FIND_ACTIVE_BY_ID = "SELECT * FROM stock WHERE id = :id AND is_deleted = false";
+
+    static final String FIND_ACTIVE_BY_PORTFOLIO_ID = "SELECT * FROM stock WHERE portfolio_id = :portfolioId AND is_deleted = false";
+
+    static final String FIND_ACTIVE_POSITIONS = "SELECT ticker, SUM(shares) AS shares, SUM(total_cost) AS total_cost FROM stock WHERE portfolio_id = :portfolioId AND is_deleted = false GROUP BY ticker";
+
+    static final String FIND_ACTIVE_PORTFOLIO_IDS = "SELECT DISTINCT portfolio_id FROM stock WHERE is_deleted = false";
+
+    static final String FIND_ACTIVE_TICKERS = "SELECT DISTINCT ticker FROM stock WHERE is_deleted = false";
+
+    static final String SOFT_DELETE_BY_ID = "UPDATE stock SET is_deleted = true WHERE id = :id AND is_deleted = false";
+
+    static final String DELETE_BY_ID = "DELETE FROM stock WHERE id = :id";
+
+    static final String INSERT = "INSERT INTO stock (id, portfolio_id, stock_name, ticker, shares, price, total_cost, is_deleted) VALUES (:id, :portfolioId, :stockName, :ticker, :shares, :price, :totalCost, :deleted)";
+
+    static final String UPDATE = "UPDATE stock SET portfolio_id = :portfolioId, stock_name = :stockName, ticker = :ticker, shares = :shares, price = :price, total_cost = :totalCost, is_deleted = :deleted WHERE id = :id";
+
+    private StockQueries() {
+    }
+}
@@ -1,28 +1,39 @@
 package com.task.portfoliopro.repository;
 
-
-import org.springframework.data.r2dbc.repository.R2dbcRepository;
-import org.springframework.data.repository.query.Param;
-import org.springframework.data.r2dbc.repository.Query;
-import org.springframework.data.r2dbc.repository.Modifying;
-import org.springframework.stereotype.Repository;
-
+import com.task.portfoliopro.dto.PositionDTO;
 import com.task.portfoliopro.entities.Stock;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-@Repository()
-public interface StockRepository extends R2dbcRepository<Stock, String> {
+/**
+ * Stocks as the services read and write them. Backed by {@link R2dbcStockRepository}, or by
+ * {@link JdbcStockRepository} when {@code portfoliopro.persistence.mode} is {@code jdbc}; see
+ * {@code PersistenceConfig}.
+ */
+public interface StockRepository {
+
+    /** Inserts a new stock, updates one read from the database. */
+    <S extends Stock> Mono<S> save(S stock);
+
+    Mono<Stock> findById(String id);
+
+    Mono<Void> deleteById(String id);
+
+    Mono<Stock> findByIdAndIsDeletedFalse(String id);
+
+    Flux<Stock> findActiveByPortfolioId(String portfolioId);
 
-    @Query("SELECT * FROM stock WHERE id = :id AND is_deleted = false")
-    Mono<Stock> findByIdAndIsDeletedFalse(@Param("id") String id);
+    /**
+     * Shares and cost basis per ticker of one portfolio, summed in the database so one row per
+     * ticker is read, and only that portfolio's index range.
+     */
+    Flux<PositionDTO> findActivePositions(String portfolioId);
 
-    @Query("SELECT * FROM stock WHERE is_deleted = false")
-    Flux<Stock> findAllByIsDeletedFalse();
+    Flux<String> findActivePortfolioIds();
 
-    @Modifying
-    @Query("UPDATE stock SET is_deleted = true WHERE id = :id")
-    Mono<String> softDeleteById(@Param("id") String id);
+    /** Tickers held in any portfolio. */
+    Flux<String> findActiveTickers();
 
+    Mono<Integer> softDeleteById(String id);
 }
@@ -0,0 +1,131 @@
+package com.task.portfoliopro.services;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import com.task.portfoliopro.apiClients.MarketDataProviderRegistry;
+import com.task.portfoliopro.apiClients.RequestPriority;
+import com.task.portfoliopro.config.CacheConfig;
+import com.task.portfoliopro.config.CompanyInfoCacheConfig;
+import com.task.portfoliopro.dto.CompanyInfoDTO;
+import com.task.portfoliopro.repository.CompanyInfoRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Company descriptions from the market-data providers behind two cache levels: a size-bounded
+ * Caffeine cache in process and the {@code company_info} table, which survives restarts. A
+ * description younger than {@code ttl} is served as is. Up to {@code stale-while-revalidate}
+ * past that it is still served while it is refreshed in the background; later the caller
+ * waits for the refresh, and gets the stale description if the provider fails. Tickers the
+ * provider does not know are cached as unknown for {@code negative-ttl}.
+ */
+@Service
+@Slf4j
+public class CompanyInfoCache {
+
+    private final Cache companies;
+
+    private final MarketDataProviderRegistry marketData;
+
+    private final CompanyInfoRepository companyInfoRepository;
+
+    private final CompanyInfoCacheConfig config;
+
+    private final Clock clock;
+
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public CompanyInfoCache(final CacheManager cacheManager, final MarketDataProviderRegistry marketData,
+            final CompanyInfoRepository companyInfoRepository, final CompanyInfoCacheConfig config) {
+        this(cacheManager, marketData, companyInfoRepository, config, Clock.systemUTC());
+    }
+
+    public CompanyInfoCache(final CacheManager cacheManager, final MarketDataProviderRegistry marketData,
+            final CompanyInfoRepository companyInfoRepository, final CompanyInfoCacheConfig config, final Clock clock) {
+        this.companies = cacheManager.getCache(CacheConfig.COMPANY_INFO_CACHE);
+        this.marketData = marketData;
+        this.companyInfoRepository = companyInfoRepository;
+        this.config = config;
+        this.clock = clock;
+    }
+
+    /** Description of the company behind {@code ticker}; empty when the provider does not know the ticker. */
+    public Mono<String> get(final String ticker) {
+        String key = key(ticker);
+        return Mono.deferContextual(context -> Mono.fromFuture(() -> companies.retrieve(key,
+                () -> load(key).contextWrite(context).toFuture()), true))
+            .flatMap(this::revalidateIfStale)
+            .mapNotNull(CompanyInfoDTO::getDescription);
+    }
+
+    /** Reads the stored description on a memory miss, asking the provider only when none was stored. */
+    private Mono<CompanyInfoDTO> load(final String ticker) {
+        return companyInfoRepository.findByTicker(ticker)
+            .onErrorResume(error -> {
+                log.warn("Could not read stored company info for {}: {}", ticker, error.getMessage());
+                return Mono.empty();
+            })
+            .switchIfEmpty(Mono.defer(() -> fetch(ticker)));
+    }
+
+    private Mono<CompanyInfoDTO> revalidateIfStale(final CompanyInfoDTO companyInfo) {
+        Duration ttl = companyInfo.getDescription() != null ? config.getTtl() : config.getNegativeTtl();
+        Duration age = Duration.between(companyInfo.getFetchedAt(), clock.instant());
+        if (age.compareTo(ttl) < 0) {
+            return Mono.just(companyInfo);
+        }
+        if (age.compareTo(ttl.plus(config.getStaleWhileRevalidate())) < 0) {
+            revalidateInBackground(companyInfo.getTicker());
+            return Mono.just(companyInfo);
+        }
+        return refresh(companyInfo.getTicker())
+            .onErrorResume(error -> {
+                log.warn("Serving stale company info for {}, refresh failed: {}", companyInfo.getTicker(), error.getMessage());
+                return Mono.just(companyInfo);
+            });
+    }
+
+    /** At most one background refresh per ticker is in flight; it queues behind interactive provider calls. */
+    private void revalidateInBackground(final String ticker) {
+        if (!revalidating.add(ticker)) {
+            return;
+        }
+        RequestPriority.background(refresh(ticker))
+            .doFinally(signal -> revalidating.remove(ticker))
+            .subscribe(
+                refreshed -> log.debug("Refreshed company info for {}", ticker),
+                error -> log.warn("Could not refresh company info for {}: {}", ticker, error.getMessage()));
+    }
+
+    private Mono<CompanyInfoDTO> refresh(final String ticker) {
+        return fetch(ticker).doOnNext(companyInfo -> companies.put(ticker, companyInfo));
+    }
+
+    /** Asks the provider and stores the answer, an unknown ticker included. A failed store is logged and skipped. */
+    private Mono<CompanyInfoDTO> fetch(final String ticker) {
+        return marketData.getCompanyInfo(ticker)
+            .map(description -> new CompanyInfoDTO(ticker, description, clock.instant()))
+            .switchIfEmpty(Mono.fromSupplier(() -> new CompanyInfoDTO(ticker, null, clock.instant())))
+            .flatMap(companyInfo -> companyInfoRepository.upsert(companyInfo)
+                .onErrorResume(error -> {
+                    log.warn("Could not store company info for {}: {}", ticker, error.getMessage());
+                    return Mono.just(0L);
+                })
+                .thenReturn(companyInfo));
+    }
+
+    private static String key(final String ticker) {
+        return ticker.trim().toUpperCase(Locale.ROOT);
+    }
+}
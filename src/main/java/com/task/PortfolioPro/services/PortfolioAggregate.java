@@ -0,0 +1,189 @@
+package com.task.portfoliopro.services;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Service;
+
+import com.task.portfoliopro.dto.PositionDTO;
+import com.task.portfoliopro.entities.Stock;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory per-ticker share counts and cost basis of every portfolio, kept current by the
+ * write paths in {@link StockService}. Each portfolio is a separate book with its own lock, so
+ * reading or writing one portfolio never waits on another however large. Reading the initial
+ * value of a portfolio is O(1) and its positions to price are O(its distinct tickers), held as
+ * {@link PositionColumns}. Loading and periodic correction against the database are done by
+ * {@link PortfolioAggregateReconciler}.
+ */
+@Service
+public class PortfolioAggregate {
+
+    private final Map<String, Book> books = new ConcurrentHashMap<>();
+
+    /** Set once every portfolio has been loaded; books opened after that start out loaded. */
+    private volatile boolean loaded;
+
+    /** Whether every portfolio has been loaded. */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean isLoaded(final String portfolioId) {
+        Book book = books.get(portfolioId);
+        return book != null ? book.isLoaded() : loaded;
+    }
+
+    public double totalCost(final String portfolioId) {
+        Book book = books.get(portfolioId);
+        return book != null ? book.totalCost() : 0.0;
+    }
+
+    /** Distinct tickers held across all portfolios. */
+    public int tickerCount() {
+        return heldTickers().size();
+    }
+
+    public int portfolioCount() {
+        return books.size();
+    }
+
+    public Set<String> portfolioIds() {
+        return Set.copyOf(books.keySet());
+    }
+
+    /** Compacted copy of the held positions of a portfolio, safe to read without the lock. */
+    public PositionColumns snapshot(final String portfolioId) {
+        Book book = books.get(portfolioId);
+        return book != null ? book.snapshot() : new PositionColumns();
+    }
+
+    public List<PositionDTO> positions(final String portfolioId) {
+        Book book = books.get(portfolioId);
+        return book != null ? book.positions() : List.of();
+    }
+
+    /** Tickers held in any portfolio. */
+    public Set<String> heldTickers() {
+        Set<String> tickers = new LinkedHashSet<>();
+        for (Book book : books.values()) {
+            book.positions().forEach(position -> tickers.add(position.getTicker()));
+        }
+        return tickers;
+    }
+
+    public void add(final Stock stock) {
+        book(stock.getPortfolioId()).add(stock.getTicker(), stock.getShares(), stock.getTotalCost());
+    }
+
+    public void remove(final Stock stock) {
+        book(stock.getPortfolioId()).add(stock.getTicker(), -stock.getShares(), -stock.getTotalCost());
+    }
+
+    /**
+     * Runs a database write to a portfolio and applies its effect to the aggregate once it
+     * succeeds. While a tracked write is in flight a reconciliation cannot replace that
+     * portfolio's book, since its scan may or may not have seen the row.
+     */
+    public <T> Mono<T> tracked(final String portfolioId, final Mono<T> write, final Consumer<T> onWritten) {
+        return Mono.defer(() -> {
+            Book book = book(portfolioId);
+            book.writeStarted();
+            return write.doOnNext(onWritten).doFinally(signal -> book.writeFinished());
+        });
+    }
+
+    long version(final String portfolioId) {
+        return book(portfolioId).version();
+    }
+
+    /**
+     * Replaces the book of a portfolio with freshly loaded positions, unless a tracked write to
+     * it started or finished since {@code expectedVersion} was read.
+     */
+    boolean replace(final String portfolioId, final PositionColumns fresh, final long expectedVersion) {
+        return book(portfolioId).replace(fresh, expectedVersion);
+    }
+
+    /** Marks the whole aggregate loaded if every book is; emits whether it now is. */
+    synchronized boolean markLoaded() {
+        loaded = books.values().stream().allMatch(Book::isLoaded);
+        return loaded;
+    }
+
+    /** Folds per-ticker position rows into columns. */
+    public static Mono<PositionColumns> toColumns(final Flux<PositionDTO> positions) {
+        return PositionColumns.collect(positions, PositionDTO::getTicker, PositionDTO::getShares, PositionDTO::getTotalCost);
+    }
+
+    private Book book(final String portfolioId) {
+        return books.computeIfAbsent(portfolioId, id -> new Book(loaded));
+    }
+
+    /** Positions of one portfolio. */
+    private static final class Book {
+
+        private PositionColumns columns = new PositionColumns();
+
+        private boolean loaded;
+
+        /** Bumped whenever a tracked write starts or finishes. */
+        private long version;
+
+        private int writesInFlight;
+
+        Book(final boolean loaded) {
+            this.loaded = loaded;
+        }
+
+        synchronized boolean isLoaded() {
+            return loaded;
+        }
+
+        synchronized double totalCost() {
+            return columns.totalCost();
+        }
+
+        synchronized PositionColumns snapshot() {
+            return columns.copy();
+        }
+
+        synchronized List<PositionDTO> positions() {
+            return columns.toPositions();
+        }
+
+        synchronized void add(final String ticker, final long shareDelta, final double costDelta) {
+            columns.add(ticker, shareDelta, costDelta);
+        }
+
+        synchronized long version() {
+            return version;
+        }
+
+        synchronized boolean replace(final PositionColumns fresh, final long expectedVersion) {
+            if (writesInFlight > 0 || version != expectedVersion) {
+                return false;
+            }
+            columns = fresh;
+            loaded = true;
+            return true;
+        }
+
+        synchronized void writeStarted() {
+            writesInFlight++;
+            version++;
+        }
+
+        synchronized void writeFinished() {
+            writesInFlight--;
+            version++;
+        }
+    }
+}
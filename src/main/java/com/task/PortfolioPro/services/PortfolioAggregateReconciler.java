@@ -0,0 +1,183 @@
+package com.task.portfoliopro.services;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.task.portfoliopro.dto.PositionDTO;
+import com.task.portfoliopro.repository.StockRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Loads the {@link PortfolioAggregate} from the database once the application is ready and
+ * then periodically rebuilds it, recording how far the incremental state had drifted. Until
+ * a portfolio is loaded, its valuation sums its positions in the database.
+ */
+@Service
+@Slf4j
+public class PortfolioAggregateReconciler {
+
+    /** Cost differences below this are floating point noise, not drift. */
+    private static final double COST_TOLERANCE = 1e-6;
+
+    private final StockRepository stockRepository;
+
+    private final PortfolioAggregate aggregate;
+
+    private final AtomicReference<Double> costDrift = new AtomicReference<>(0.0);
+
+    private final AtomicLong tickerDrift = new AtomicLong();
+
+    private final Counter applied;
+
+    private final Counter skipped;
+
+    private final Counter failed;
+
+    public PortfolioAggregateReconciler(final StockRepository stockRepository, final PortfolioAggregate aggregate,
+            final MeterRegistry meterRegistry) {
+        this.stockRepository = stockRepository;
+        this.aggregate = aggregate;
+        Gauge.builder("portfoliopro.aggregate.drift.cost", costDrift, AtomicReference::get)
+            .description("Absolute cost basis difference found at the last reconciliation")
+            .register(meterRegistry);
+        Gauge.builder("portfoliopro.aggregate.drift.tickers", tickerDrift, AtomicLong::get)
+            .description("Tickers whose shares or cost basis differed at the last reconciliation")
+            .register(meterRegistry);
+        Gauge.builder("portfoliopro.aggregate.tickers", aggregate, PortfolioAggregate::tickerCount)
+            .description("Distinct tickers held in the in-memory aggregate")
+            .register(meterRegistry);
+        Gauge.builder("portfoliopro.aggregate.portfolios", aggregate, PortfolioAggregate::portfolioCount)
+            .description("Portfolios held in the in-memory aggregate")
+            .register(meterRegistry);
+        this.applied = reconciliations(meterRegistry, "applied");
+        this.skipped = reconciliations(meterRegistry, "skipped");
+        this.failed = reconciliations(meterRegistry, "failed");
+    }
+
+    /** Keeps retrying the initial load while writes keep racing it. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reconcile()
+            .filter(Boolean::booleanValue)
+            .repeatWhenEmpty(10, attempts -> attempts.delayElements(Duration.ofSeconds(1)))
+            .retryWhen(Retry.backoff(3, Duration.ofSeconds(1)))
+            .subscribe(
+                loaded -> log.info("Portfolio aggregate loaded with {} portfolios", aggregate.portfolioCount()),
+                error -> log.warn("Portfolio aggregate could not be loaded: {}", error.getMessage()));
+    }
+
+    @Scheduled(fixedDelayString = "${portfoliopro.aggregate.reconcile-interval:5m}",
+            initialDelayString = "${portfoliopro.aggregate.reconcile-interval:5m}")
+    public Mono<Void> scheduledReconcile() {
+        return reconcile()
+            .onErrorResume(error -> Mono.empty())
+            .then();
+    }
+
+    /**
+     * Rebuilds every portfolio's book from the table, one portfolio at a time so each scan only
+     * reads that portfolio's rows. A portfolio whose scan overlapped a write to it is left as
+     * is until the next run. Emits whether every portfolio was rebuilt.
+     */
+    public Mono<Boolean> reconcile() {
+        return Mono.defer(() -> {
+            boolean wasLoaded = aggregate.isLoaded();
+            Drift drift = new Drift();
+            return stockRepository.findActivePortfolioIds()
+                .collect(() -> new LinkedHashSet<>(aggregate.portfolioIds()), Set::add)
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(portfolioId -> reconcile(portfolioId, drift))
+                .reduce(true, Boolean::logicalAnd)
+                .map(all -> {
+                    if (wasLoaded) {
+                        recordDrift(drift);
+                    }
+                    return aggregate.markLoaded() && all;
+                })
+                .doOnError(error -> {
+                    failed.increment();
+                    log.warn("Portfolio aggregate reconciliation failed: {}", error.getMessage());
+                });
+        });
+    }
+
+    private Mono<Boolean> reconcile(final String portfolioId, final Drift drift) {
+        return Mono.defer(() -> {
+            long version = aggregate.version(portfolioId);
+            boolean wasLoaded = aggregate.isLoaded(portfolioId);
+            double cost = aggregate.totalCost(portfolioId);
+            List<PositionDTO> current = aggregate.positions(portfolioId);
+            return PortfolioAggregate.toColumns(stockRepository.findActivePositions(portfolioId))
+                .map(fresh -> {
+                    if (!aggregate.replace(portfolioId, fresh, version)) {
+                        skipped.increment();
+                        log.debug("Skipping reconciliation of portfolio {}, writes overlapped the scan", portfolioId);
+                        return false;
+                    }
+                    if (wasLoaded) {
+                        drift.add(cost, current, fresh.toPositions());
+                    }
+                    applied.increment();
+                    return true;
+                });
+        });
+    }
+
+    private void recordDrift(final Drift drift) {
+        costDrift.set(drift.cost);
+        tickerDrift.set(drift.tickers);
+        if (drift.tickers > 0) {
+            log.warn("Portfolio aggregate drifted on {} tickers, cost off by {}", drift.tickers, drift.cost);
+        }
+    }
+
+    private static Counter reconciliations(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder("portfoliopro.aggregate.reconciliations")
+            .description("Reconciliations of the in-memory aggregate against the database")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    /** Differences found across the portfolios of one reconciliation. */
+    private static final class Drift {
+
+        private long tickers;
+
+        private double cost;
+
+        void add(final double currentCost, final List<PositionDTO> current, final List<PositionDTO> fresh) {
+            Map<String, PositionDTO> held = new HashMap<>();
+            current.forEach(position -> held.put(position.getTicker(), position));
+
+            double freshCost = 0.0;
+            for (PositionDTO position : fresh) {
+                freshCost += position.getTotalCost();
+                PositionDTO previous = held.remove(position.getTicker());
+                if (previous == null || previous.getShares() != position.getShares()
+                        || Math.abs(previous.getTotalCost() - position.getTotalCost()) > COST_TOLERANCE) {
+                    tickers++;
+                }
+            }
+            tickers += held.size();
+            cost += Math.abs(currentCost - freshCost);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.task.portfoliopro.services;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.stereotype.Service;
+
+import com.task.portfoliopro.apiClients.RequestPriority;
+import com.task.portfoliopro.config.ValuationConfig;
+import com.task.portfoliopro.dto.PortfolioUpdateDTO;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * One refresh loop per portfolio, shared by every live dashboard of that portfolio. A
+ * portfolio is re-priced on a fixed interval and whenever one of its positions changes, and
+ * only changed valuations are pushed. The loop stops when its last subscriber leaves.
+ */
+@Service
+@Slf4j
+public class PortfolioValuationStream {
+
+    private final StockService stockService;
+
+    private final ValuationConfig valuationConfig;
+
+    private final Map<String, Flux<PortfolioUpdateDTO>> streams = new ConcurrentHashMap<>();
+
+    public PortfolioValuationStream(final StockService stockService, final ValuationConfig valuationConfig) {
+        this.stockService = stockService;
+        this.valuationConfig = valuationConfig;
+    }
+
+    /**
+     * Subscribers get the latest valuation of the portfolio straight away. A subscriber that
+     * cannot keep up skips intermediate values instead of holding back the shared loop.
+     */
+    public Flux<PortfolioUpdateDTO> updates(final String portfolioId) {
+        return StockService.checkPortfolioId(portfolioId)
+            .thenMany(Flux.defer(() -> streams.computeIfAbsent(portfolioId, this::stream)))
+            .onBackpressureLatest();
+    }
+
+    private Flux<PortfolioUpdateDTO> stream(final String portfolioId) {
+        AtomicReference<Flux<PortfolioUpdateDTO>> shared = new AtomicReference<>();
+        shared.set(Flux.merge(
+                Flux.interval(Duration.ZERO, valuationConfig.getStreamInterval()).map(tick -> portfolioId),
+                stockService.positionChanges().filter(portfolioId::equals))
+            .onBackpressureLatest() // triggers arriving mid-valuation collapse into one re-run
+            .concatMap(trigger -> RequestPriority.background(stockService.revaluePortfolio(portfolioId))
+                .onErrorResume(exception -> {
+                    log.warn("Live valuation of portfolio {} failed, keeping last value: {}", portfolioId, exception.getMessage());
+                    return Mono.empty();
+                }), 1)
+            .distinctUntilChanged()
+            // a subscriber arriving as this stream shuts down may already have registered a new one
+            .doFinally(signal -> streams.remove(portfolioId, shared.get()))
+            .replay(1)
+            .refCount());
+        return shared.get();
+    }
+}
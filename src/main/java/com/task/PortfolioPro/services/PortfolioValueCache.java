@@ -0,0 +1,45 @@
+package com.task.portfoliopro.services;
+
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import com.task.portfoliopro.config.CacheConfig;
+import com.task.portfoliopro.dto.PortfolioUpdateDTO;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Latest valuation of each portfolio, kept for {@code portfoliopro.valuation.result-ttl} or
+ * until a position of that portfolio changes. Entries are per portfolio, so requests for one
+ * portfolio never wait on or evict the valuation of another.
+ */
+@Service
+public class PortfolioValueCache {
+
+    private final Cache values;
+
+    public PortfolioValueCache(final CacheManager cacheManager) {
+        this.values = cacheManager.getCache(CacheConfig.PORTFOLIO_VALUES_CACHE);
+    }
+
+    /**
+     * Returns the cached valuation of the portfolio, valuing it with {@code loader} on a miss.
+     * Concurrent misses share one valuation, and failed valuations are not cached.
+     */
+    public Mono<PortfolioUpdateDTO> get(final String portfolioId, final Supplier<Mono<PortfolioUpdateDTO>> loader) {
+        return Mono.deferContextual(context -> Mono.fromFuture(() -> values.retrieve(portfolioId,
+                () -> loader.get().contextWrite(context).toFuture()), true));
+    }
+
+    public void put(final String portfolioId, final PortfolioUpdateDTO value) {
+        values.put(portfolioId, value);
+    }
+
+    /** Drops the valuation of the portfolio, including one still being computed. */
+    public void evict(final String portfolioId) {
+        values.evict(portfolioId);
+    }
+}
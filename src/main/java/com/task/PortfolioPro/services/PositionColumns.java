@@ -0,0 +1,138 @@
+package com.task.portfoliopro.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+import com.task.portfoliopro.dto.PositionDTO;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-ticker positions stored column-wise: each ticker is interned to a dense id that
+ * indexes primitive share and cost arrays. Folding rows in allocates nothing per row once
+ * a ticker is known, and pricing the book is one loop over {@code long[]} and
+ * {@code double[]}. Not thread-safe; {@link PortfolioAggregate} guards its live instance
+ * and hands out {@link #copy() copies}.
+ */
+public final class PositionColumns {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Map<String, Integer> tickerIds;
+
+    private String[] tickers;
+
+    private long[] shares;
+
+    private double[] costs;
+
+    private int size;
+
+    private double totalCost;
+
+    public PositionColumns() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private PositionColumns(final int capacity) {
+        this.tickerIds = new HashMap<>(capacity * 2);
+        this.tickers = new String[capacity];
+        this.shares = new long[capacity];
+        this.costs = new double[capacity];
+    }
+
+    /** Folds rows into columns without keeping the rows. */
+    public static <T> Mono<PositionColumns> collect(final Flux<T> rows, final Function<T, String> ticker,
+            final ToLongFunction<T> shares, final ToDoubleFunction<T> cost) {
+        return rows.collect(PositionColumns::new, (columns, row) ->
+            columns.add(ticker.apply(row), shares.applyAsLong(row), cost.applyAsDouble(row)));
+    }
+
+    public void add(final String ticker, final long shareDelta, final double costDelta) {
+        int id = tickerIds.computeIfAbsent(ticker, this::intern);
+        shares[id] += shareDelta;
+        costs[id] += costDelta;
+        totalCost += costDelta;
+    }
+
+    /** Number of ticker slots; closed positions keep their slot until the next {@link #copy()}. */
+    public int size() {
+        return size;
+    }
+
+    public String ticker(final int id) {
+        return tickers[id];
+    }
+
+    public long shares(final int id) {
+        return shares[id];
+    }
+
+    public double cost(final int id) {
+        return costs[id];
+    }
+
+    public double totalCost() {
+        return totalCost;
+    }
+
+    /** Number of tickers with shares held. */
+    public int held() {
+        int held = 0;
+        for (int id = 0; id < size; id++) {
+            if (shares[id] > 0) {
+                held++;
+            }
+        }
+        return held;
+    }
+
+    /** Sum of shares x price, where {@code prices} is indexed like this snapshot. */
+    public double marketValue(final double[] prices) {
+        double value = 0.0;
+        for (int id = 0; id < size; id++) {
+            value += shares[id] * prices[id];
+        }
+        return value;
+    }
+
+    /** Compacted copy holding only tickers with shares held. */
+    public PositionColumns copy() {
+        PositionColumns copy = new PositionColumns(Math.max(held(), 1));
+        for (int id = 0; id < size; id++) {
+            if (shares[id] > 0) {
+                copy.add(tickers[id], shares[id], costs[id]);
+            }
+        }
+        copy.totalCost = totalCost;
+        return copy;
+    }
+
+    public List<PositionDTO> toPositions() {
+        List<PositionDTO> positions = new ArrayList<>(size);
+        for (int id = 0; id < size; id++) {
+            if (shares[id] > 0) {
+                positions.add(new PositionDTO(tickers[id], shares[id], costs[id]));
+            }
+        }
+        return positions;
+    }
+
+    private int intern(final String ticker) {
+        if (size == tickers.length) {
+            int capacity = tickers.length * 2;
+            tickers = Arrays.copyOf(tickers, capacity);
+            shares = Arrays.copyOf(shares, capacity);
+            costs = Arrays.copyOf(costs, capacity);
+        }
+        tickers[size] = ticker;
+        return size++;
+    }
+}
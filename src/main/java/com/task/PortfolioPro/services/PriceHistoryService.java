@@ -0,0 +1,222 @@
+package com.task.portfoliopro.services;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.task.portfoliopro.apiClients.AlphaVantageApiClient;
+import com.task.portfoliopro.apiClients.IntradayQuoteParser;
+import com.task.portfoliopro.config.PriceHistoryConfig;
+import com.task.portfoliopro.dto.PriceBarDTO;
+import com.task.portfoliopro.dto.PriceResolution;
+import com.task.portfoliopro.repository.PriceBarRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Local price history built from the intraday series downloaded from Alpha Vantage. Range
+ * queries are answered from the {@code price_bar} table; the series of a ticker is downloaded
+ * again at most once per {@code refresh-after}. As bars age they are compacted from one minute
+ * to five minutes to one day, so the table grows by one row per ticker and day long term.
+ */
+@Service
+@Slf4j
+public class PriceHistoryService {
+
+    private static final int WRITE_CHUNK_SIZE = 500;
+
+    private final AlphaVantageApiClient alpha;
+
+    private final IntradayQuoteParser quoteParser;
+
+    private final PriceBarRepository priceBarRepository;
+
+    private final PriceHistoryConfig config;
+
+    private final Clock clock;
+
+    private final Map<String, Instant> refreshedAt = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PriceHistoryService(final AlphaVantageApiClient alpha, final IntradayQuoteParser quoteParser,
+            final PriceBarRepository priceBarRepository, final PriceHistoryConfig config) {
+        this(alpha, quoteParser, priceBarRepository, config, Clock.systemUTC());
+    }
+
+    public PriceHistoryService(final AlphaVantageApiClient alpha, final IntradayQuoteParser quoteParser,
+            final PriceBarRepository priceBarRepository, final PriceHistoryConfig config, final Clock clock) {
+        this.alpha = alpha;
+        this.quoteParser = quoteParser;
+        this.priceBarRepository = priceBarRepository;
+        this.config = config;
+        this.clock = clock;
+    }
+
+    /** Downloads the intraday series of a ticker, stores its bars and emits the raw payload. */
+    public Mono<String> fetchSeries(final String ticker) {
+        return alpha.getStockPrice(ticker)
+            .flatMap(payload -> record(ticker, payload).thenReturn(payload));
+    }
+
+    /**
+     * Bars of {@code resolution} starting in {@code [from, to)}, oldest first. Finer bars not
+     * yet compacted are rolled up on the fly. {@code to} defaults to now and {@code from} to a
+     * day before {@code to}, both in exchange local time.
+     */
+    public Flux<PriceBarDTO> history(final String ticker, final PriceResolution resolution, final LocalDateTime from,
+            final LocalDateTime to) {
+        LocalDateTime end = to != null ? to : now();
+        LocalDateTime start = resolution.bucket(from != null ? from : end.minusDays(1));
+        List<PriceResolution> sources = Arrays.stream(PriceResolution.values())
+            .filter(source -> source.compareTo(resolution) <= 0)
+            .toList();
+        return refreshIfStale(ticker)
+            .thenMany(priceBarRepository.findRange(ticker, sources, start, end))
+            .bufferUntilChanged(bar -> resolution.bucket(bar.getTime()))
+            .map(bars -> rollUp(resolution, bars));
+    }
+
+    @Scheduled(fixedDelayString = "${portfoliopro.price-history.compaction-interval:1h}",
+            initialDelayString = "${portfoliopro.price-history.compaction-interval:1h}")
+    public Mono<Void> scheduledCompaction() {
+        return compact()
+            .onErrorResume(error -> {
+                log.warn("Price history compaction failed: {}", error.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    /**
+     * Rolls minute bars past {@code minute-retention} into five-minute bars, then five-minute
+     * bars past {@code five-minute-retention} into daily bars. Cutoffs are aligned to the
+     * target bucket so a bucket is always compacted from all of its bars at once. Emits the
+     * number of bars removed.
+     */
+    public Mono<Long> compact() {
+        return Mono.defer(() -> {
+            LocalDateTime now = now();
+            return compact(PriceResolution.ONE_MINUTE, PriceResolution.FIVE_MINUTES, minuteCutoff(now))
+                .concatWith(compact(PriceResolution.FIVE_MINUTES, PriceResolution.DAILY, fiveMinuteCutoff(now)))
+                .reduce(0L, Long::sum);
+        });
+    }
+
+    /**
+     * Stores the minute bars of an intraday payload. Bars already past {@code minute-retention},
+     * such as the last session's after a night or a weekend, are rolled up to the resolution
+     * compaction would have left them at and merged into the stored bars of their bucket, which
+     * may hold the rest of it. A payload that cannot be parsed or stored is logged and skipped;
+     * the caller still gets the payload.
+     */
+    private Mono<Long> record(final String ticker, final String payload) {
+        return Mono.fromCallable(() -> quoteParser.parseSeries(ticker, payload))
+            .flatMapMany(bars -> {
+                LocalDateTime now = now();
+                LocalDateTime minuteCutoff = minuteCutoff(now);
+                LocalDateTime fiveMinuteCutoff = fiveMinuteCutoff(now);
+                List<PriceBarDTO> sorted = bars.stream().sorted(Comparator.comparing(PriceBarDTO::getTime)).toList();
+                List<PriceBarDTO> recent = sorted.stream().filter(bar -> !bar.getTime().isBefore(minuteCutoff)).toList();
+                List<PriceBarDTO> fiveMinute = rollUpAll(PriceResolution.FIVE_MINUTES,
+                    sorted.stream().filter(bar -> bar.getTime().isBefore(minuteCutoff)).toList());
+                List<PriceBarDTO> daily = rollUpAll(PriceResolution.DAILY,
+                    fiveMinute.stream().filter(bar -> bar.getTime().isBefore(fiveMinuteCutoff)).toList());
+                return Flux.fromIterable(recent).buffer(WRITE_CHUNK_SIZE).concatMap(priceBarRepository::upsertAll)
+                    .concatWith(Flux.fromIterable(fiveMinute)
+                        .filter(bar -> !bar.getTime().isBefore(fiveMinuteCutoff))
+                        .buffer(WRITE_CHUNK_SIZE)
+                        .concatMap(priceBarRepository::mergeAll))
+                    .concatWith(Flux.fromIterable(daily).buffer(WRITE_CHUNK_SIZE).concatMap(priceBarRepository::mergeAll));
+            })
+            .reduce(0L, Long::sum)
+            .doOnNext(stored -> {
+                refreshedAt.put(ticker, clock.instant());
+                log.debug("Stored {} price bars for {}", stored, ticker);
+            })
+            .onErrorResume(error -> {
+                log.warn("Could not store price history for {}: {}", ticker, error.getMessage());
+                return Mono.just(0L);
+            });
+    }
+
+    /** Refresh failures are logged and the stored bars served as they are. */
+    private Mono<Void> refreshIfStale(final String ticker) {
+        Instant refreshed = refreshedAt.get(ticker);
+        if (refreshed != null && refreshed.plus(config.getRefreshAfter()).isAfter(clock.instant())) {
+            return Mono.empty();
+        }
+        return fetchSeries(ticker)
+            .onErrorResume(error -> {
+                log.warn("Serving stored price history for {}, refresh failed: {}", ticker, error.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    private Mono<Long> compact(final PriceResolution source, final PriceResolution target, final LocalDateTime before) {
+        return priceBarRepository.findBefore(source, before)
+            .bufferUntilChanged(bar -> new Bucket(bar.getTicker(), target.bucket(bar.getTime())))
+            .map(bars -> rollUp(target, bars))
+            .buffer(WRITE_CHUNK_SIZE)
+            .concatMap(priceBarRepository::upsertAll)
+            .then(priceBarRepository.deleteBefore(source, before))
+            .doOnNext(removed -> log.info("Compacted {} {} price bars into {} bars", removed, source.code(), target.code()));
+    }
+
+    /** One bar of {@code target} per bucket of the bars, which are in time order. */
+    private static List<PriceBarDTO> rollUpAll(final PriceResolution target, final List<PriceBarDTO> bars) {
+        List<PriceBarDTO> rolledUp = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= bars.size(); i++) {
+            if (i == bars.size() || !target.bucket(bars.get(i).getTime()).equals(target.bucket(bars.get(start).getTime()))) {
+                rolledUp.add(rollUp(target, bars.subList(start, i)));
+                start = i;
+            }
+        }
+        return rolledUp;
+    }
+
+    /** Merges the consecutive bars of one bucket; a bar already at the target resolution is used as is. */
+    private static PriceBarDTO rollUp(final PriceResolution target, final List<PriceBarDTO> bars) {
+        PriceBarDTO first = bars.get(0);
+        PriceBarDTO merged = new PriceBarDTO(first.getTicker(), target, target.bucket(first.getTime()),
+            first.getOpenPrice(), first.getHighPrice(), first.getLowPrice(), first.getClosePrice(), 0);
+        for (PriceBarDTO bar : bars) {
+            if (bar.getResolution() == target) {
+                return bar;
+            }
+            merged.setHighPrice(Math.max(merged.getHighPrice(), bar.getHighPrice()));
+            merged.setLowPrice(Math.min(merged.getLowPrice(), bar.getLowPrice()));
+            merged.setClosePrice(bar.getClosePrice());
+            merged.setVolume(merged.getVolume() + bar.getVolume());
+        }
+        return merged;
+    }
+
+    private LocalDateTime minuteCutoff(final LocalDateTime now) {
+        return PriceResolution.FIVE_MINUTES.bucket(now.minus(config.getMinuteRetention()));
+    }
+
+    private LocalDateTime fiveMinuteCutoff(final LocalDateTime now) {
+        return PriceResolution.DAILY.bucket(now.minus(config.getFiveMinuteRetention()));
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.ofInstant(clock.instant(), config.getZone());
+    }
+
+    private record Bucket(String ticker, LocalDateTime start) {
+    }
+}
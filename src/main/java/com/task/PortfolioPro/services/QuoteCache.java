@@ -0,0 +1,100 @@
+package com.task.portfoliopro.services;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import com.task.portfoliopro.config.CacheConfig;
+import com.task.portfoliopro.dto.StockPriceDTO;
+
+import reactor.core.publisher.Mono;
+
+@Service
+public class QuoteCache {
+
+    private final Cache quotes;
+
+    private final Cache lastKnownQuotes;
+
+    private final Clock clock;
+
+    /** Until when the last refreshed quote of a ticker kept fresh ahead of demand is served. */
+    private final Map<String, Instant> refreshedUntil = new ConcurrentHashMap<>();
+
+    @Autowired
+    public QuoteCache(final CacheManager cacheManager) {
+        this(cacheManager, Clock.systemUTC());
+    }
+
+    public QuoteCache(final CacheManager cacheManager, final Clock clock) {
+        this.quotes = cacheManager.getCache(CacheConfig.QUOTES_CACHE);
+        this.lastKnownQuotes = cacheManager.getCache(CacheConfig.LAST_KNOWN_QUOTES_CACHE);
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached quote for the ticker, loading it with {@code loader} on a miss.
+     * Concurrent misses for the same ticker share one in-flight load, and failed or empty
+     * loads are not cached. The load runs with the context of the caller that started it.
+     * A ticker refreshed ahead of demand is served its last refreshed quote, without a load,
+     * until the time given with that quote.
+     */
+    public Mono<StockPriceDTO> get(final String ticker, final Function<String, Mono<StockPriceDTO>> loader) {
+        Instant servedUntil = refreshedUntil.get(key(ticker));
+        if (servedUntil != null && clock.instant().isBefore(servedUntil)) {
+            return lastKnownGood(ticker).switchIfEmpty(load(ticker, loader));
+        }
+        return load(ticker, loader);
+    }
+
+    private Mono<StockPriceDTO> load(final String ticker, final Function<String, Mono<StockPriceDTO>> loader) {
+        return Mono.deferContextual(context -> Mono.fromFuture(() -> quotes.retrieve(key(ticker),
+                () -> loader.apply(ticker)
+                    .doOnNext(quote -> lastKnownQuotes.put(key(ticker), quote))
+                    .contextWrite(context)
+                    .toFuture()), true));
+    }
+
+    /** Stores a quote fetched ahead of demand, replacing any cached one. */
+    public void put(final String ticker, final StockPriceDTO quote) {
+        quotes.put(key(ticker), quote);
+        lastKnownQuotes.put(key(ticker), quote);
+    }
+
+    /**
+     * Stores a quote the caller refreshes on a schedule, to be served until {@code servedUntil}
+     * even past the ttl. The caller picks a time it expects to have refreshed it again by.
+     */
+    public void put(final String ticker, final StockPriceDTO quote, final Instant servedUntil) {
+        put(ticker, quote);
+        refreshedUntil.put(key(ticker), servedUntil);
+    }
+
+    /** Hands the ticker back to the ttl, so a miss loads it on the request path again. */
+    public void release(final String ticker) {
+        refreshedUntil.remove(key(ticker));
+    }
+
+    /** Releases every refreshed ticker not in {@code tickers}. */
+    public void retainRefreshed(final Collection<String> tickers) {
+        refreshedUntil.keySet().retainAll(tickers);
+    }
+
+    /** The last quote fetched for the ticker within {@code last-known-good-ttl}, even if it expired from the cache. */
+    public Mono<StockPriceDTO> lastKnownGood(final String ticker) {
+        return Mono.fromSupplier(() -> lastKnownQuotes.get(key(ticker), StockPriceDTO.class));
+    }
+
+    private static String key(final String ticker) {
+        return ticker.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,227 @@
+package com.task.portfoliopro.services;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.task.portfoliopro.apiClients.AlphaVantageApiClient;
+import com.task.portfoliopro.apiClients.RequestPriority;
+import com.task.portfoliopro.config.MarketHoursConfig;
+import com.task.portfoliopro.config.QuoteCacheConfig;
+import com.task.portfoliopro.config.QuoteRefreshConfig;
+import com.task.portfoliopro.repository.StockRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps the {@link QuoteCache} warm for every held ticker so valuations read quotes locally.
+ * Each run refreshes the tickers whose last attempt is oldest, a few at a time and at
+ * background priority, so request paths keep most of the provider quota. While the market
+ * is closed each ticker is refreshed once after the close and then left alone. A refreshed
+ * quote is served until the refresher expects to have replaced it, the longer of the cache
+ * ttl and one pass over the held tickers, or until the market opens again; past that, or once
+ * a refresh of the ticker fails, it is loaded on the request path again.
+ */
+@Service
+@Slf4j
+public class QuoteRefresher {
+
+    private final AlphaVantageApiClient alpha;
+
+    private final QuoteCache quoteCache;
+
+    private final PortfolioAggregate aggregate;
+
+    private final StockRepository stockRepository;
+
+    private final QuoteRefreshConfig config;
+
+    private final QuoteCacheConfig quoteCacheConfig;
+
+    private final Clock clock;
+
+    /** Last refresh attempt per ticker, successful or not, so a failing ticker cannot starve the rest. */
+    private final Map<String, Instant> attemptedAt = new ConcurrentHashMap<>();
+
+    private final Counter refreshed;
+
+    private final Counter failed;
+
+    @Autowired
+    public QuoteRefresher(final AlphaVantageApiClient alpha, final QuoteCache quoteCache, final PortfolioAggregate aggregate,
+            final StockRepository stockRepository, final QuoteRefreshConfig config, final QuoteCacheConfig quoteCacheConfig,
+            final MeterRegistry meterRegistry) {
+        this(alpha, quoteCache, aggregate, stockRepository, config, quoteCacheConfig, meterRegistry, Clock.systemUTC());
+    }
+
+    public QuoteRefresher(final AlphaVantageApiClient alpha, final QuoteCache quoteCache, final PortfolioAggregate aggregate,
+            final StockRepository stockRepository, final QuoteRefreshConfig config, final QuoteCacheConfig quoteCacheConfig,
+            final MeterRegistry meterRegistry, final Clock clock) {
+        this.alpha = alpha;
+        this.quoteCache = quoteCache;
+        this.aggregate = aggregate;
+        this.stockRepository = stockRepository;
+        this.config = config;
+        this.quoteCacheConfig = quoteCacheConfig;
+        this.clock = clock;
+        this.refreshed = refreshes(meterRegistry, "success");
+        this.failed = refreshes(meterRegistry, "failed");
+    }
+
+    @Scheduled(fixedDelayString = "${portfoliopro.quote-refresh.interval:30s}",
+            initialDelayString = "${portfoliopro.quote-refresh.interval:30s}")
+    public Mono<Void> scheduledRefresh() {
+        if (!config.isEnabled()) {
+            return Mono.empty();
+        }
+        return refresh()
+            .onErrorResume(error -> {
+                log.warn("Quote refresh run failed: {}", error.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    /** Refreshes up to {@link #tickersPerRun} stale held tickers, stalest first, emitting each one refreshed. */
+    public Flux<String> refresh() {
+        return heldTickers()
+            .collectList()
+            .flatMapMany(tickers -> {
+                attemptedAt.keySet().retainAll(tickers);
+                quoteCache.retainRefreshed(tickers);
+                Instant staleBefore = staleBefore(clock.instant());
+                int tickersPerRun = tickersPerRun(tickers.size());
+                Duration pass = pass(tickers.size(), tickersPerRun);
+                List<String> due = tickers.stream()
+                    .filter(ticker -> attemptedAt(ticker).isBefore(staleBefore))
+                    .sorted(Comparator.comparing(this::attemptedAt))
+                    .limit(tickersPerRun)
+                    .toList();
+                return Flux.fromIterable(due).concatMap(ticker -> refresh(ticker, pass));
+            });
+    }
+
+    private Mono<String> refresh(final String ticker, final Duration pass) {
+        return RequestPriority.background(alpha.getLatestStockPrice(ticker))
+            .doOnNext(quote -> {
+                quoteCache.put(ticker, quote, servedUntil(clock.instant(), pass));
+                refreshed.increment();
+            })
+            .map(quote -> ticker)
+            .onErrorResume(error -> {
+                failed.increment();
+                quoteCache.release(ticker);
+                log.warn("Could not refresh quote for {}: {}", ticker, error.getMessage());
+                return Mono.empty();
+            })
+            .doFinally(signal -> attemptedAt.put(ticker, clock.instant()));
+    }
+
+    private Flux<String> heldTickers() {
+        Flux<String> tickers = aggregate.isLoaded()
+            ? Flux.fromIterable(aggregate.heldTickers())
+            : stockRepository.findActiveTickers();
+        return tickers.map(ticker -> ticker.trim().toUpperCase(Locale.ROOT)).distinct();
+    }
+
+    private Instant attemptedAt(final String ticker) {
+        return attemptedAt.getOrDefault(ticker, Instant.EPOCH);
+    }
+
+    /**
+     * Enough tickers per run to refresh every held ticker within the quote cache ttl, but no more
+     * than {@code max-tickers-per-run}.
+     */
+    private int tickersPerRun(final int heldTickers) {
+        Duration ttl = quoteCacheConfig.getTtl();
+        if (ttl.isZero()) {
+            return config.getMaxTickersPerRun();
+        }
+        long needed = Math.ceilDiv(heldTickers * config.getInterval().toMillis(), ttl.toMillis());
+        return (int) Math.max(1, Math.min(config.getMaxTickersPerRun(), needed));
+    }
+
+    /** How long refreshing every held ticker once takes during market hours. */
+    private Duration pass(final int heldTickers, final int tickersPerRun) {
+        Duration runs = config.getInterval().multipliedBy(Math.ceilDiv(Math.max(heldTickers, 1), tickersPerRun));
+        return runs.compareTo(config.getMaxAge()) > 0 ? runs : config.getMaxAge();
+    }
+
+    /**
+     * The longer of the ttl and one pass, plus the interval the run that replaces the quote may
+     * start late by. Outside market hours the quote from after the close lasts until the open.
+     */
+    private Instant servedUntil(final Instant refreshedAt, final Duration pass) {
+        Duration ttl = quoteCacheConfig.getTtl();
+        Instant servedUntil = refreshedAt.plus(ttl.compareTo(pass) > 0 ? ttl : pass).plus(config.getInterval());
+        if (isMarketOpen(refreshedAt)) {
+            return servedUntil;
+        }
+        MarketHoursConfig marketHours = config.getMarketHours();
+        ZonedDateTime local = refreshedAt.atZone(marketHours.getZone());
+        ZonedDateTime nextOpen = local.with(marketHours.getOpen());
+        if (!nextOpen.isAfter(local)) {
+            nextOpen = nextOpen.plusDays(1);
+        }
+        while (!isTradingDay(nextOpen)) {
+            nextOpen = nextOpen.plusDays(1);
+        }
+        return nextOpen.toInstant().isAfter(servedUntil) ? nextOpen.toInstant() : servedUntil;
+    }
+
+    /** Tickers last attempted before this are due. */
+    private Instant staleBefore(final Instant now) {
+        Instant maxAge = now.minus(config.getMaxAge());
+        if (isMarketOpen(now)) {
+            return maxAge;
+        }
+        MarketHoursConfig marketHours = config.getMarketHours();
+        ZonedDateTime local = now.atZone(marketHours.getZone());
+        ZonedDateTime lastClose = local.with(marketHours.getClose());
+        if (lastClose.isAfter(local)) {
+            lastClose = lastClose.minusDays(1);
+        }
+        while (!isTradingDay(lastClose)) {
+            lastClose = lastClose.minusDays(1);
+        }
+        Instant closedAt = lastClose.toInstant();
+        return closedAt.isBefore(maxAge) ? closedAt : maxAge;
+    }
+
+    /** Always true with market hours disabled. */
+    private boolean isMarketOpen(final Instant now) {
+        MarketHoursConfig marketHours = config.getMarketHours();
+        if (!marketHours.isEnabled()) {
+            return true;
+        }
+        ZonedDateTime local = now.atZone(marketHours.getZone());
+        return isTradingDay(local) && !local.toLocalTime().isBefore(marketHours.getOpen())
+                && local.toLocalTime().isBefore(marketHours.getClose());
+    }
+
+    private static boolean isTradingDay(final ZonedDateTime time) {
+        return time.getDayOfWeek() != DayOfWeek.SATURDAY && time.getDayOfWeek() != DayOfWeek.SUNDAY;
+    }
+
+    private static Counter refreshes(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder("portfoliopro.quotes.refreshed")
+            .description("Background quote refreshes of held tickers")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
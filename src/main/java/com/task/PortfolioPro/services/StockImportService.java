@@ -0,0 +1,144 @@
+package com.task.portfoliopro.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.portfoliopro.apiClients.RequestPriority;
+import com.task.portfoliopro.config.StockImportConfig;
+import com.task.portfoliopro.dto.StockDTO;
+import com.task.portfoliopro.dto.StockImportResultDTO;
+import com.task.portfoliopro.entities.Stock;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bulk import of {@link StockDTO} lines. Lines are handled in chunks: each distinct ticker
+ * of a chunk is priced once and the chunk is written with a single multi-row insert. One
+ * result is emitted per non-blank line, in line order, as soon as its chunk is done.
+ */
+@Service
+@Slf4j
+public class StockImportService {
+
+    private final StockService stockService;
+
+    private final ObjectMapper objectMapper;
+
+    private final StockImportConfig importConfig;
+
+    public StockImportService(final StockService stockService, final ObjectMapper objectMapper,
+            final StockImportConfig importConfig) {
+        this.stockService = stockService;
+        this.objectMapper = objectMapper;
+        this.importConfig = importConfig;
+    }
+
+    public Flux<StockImportResultDTO> importStocks(final String portfolioId, final Flux<String> lines) {
+        return StockService.checkPortfolioId(portfolioId).thenMany(lines)
+            .index((index, line) -> new ImportLine(index + 1, line))
+            .filter(line -> !line.text().isBlank())
+            .buffer(importConfig.getChunkSize())
+            .concatMap(chunk -> importChunk(portfolioId, chunk));
+    }
+
+    private Flux<StockImportResultDTO> importChunk(final String portfolioId, final List<ImportLine> chunk) {
+        List<ParsedLine> parsed = new ArrayList<>(chunk.size());
+        Set<String> tickers = new LinkedHashSet<>();
+        for (ImportLine line : chunk) {
+            ParsedLine parsedLine = parse(line);
+            parsed.add(parsedLine);
+            if (parsedLine.error() == null) {
+                tickers.add(parsedLine.stock().getTicker());
+            }
+        }
+        log.info("Importing {} stock lines across {} tickers into portfolio {}", chunk.size(), tickers.size(), portfolioId);
+
+        return priceTickers(tickers).flatMapMany(prices -> {
+            List<StockImportResultDTO> results = new ArrayList<>(parsed.size());
+            List<Stock> stocks = new ArrayList<>(parsed.size());
+            List<Integer> pending = new ArrayList<>(parsed.size());
+            for (ParsedLine line : parsed) {
+                StockDTO stockDto = line.stock();
+                String ticker = stockDto == null ? null : stockDto.getTicker();
+                if (line.error() != null) {
+                    results.add(StockImportResultDTO.failed(line.number(), ticker, line.error()));
+                } else if (!prices.containsKey(ticker)) {
+                    results.add(StockImportResultDTO.failed(line.number(), ticker, "No quote available for " + ticker));
+                } else {
+                    stockDto.setPrice(prices.get(ticker));
+                    Stock stock = new Stock(portfolioId, stockDto);
+                    pending.add(results.size());
+                    stocks.add(stock);
+                    results.add(StockImportResultDTO.created(line.number(), ticker, stock.getId()));
+                }
+            }
+            if (stocks.isEmpty()) {
+                return Flux.fromIterable(results);
+            }
+            return stockService.addStocks(portfolioId, stocks)
+                .then(Mono.just(results))
+                .onErrorResume(error -> {
+                    log.warn("Failed to write {} imported stocks: {}", stocks.size(), error.getMessage());
+                    pending.forEach(index -> {
+                        StockImportResultDTO result = results.get(index);
+                        results.set(index, StockImportResultDTO.failed(result.getLine(), result.getTicker(), error.getMessage()));
+                    });
+                    return Mono.just(results);
+                })
+                .flatMapIterable(written -> written);
+        });
+    }
+
+    /**
+     * Close price per ticker; tickers whose quote could not be fetched are left out. Bulk
+     * lookups queue behind interactive quote requests.
+     */
+    private Mono<Map<String, Double>> priceTickers(final Set<String> tickers) {
+        return RequestPriority.background(Flux.fromIterable(tickers)
+            .flatMap(ticker -> stockService.getCurrentStockPrice(ticker)
+                .map(quote -> Map.entry(ticker, quote.getClosePrice()))
+                .onErrorResume(error -> {
+                    log.warn("No quote for imported ticker {}: {}", ticker, error.getMessage());
+                    return Mono.empty();
+                }), importConfig.getQuoteConcurrency())
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private ParsedLine parse(final ImportLine line) {
+        StockDTO stockDto;
+        try {
+            stockDto = objectMapper.readValue(line.text(), StockDTO.class);
+        } catch (JsonProcessingException exception) {
+            return new ParsedLine(line.number(), null, "Malformed JSON: " + exception.getOriginalMessage());
+        }
+        if (stockDto == null) {
+            // a literal null parses without error
+            return new ParsedLine(line.number(), null, "line is not a StockDTO object");
+        }
+        if (stockDto.getTicker() == null || stockDto.getTicker().isBlank()) {
+            return new ParsedLine(line.number(), stockDto, "ticker is required");
+        }
+        if (stockDto.getStockName() == null || stockDto.getStockName().isBlank()) {
+            return new ParsedLine(line.number(), stockDto, "stockName is required");
+        }
+        if (stockDto.getShares() <= 0) {
+            return new ParsedLine(line.number(), stockDto, "shares must be positive");
+        }
+        return new ParsedLine(line.number(), stockDto, null);
+    }
+
+    private record ImportLine(long number, String text) {
+    }
+
+    private record ParsedLine(long number, StockDTO stock, String error) {
+    }
+}
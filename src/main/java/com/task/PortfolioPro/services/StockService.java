@@ -1,118 +1,316 @@
 package com.task.portfoliopro.services;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
-import com.task.portfoliopro.apiClients.AlphaVantageApiClient;
-import com.task.portfoliopro.apiClients.FinnuhApiClient;
+import com.task.portfoliopro.apiClients.MarketDataProviderRegistry;
+import com.task.portfoliopro.config.ValuationConfig;
 import com.task.portfoliopro.dto.PortfolioUpdateDTO;
 import com.task.portfoliopro.dto.StockDTO;
+import com.task.portfoliopro.dto.StockPageDTO;
 import com.task.portfoliopro.dto.StockPriceDTO;
 import com.task.portfoliopro.entities.Stock;
 import com.task.portfoliopro.errors.HttpError;
+import com.task.portfoliopro.repository.StockBatchRepository;
+import com.task.portfoliopro.repository.StockPageRepository;
 import com.task.portfoliopro.repository.StockRepository;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
 import reactor.core.scheduler.Schedulers;
 
 @Service
 @Slf4j
 public class StockService {
 
+    private static final int MAX_PAGE_SIZE = 1_000;
+
+    private static final Pattern PORTFOLIO_ID = Pattern.compile("[A-Za-z0-9_-]{1,36}");
+
     @Autowired
     private StockRepository stockRepository;
 
     @Autowired
-    private AlphaVantageApiClient alpha;
+    private MarketDataProviderRegistry marketData;
+
+    @Autowired
+    private CompanyInfoCache companyInfoCache;
+
+    @Autowired
+    private QuoteCache quoteCache;
+
+    @Autowired
+    private ValuationConfig valuationConfig;
+
+    @Autowired
+    private PortfolioAggregate portfolioAggregate;
+
+    @Autowired
+    private StockBatchRepository stockBatchRepository;
+
+    @Autowired
+    private PriceHistoryService priceHistoryService;
 
     @Autowired
-    private FinnuhApiClient finnuhApiClient;
+    private StockPageRepository stockPageRepository;
 
-    public Flux<Stock> getAllStocks() {
-        log.info("Fetching all stocks in the database");
-        return stockRepository.findAllByIsDeletedFalse();
+    @Autowired
+    private PortfolioValueCache portfolioValueCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Portfolios whose positions changed; best effort, dropped when nobody is listening. */
+    private final Sinks.Many<String> positionChanges = Sinks.many().multicast().directBestEffort();
+
+    public Flux<Stock> getAllStocks(final String portfolioId) {
+        log.debug("Fetching all stocks of portfolio {}", portfolioId);
+        return checkPortfolioId(portfolioId).thenMany(stockRepository.findActiveByPortfolioId(portfolioId));
     }
 
-    public Mono<Stock> addStock(final StockDTO stockDto) {
-        log.info("Adding a new {} stock", stockDto.getStockName());
-        return getCurrentStockPrice(stockDto.getTicker()).flatMap(response -> {
+    /**
+     * One page of the portfolio's active stocks ordered by id, continuing after the
+     * {@code after} cursor. Only {@code fields} are returned, plus the id; all fields when
+     * none are given.
+     */
+    public Mono<StockPageDTO> getStockPage(final String portfolioId, final int limit, final String after,
+            final List<String> tickers, final List<String> fields) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Mono.error(new HttpError(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        Set<String> projection = new LinkedHashSet<>();
+        projection.add("id");
+        if (fields == null || fields.isEmpty()) {
+            projection.addAll(StockPageRepository.FIELDS.keySet());
+        } else {
+            for (String field : fields) {
+                if (!StockPageRepository.FIELDS.containsKey(field)) {
+                    return Mono.error(new HttpError(HttpStatus.BAD_REQUEST, "Unknown stock field " + field));
+                }
+                projection.add(field);
+            }
+        }
+        log.debug("Fetching a page of {} stocks of portfolio {} after {}", limit, portfolioId, after);
+        // one extra row tells whether another page follows
+        return checkPortfolioId(portfolioId)
+            .thenMany(stockPageRepository.findActivePage(portfolioId, List.copyOf(projection),
+                tickers == null ? List.of() : tickers, after, limit + 1))
+            .collectList()
+            .map(rows -> {
+                if (rows.size() <= limit) {
+                    return new StockPageDTO(rows, null);
+                }
+                List<Map<String, Object>> page = new ArrayList<>(rows.subList(0, limit));
+                return new StockPageDTO(page, (String) page.get(limit - 1).get("id"));
+            });
+    }
+
+    public Mono<Stock> addStock(final String portfolioId, final StockDTO stockDto) {
+        log.debug("Adding a new {} stock to portfolio {}", stockDto.getStockName(), portfolioId);
+        return checkPortfolioId(portfolioId).then(getCurrentStockPrice(stockDto.getTicker())).flatMap(response -> {
             stockDto.setPrice(response.getClosePrice()); // this ensure that the price is updated 
-            return stockRepository.save(new Stock(stockDto));
-        });
+            return portfolioAggregate.tracked(portfolioId, stockRepository.save(new Stock(portfolioId, stockDto)),
+                    portfolioAggregate::add);
+        }).doOnNext(stock -> positionChanged(portfolioId));
     }
 
-    public Mono<Stock> removeStock(final String id) {
+    /** Inserts already priced stocks into the portfolio with one multi-row insert. */
+    public Flux<Stock> addStocks(final String portfolioId, final List<Stock> stocks) {
+        log.debug("Adding {} stocks to portfolio {} in one batch", stocks.size(), portfolioId);
+        stocks.forEach(stock -> stock.setPortfolioId(portfolioId));
+        return checkPortfolioId(portfolioId)
+            .then(portfolioAggregate.tracked(portfolioId, stockBatchRepository.insertAll(stocks).thenReturn(stocks),
+                inserted -> inserted.forEach(portfolioAggregate::add)))
+            .doOnNext(inserted -> positionChanged(portfolioId))
+            .flatMapIterable(inserted -> inserted);
+    }
+
+    public Mono<Stock> removeStock(final String portfolioId, final String id) {
         return stockRepository.findByIdAndIsDeletedFalse(id)
-            .flatMap(stock -> stockRepository.softDeleteById(id)
-                .thenReturn(stock)
-        ).switchIfEmpty(Mono.defer(() -> 
+            .filter(stock -> stock.getPortfolioId().equals(portfolioId))
+            .flatMap(stock -> portfolioAggregate.tracked(portfolioId, stockRepository.softDeleteById(id).defaultIfEmpty(0),
+                updated -> {
+                    if (updated > 0) {
+                        portfolioAggregate.remove(stock);
+                    }
+                }).thenReturn(stock)
+        ).doOnNext(stock -> positionChanged(portfolioId))
+        .switchIfEmpty(Mono.defer(() -> 
             Mono.error(new HttpError(HttpStatus.NOT_FOUND, "No stock found with the id %s".formatted(id)))))
             .subscribeOn(Schedulers.boundedElastic());
     }
 
-    public Mono<Void> deleteStock(final String id) {
-        log.info("Permanently delete a stock from a user's porfolio");
-        return stockRepository.deleteById(id);
+    public Mono<Void> deleteStock(final String portfolioId, final String id) {
+        log.debug("Permanently delete a stock from portfolio {}", portfolioId);
+        return stockRepository.findById(id)
+            .filter(stock -> stock.getPortfolioId().equals(portfolioId))
+            .flatMap(stock -> portfolioAggregate.tracked(portfolioId, stockRepository.deleteById(id).thenReturn(stock), deleted -> {
+                if (!deleted.isDeleted()) {
+                    portfolioAggregate.remove(deleted);
+                }
+            }))
+            .then()
+            .doOnSuccess(ignored -> positionChanged(portfolioId));
+    }
+
+    /** Ids of the portfolios whose positions change, as they change. */
+    public Flux<String> positionChanges() {
+        return positionChanges.asFlux();
     }
 
-    public Mono<PortfolioUpdateDTO> totalPortfolioValue() {
-        log.info("Calculating total initial portforlio value");
-        return stockRepository.findAllByIsDeletedFalse()
-            .map(Stock::getTotalCost) // Sum up the total initial portfolio value
-            .reduce(0.0, Double::sum).flatMap(initial -> 
-            calculateTotalValue(initial).map(result -> result)
-            )
+    private void positionChanged(final String portfolioId) {
+        portfolioValueCache.evict(portfolioId);
+        positionChanges.emitNext(portfolioId, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
+
+    /**
+     * Current value of the portfolio. Requests within {@code result-ttl} of a valuation of the
+     * same portfolio share it, unless one of its positions changed since.
+     */
+    public Mono<PortfolioUpdateDTO> totalPortfolioValue(final String portfolioId) {
+        return checkPortfolioId(portfolioId).then(portfolioValueCache.get(portfolioId, () -> valuePortfolio(portfolioId)));
+    }
+
+    /** Values the portfolio afresh and caches the result for {@link #totalPortfolioValue(String)}. */
+    public Mono<PortfolioUpdateDTO> revaluePortfolio(final String portfolioId) {
+        return checkPortfolioId(portfolioId)
+            .then(valuePortfolio(portfolioId))
+            .doOnNext(value -> portfolioValueCache.put(portfolioId, value));
+    }
+
+    public Mono<PortfolioUpdateDTO> calculateTotalValue(final String portfolioId, double initialPortfolioValue) {
+        return positions(portfolioId)
+            .flatMap(positions -> valuePositions(initialPortfolioValue, positions));
+    }
+
+    private Mono<PortfolioUpdateDTO> valuePortfolio(final String portfolioId) {
+        log.debug("Calculating total initial value of portfolio {}", portfolioId);
+        return positions(portfolioId)
+            .flatMap(positions -> valuePositions(positions.totalCost(), positions));
+    }
+
+    /** Held positions of the portfolio, from its book once loaded, else summed in the database. */
+    private Mono<PositionColumns> positions(final String portfolioId) {
+        if (portfolioAggregate.isLoaded(portfolioId)) {
+            return Mono.fromSupplier(() -> portfolioAggregate.snapshot(portfolioId));
+        }
+        return PortfolioAggregate.toColumns(stockRepository.findActivePositions(portfolioId))
             .subscribeOn(Schedulers.boundedElastic());
     }
 
-    public Mono<PortfolioUpdateDTO> calculateTotalValue(double initialPortfolioValue) {
-        log.info("Calculating current portfolio value");
-    
-        return stockRepository.findAllByIsDeletedFalse()
-            .flatMap(stock ->
-                getCurrentStockPrice(stock.getTicker())
-                    .map(stockPrice -> stockPrice.getClosePrice() * stock.getShares())
+    /** Fails with {@code 400} unless {@code portfolioId} can name a portfolio. */
+    public static Mono<Void> checkPortfolioId(final String portfolioId) {
+        if (portfolioId == null || !PORTFOLIO_ID.matcher(portfolioId).matches()) {
+            return Mono.error(new HttpError(HttpStatus.BAD_REQUEST,
+                "portfolioId must be 1 to 36 letters, digits, '-' or '_'"));
+        }
+        return Mono.empty();
+    }
+
+    /**
+     * Prices each distinct ticker once, at most {@code portfoliopro.valuation.concurrency}
+     * at a time, into an array indexed like {@code positions}, then sums shares x close
+     * price in one pass. A ticker whose quote fails or takes longer than
+     * {@code quote-timeout} is valued at its last known quote, or at cost when there is
+     * none, and reported as stale or unpriced instead of failing the valuation. The
+     * fan-out is recorded in {@code portfoliopro.valuation.tickers}, the time taken in
+     * {@code portfoliopro.valuation}.
+     */
+    private Mono<PortfolioUpdateDTO> valuePositions(double initialPortfolioValue, final PositionColumns positions) {
+        log.debug("Calculating current portfolio value across {} tickers", positions.size());
+        DistributionSummary.builder("portfoliopro.valuation.tickers")
+            .description("Distinct tickers priced per portfolio valuation")
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(positions.size());
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        double[] prices = new double[positions.size()];
+        boolean[] stale = new boolean[positions.size()];
+        boolean[] unpriced = new boolean[positions.size()];
+        return Flux.range(0, positions.size())
+            .flatMap(id ->
+                getCurrentStockPrice(positions.ticker(id))
+                    .timeout(valuationConfig.getQuoteTimeout())
+                    .doOnNext(stockPrice -> prices[id] = stockPrice.getClosePrice())
+                    .onErrorResume(exception -> fallbackPrice(positions, id, exception, prices, stale, unpriced)),
+                valuationConfig.getConcurrency()
             )
-            .reduce(0.0, Double::sum) // Sum up the total current portfolio value
-            .map(currentPortfolioValue -> {
-                
-                PortfolioUpdateDTO portfolioUpdateDTO = new PortfolioUpdateDTO();
-                portfolioUpdateDTO.setInitialPortfolioValue(initialPortfolioValue);
-                portfolioUpdateDTO.setCurrentPortfolioValue(currentPortfolioValue);
-                return portfolioUpdateDTO;
+            .then(Mono.fromCallable(() -> {
+                List<String> staleTickers = new ArrayList<>();
+                List<String> unpricedTickers = new ArrayList<>();
+                for (int id = 0; id < positions.size(); id++) {
+                    if (stale[id]) {
+                        staleTickers.add(positions.ticker(id));
+                    } else if (unpriced[id]) {
+                        unpricedTickers.add(positions.ticker(id));
+                    }
+                }
+                return new PortfolioUpdateDTO(initialPortfolioValue, positions.marketValue(prices), staleTickers, unpricedTickers);
+            }))
+            .doOnSuccess(dto -> log.debug("Portfolio Update: {}", dto))
+            // stopped before the value is emitted, so the timing is recorded by the time a caller sees it
+            .doOnSuccess(dto -> sample.stop(valuationTimer(SignalType.ON_COMPLETE)))
+            .doOnError(exception -> sample.stop(valuationTimer(SignalType.ON_ERROR)))
+            .doOnCancel(() -> sample.stop(valuationTimer(SignalType.CANCEL)));
+    }
+
+    private Timer valuationTimer(final SignalType signal) {
+        return Timer.builder("portfoliopro.valuation")
+            .description("Time to price and value every position of the portfolio")
+            .tag("outcome", signal.name().toLowerCase(Locale.ROOT))
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private Mono<StockPriceDTO> fallbackPrice(final PositionColumns positions, final int id, final Throwable exception,
+            final double[] prices, final boolean[] stale, final boolean[] unpriced) {
+        String ticker = positions.ticker(id);
+        return quoteCache.lastKnownGood(ticker)
+            .doOnNext(stockPrice -> {
+                log.warn("Valuing {} at its last known quote: {}", ticker, exception.getMessage());
+                prices[id] = stockPrice.getClosePrice();
+                stale[id] = true;
             })
-            .doOnSuccess(dto -> log.info("Portfolio Update: {}", dto))
-            .subscribeOn(Schedulers.boundedElastic());
+            .switchIfEmpty(Mono.fromRunnable(() -> {
+                log.warn("Valuing {} at cost, no quote available: {}", ticker, exception.getMessage());
+                prices[id] = positions.shares(id) > 0 ? positions.cost(id) / positions.shares(id) : 0.0;
+                unpriced[id] = true;
+            }));
     }
-    
+
     public Mono<String> stockRealTimeSeries(final String ticker) {
-        log.info("Sending request to alpha vantage api to get {} stock price", ticker);
-        return alpha.getStockPrice(ticker);
+        log.debug("Sending request to alpha vantage api to get {} stock price", ticker);
+        return priceHistoryService.fetchSeries(ticker);
     }
 
 
     public Mono<StockPriceDTO> getCurrentStockPrice(final String symbol) {
-        return alpha.getStockPrice(symbol)
-            .map(response -> {
-                log.info("Response received from alpha vantage api for {}", symbol);
-                try {
-                    ObjectMapper objectMapper = new ObjectMapper();
-                    JsonNode root = objectMapper.readTree(response);
-                    JsonNode timeSeries = root.path("Time Series (1min)");
-                    return new StockPriceDTO(timeSeries);
-                } catch (Exception e) {
-                    throw new RuntimeException("Error parsing stock price data", e);
-                }
-            });
+        return quoteCache.get(symbol, this::fetchStockPrice);
+    }
+
+    private Mono<StockPriceDTO> fetchStockPrice(final String symbol) {
+        return marketData.getLatestStockPrice(symbol)
+            .doOnNext(response -> log.debug("Quote received for {}", symbol));
     }
 
     public Mono<String> getCompanyInfo(final String symbol) {
-        return finnuhApiClient.getCompanyInfo(symbol);
+        return companyInfoCache.get(symbol);
     }
 }
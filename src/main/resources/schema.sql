@@ -1,5 +1,6 @@
 CREATE TABLE IF NOT EXISTS stock (
     id VARCHAR(36) PRIMARY KEY,      -- Primary key
+    portfolio_id VARCHAR(36) NOT NULL DEFAULT 'default', -- Client book the stock belongs to
     stock_name VARCHAR(255) NOT NULL,          -- Name of the stock
     ticker VARCHAR(50) NOT NULL,               -- Stock ticker symbol
     shares INT NOT NULL,                       -- Number of shares
@@ -10,4 +11,32 @@ CREATE TABLE IF NOT EXISTS stock (
     lastUpdatedBy VARCHAR(255),                -- updated by which user
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,  -- Creation timestamp
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP  -- Update timestamp
-);
\ No newline at end of file
+);
+
+-- Databases created before stocks were partitioned by portfolio
+ALTER TABLE stock ADD COLUMN IF NOT EXISTS portfolio_id VARCHAR(36) NOT NULL DEFAULT 'default';
+
+-- Keyset paging over the active stocks of one portfolio
+CREATE INDEX IF NOT EXISTS idx_stock_portfolio_id ON stock (portfolio_id, is_deleted, id);
+-- Per-ticker positions of one portfolio read from the index alone, without touching the table
+CREATE INDEX IF NOT EXISTS idx_stock_portfolio_positions ON stock (portfolio_id, is_deleted, ticker, shares, total_cost);
+-- Tickers held across all portfolios
+CREATE INDEX IF NOT EXISTS idx_stock_active_ticker ON stock (is_deleted, ticker, id);
+
+CREATE TABLE IF NOT EXISTS price_bar (
+    ticker VARCHAR(50) NOT NULL,               -- Stock ticker symbol
+    resolution VARCHAR(8) NOT NULL,            -- Bar width: 1min, 5min or 1day
+    bar_time TIMESTAMP NOT NULL,               -- Bar start, exchange local time
+    open_price DOUBLE PRECISION NOT NULL,
+    high_price DOUBLE PRECISION NOT NULL,
+    low_price DOUBLE PRECISION NOT NULL,
+    close_price DOUBLE PRECISION NOT NULL,
+    volume BIGINT NOT NULL,
+    PRIMARY KEY (ticker, resolution, bar_time) -- Upsert key and range scan order
+);
+
+CREATE TABLE IF NOT EXISTS company_info (
+    ticker VARCHAR(50) PRIMARY KEY,            -- Stock ticker symbol, upper case
+    description VARCHAR(1000),                 -- Company description; NULL when Finnhub does not know the ticker
+    fetched_at TIMESTAMP WITH TIME ZONE NOT NULL  -- When Finnhub was last asked
+);
@@ -24,6 +24,7 @@ import org.springframework.test.web.reactive.server.WebTestClient;
 import com.task.portfoliopro.apiClients.AlphaVantageApiClient;
 import com.task.portfoliopro.apiClients.FinnuhApiClient;
 import com.task.portfoliopro.dto.PortfolioUpdateDTO;
+import com.task.portfoliopro.dto.PositionDTO;
 import com.task.portfoliopro.dto.StockDTO;
 import com.task.portfoliopro.dto.StockPriceDTO;
 import com.task.portfoliopro.entities.Stock;
@@ -62,7 +63,7 @@ public class StockControllerIntegrationTest {
         Stock stock1 = new Stock("id-test", "Apple Inc", "APPL", 10, 150.0, false, 1500);
         Stock stock2 = new Stock("id-test-32", "Alphabet Inc", "GOOGL", 5, 2800.0, false, 1400);
 
-        when(stockRepository.findAllByIsDeletedFalse()).thenReturn(Flux.just(stock1, stock2));
+        when(stockRepository.findActiveByPortfolioId(Stock.DEFAULT_PORTFOLIO)).thenReturn(Flux.just(stock1, stock2));
 
         List<Stock> stocks = webTestClient.get()
                 .uri("/api/v1/portfoliopro/stocks")
@@ -79,19 +80,11 @@ public class StockControllerIntegrationTest {
 
     @Test
     void testAddStock() {
-        String timeSeriesData = "{\"Time Series (1min)\": {\n" + //
-                        "        \"2025-01-19 20:00:00\": {\n" + //
-                        "            \"1. open\": \"233.6800\",\n" + //
-                        "            \"2. high\": \"233.7000\",\n" + //
-                        "            \"3. low\": \"233.6500\",\n" + //
-                        "            \"4. close\": \"233.6800\",\n" + //
-                        "            \"5. volume\": \"5432\"\n" + //
-                        "        }}}";
-
+        StockPriceDTO latestPrice = new StockPriceDTO(233.68, 233.68, 233.70, 233.65);
         StockDTO stockDto = new StockDTO("JPMORGAN", "JPM", 15, 10);
         Stock stockInput = new Stock("id-test", "JPMORGAN", "JPM", 15, 150.0, false, 1500);
 
-        when(alpha.getStockPrice(anyString())).thenReturn(Mono.just(timeSeriesData));
+        when(alpha.getLatestStockPrice(anyString())).thenReturn(Mono.just(latestPrice));
         when(stockRepository.save(any(Stock.class))).thenReturn(Mono.just(stockInput));    
 
         webTestClient.post()
@@ -115,7 +108,7 @@ public class StockControllerIntegrationTest {
         when(stockRepository.findByIdAndIsDeletedFalse(anyString())).thenReturn(Mono.just(stock));
 
         stock.setDeleted(true);
-        when(stockRepository.softDeleteById(anyString())).thenReturn(Mono.just("id-test"));
+        when(stockRepository.softDeleteById(anyString())).thenReturn(Mono.just(1));
 
         webTestClient.delete()
                 .uri("/api/v1/portfoliopro/stocks/" + stock.getId())
@@ -131,7 +124,8 @@ public class StockControllerIntegrationTest {
 
     @Test
     void testDeleteStock() {
-        when(stockRepository.deleteById(anyString())).thenReturn(null);
+        when(stockRepository.findById(anyString())).thenReturn(Mono.empty());
+        when(stockRepository.deleteById(anyString())).thenReturn(Mono.empty());
 
         webTestClient.delete()
                 .uri("/api/v1/portfoliopro/stocks/id-test-786/delete")
@@ -143,18 +137,11 @@ public class StockControllerIntegrationTest {
 
     @Test
     void testGetTotalPortfolioValue() {
-        String timeSeriesData = "{\"Time Series (1min)\": {\n" + //
-                        "        \"2025-01-19 20:00:00\": {\n" + //
-                        "            \"1. open\": \"233.6800\",\n" + //
-                        "            \"2. high\": \"233.7000\",\n" + //
-                        "            \"3. low\": \"233.6500\",\n" + //
-                        "            \"4. close\": \"233.6800\",\n" + //
-                        "            \"5. volume\": \"5432\"\n" + //
-                        "        }}}";
-
+        StockPriceDTO latestPrice = new StockPriceDTO(233.68, 233.68, 233.70, 233.65);
         Stock stock = new Stock("id-test", "TESLA", "TSLA", 10, 150.0, false, 1500);
-        when(alpha.getStockPrice(anyString())).thenReturn(Mono.just(timeSeriesData));
-        when(stockRepository.findAllByIsDeletedFalse()).thenReturn(Flux.just(stock));
+        when(alpha.getLatestStockPrice(anyString())).thenReturn(Mono.just(latestPrice));
+        when(stockRepository.findActivePositions(Stock.DEFAULT_PORTFOLIO)).thenReturn(Flux.just(
+                new PositionDTO(stock.getTicker(), stock.getShares(), stock.getTotalCost())));
 
 
         webTestClient.get()
@@ -171,16 +158,9 @@ public class StockControllerIntegrationTest {
 
     @Test
     void testGetRealTimeStockPrice() {
-        String timeSeriesData = "{\"Time Series (1min)\": {\n" + //
-                        "        \"2025-01-19 20:00:00\": {\n" + //
-                        "            \"1. open\": \"233.6800\",\n" + //
-                        "            \"2. high\": \"233.7000\",\n" + //
-                        "            \"3. low\": \"233.6500\",\n" + //
-                        "            \"4. close\": \"233.6800\",\n" + //
-                        "            \"5. volume\": \"5432\"\n" + //
-                        "        }}}";
+        StockPriceDTO latestPrice = new StockPriceDTO(233.68, 233.68, 233.70, 233.65);
        
-        when(alpha.getStockPrice(anyString())).thenReturn(Mono.just(timeSeriesData));
+        when(alpha.getLatestStockPrice(anyString())).thenReturn(Mono.just(latestPrice));
 
         webTestClient.get()
                 .uri(uriBuilder -> uriBuilder.path("/api/v1/portfoliopro/stock-price")
@@ -1,28 +1,44 @@
 package com.task.PortfolioPro.api.v1;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
 import com.task.portfoliopro.api.v1.StockController;
 import com.task.portfoliopro.dto.PortfolioUpdateDTO;
+import com.task.portfoliopro.dto.PriceBarDTO;
+import com.task.portfoliopro.dto.PriceResolution;
 import com.task.portfoliopro.dto.StockDTO;
+import com.task.portfoliopro.dto.StockImportResultDTO;
+import com.task.portfoliopro.dto.StockPageDTO;
 import com.task.portfoliopro.dto.StockPriceDTO;
 import com.task.portfoliopro.entities.Stock;
+import com.task.portfoliopro.errors.HttpError;
+import com.task.portfoliopro.exception.CustomeExcptionHandler;
+import com.task.portfoliopro.services.PortfolioValuationStream;
+import com.task.portfoliopro.services.PriceHistoryService;
+import com.task.portfoliopro.services.StockImportService;
 import com.task.portfoliopro.services.StockService;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @WebFluxTest(controllers = StockController.class)
+@ContextConfiguration(classes = {StockController.class, CustomeExcptionHandler.class})
 @WithMockUser("mock_user")
 public class StockControllerTest {
     @Autowired
@@ -31,12 +47,21 @@ public class StockControllerTest {
     @MockitoBean
     private StockService stockService;
 
+    @MockitoBean
+    private PortfolioValuationStream valuationStream;
+
+    @MockitoBean
+    private StockImportService stockImportService;
+
+    @MockitoBean
+    private PriceHistoryService priceHistoryService;
+
     private final String url = "/api/v1/portfoliopro";
 
     @Test
     void testGetAllStocks() {
         List<Stock> stocks = List.of(new Stock("id-32e5r", "Apple Inc", "AAPL", 10, 150.0, false, 1500));
-        when(stockService.getAllStocks()).thenReturn(Flux.fromIterable(stocks));
+        when(stockService.getAllStocks(Stock.DEFAULT_PORTFOLIO)).thenReturn(Flux.fromIterable(stocks));
 
         webTestClient.get()
                 .uri(url + "/stocks")
@@ -46,11 +71,60 @@ public class StockControllerTest {
                 .hasSize(1).value(res -> res.get(0).equals(stocks.get(0)));
     }
 
+    @Test
+    void testGetAllStocks_OfPortfolio() {
+        List<Stock> stocks = List.of(new Stock("book-b", new StockDTO("Apple Inc", "AAPL", 10, 150.0)));
+        when(stockService.getAllStocks("book-b")).thenReturn(Flux.fromIterable(stocks));
+
+        webTestClient.get()
+                .uri(url + "/portfolios/book-b/stocks")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Stock.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void testGetStockPage() {
+        StockPageDTO page = new StockPageDTO(List.of(Map.of("id", "id-32e5r", "ticker", "AAPL")), "id-32e5r");
+        when(stockService.getStockPage(Stock.DEFAULT_PORTFOLIO, 1, "id-1", List.of("AAPL", "MSFT"), List.of("ticker"))).thenReturn(Mono.just(page));
+
+        webTestClient.get()
+                .uri(url + "/stocks?limit=1&after=id-1&ticker=AAPL,MSFT&fields=ticker")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(StockPageDTO.class)
+                .isEqualTo(page);
+    }
+
+    @Test
+    void testGetStockPage_RejectsInvalidLimit() {
+        when(stockService.getStockPage(Stock.DEFAULT_PORTFOLIO, 0, null, null, null))
+                .thenReturn(Mono.error(new HttpError(HttpStatus.BAD_REQUEST, "limit must be between 1 and 1000")));
+
+        webTestClient.get()
+                .uri(url + "/stocks?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("limit must be between 1 and 1000");
+    }
+
+    @Test
+    void testGetAllStocks_RejectsInvalidPortfolio() {
+        when(stockService.getAllStocks("book.b")).thenReturn(StockService.checkPortfolioId("book.b").thenMany(Flux.empty()));
+
+        webTestClient.get()
+                .uri(url + "/portfolios/book.b/stocks")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     void testAddStock() {
         StockDTO stockDto = new StockDTO("AAPL", "Apple Inc", 10, 100);
         Stock stock = new Stock("id-3459k-ky76", "Apple Inc", "AAPL", 10, 150.0, false, 1500);
-        when(stockService.addStock(any(StockDTO.class))).thenReturn(Mono.just(stock));
+        when(stockService.addStock(eq(Stock.DEFAULT_PORTFOLIO), any(StockDTO.class))).thenReturn(Mono.just(stock));
 
         webTestClient.post()
                 .uri(url + "/stocks")
@@ -62,10 +136,54 @@ public class StockControllerTest {
                 .value(res -> res.equals(stock));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportStocks() {
+        when(stockImportService.importStocks(eq(Stock.DEFAULT_PORTFOLIO), any())).thenAnswer(invocation -> ((Flux<String>) invocation.getArgument(1))
+                .index((index, line) -> line.contains("ticker")
+                        ? StockImportResultDTO.created(index + 1, "AAPL", "id-" + index)
+                        : StockImportResultDTO.failed(index + 1, null, "ticker is required")));
+
+        webTestClient.post()
+                .uri(url + "/stocks/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"stockName\": \"Apple Inc\", \"ticker\": \"AAPL\", \"shares\": 10}\n{\"stockName\": \"Apple Inc\"}\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(StockImportResultDTO.class)
+                .isEqualTo(List.of(StockImportResultDTO.created(1, "AAPL", "id-0"),
+                        StockImportResultDTO.failed(2, null, "ticker is required")));
+    }
+
+    @Test
+    void testGetPriceHistory() {
+        LocalDateTime from = LocalDateTime.of(2025, 1, 17, 9, 30);
+        LocalDateTime to = LocalDateTime.of(2025, 1, 17, 16, 0);
+        PriceBarDTO bar = new PriceBarDTO("AAPL", PriceResolution.FIVE_MINUTES, from, 230.0, 231.0, 229.5, 230.5, 1200);
+        when(priceHistoryService.history("AAPL", PriceResolution.FIVE_MINUTES, from, to)).thenReturn(Flux.just(bar));
+
+        webTestClient.get()
+                .uri(url + "/stocks/price-history?ticker=AAPL&resolution=5min&from=2025-01-17T09:30:00&to=2025-01-17T16:00:00")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(PriceBarDTO.class)
+                .isEqualTo(List.of(bar));
+    }
+
+    @Test
+    void testGetPriceHistory_RejectsUnknownResolution() {
+        webTestClient.get()
+                .uri(url + "/stocks/price-history?ticker=AAPL&resolution=bogus")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     void testRemoveStock() {
         Stock stock = new Stock("id-3459k-ky76-uyt", "Apple Inc", "AAPL", 10, 150.0, false, 1500);
-        when(stockService.removeStock("id-3459k-ky76-uyt")).thenReturn(Mono.just(stock));
+        when(stockService.removeStock(Stock.DEFAULT_PORTFOLIO, "id-3459k-ky76-uyt")).thenReturn(Mono.just(stock));
 
         webTestClient.delete()
                 .uri("/api/v1/portfoliopro/stocks/id-3459k-ky76-uyt")
@@ -77,7 +195,7 @@ public class StockControllerTest {
 
     @Test
     void testDeleteStock() {
-        when(stockService.deleteStock("1")).thenReturn(Mono.empty());
+        when(stockService.deleteStock(Stock.DEFAULT_PORTFOLIO, "1")).thenReturn(Mono.empty());
 
         webTestClient.delete()
                 .uri("/api/v1/portfoliopro/stocks/1/delete")
@@ -89,7 +207,7 @@ public class StockControllerTest {
     @Test
     void testGetTotalPortfolioValue() {
         PortfolioUpdateDTO portfolioUpdateDTO = new PortfolioUpdateDTO(1000.0, 2000);
-        when(stockService.totalPortfolioValue()).thenReturn(Mono.just(portfolioUpdateDTO));
+        when(stockService.totalPortfolioValue(Stock.DEFAULT_PORTFOLIO)).thenReturn(Mono.just(portfolioUpdateDTO));
 
         webTestClient.get()
                 .uri(url + "/total-value")
@@ -99,6 +217,21 @@ public class StockControllerTest {
                 .isEqualTo(portfolioUpdateDTO);
     }
 
+    @Test
+    void testStreamTotalPortfolioValue() {
+        PortfolioUpdateDTO first = new PortfolioUpdateDTO(1000.0, 2000);
+        PortfolioUpdateDTO second = new PortfolioUpdateDTO(1000.0, 2100);
+        when(valuationStream.updates(Stock.DEFAULT_PORTFOLIO)).thenReturn(Flux.just(first, second));
+
+        webTestClient.get()
+                .uri(url + "/total-value/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(PortfolioUpdateDTO.class)
+                .isEqualTo(List.of(first, second));
+    }
+
     @Test
     void testGetRealTimeStockPrice() {
         StockPriceDTO stockPriceDTO = new StockPriceDTO(200, 150.0, 190, 100);
@@ -114,6 +247,19 @@ public class StockControllerTest {
                 .isEqualTo(stockPriceDTO);
     }
 
+    @Test
+    void testGetRealTimeStockPrice_RateLimited() {
+        when(stockService.getCurrentStockPrice("AAPL"))
+                .thenReturn(Mono.error(new HttpError(HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded")));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(url + "/stock-price")
+                        .queryParam("ticker", "AAPL")
+                        .build())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
     @Test
     void testGetTimeSeriesStockPrice() {
         String timeSeriesData = "{\"data\": [100, 101, 102]}";
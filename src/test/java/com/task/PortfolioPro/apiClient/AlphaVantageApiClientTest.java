@@ -0,0 +1,111 @@
+package com.task.PortfolioPro.apiClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.portfoliopro.apiClients.AlphaVantageApiClient;
+import com.task.portfoliopro.apiClients.CircuitBreaker;
+import com.task.portfoliopro.apiClients.IntradayQuoteParser;
+import com.task.portfoliopro.config.AlphaVantageApiConfig;
+import com.task.portfoliopro.errors.HttpError;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import reactor.test.StepVerifier;
+
+public class AlphaVantageApiClientTest {
+
+    private static final String SERIES = """
+            {"Meta Data": {"2. Symbol": "IBM"},
+             "Time Series (1min)": {"2025-01-17 19:59:00": {"1. open": "224.5", "2. high": "224.9", "3. low": "224.1", "4. close": "224.75", "5. volume": "120"}}}""";
+
+    private static final String UNKNOWN_SYMBOL = """
+            {"Error Message": "Invalid API call. Please retry or visit the documentation for TIME_SERIES_INTRADAY."}""";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final MockWebServer server = new MockWebServer();
+
+    private AlphaVantageApiClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server.start();
+        AlphaVantageApiConfig config = new AlphaVantageApiConfig();
+        config.setUrl(server.url("/query").toString());
+        config.setApiKey("test");
+        config.getRateLimit().setEnabled(false);
+        client = new AlphaVantageApiClient(WebClient.builder(), config, new IntradayQuoteParser(new ObjectMapper()),
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void testGetLatestStockPrice_UnknownTickersLeaveCircuitClosed() {
+        for (int i = 0; i < 6; i++) {
+            server.enqueue(json(UNKNOWN_SYMBOL));
+        }
+
+        for (int i = 0; i < 6; i++) {
+            StepVerifier.create(client.getLatestStockPrice("TYPO" + i))
+                    .expectErrorMatches(error -> error instanceof HttpError httpError && httpError.getStatus() == HttpStatus.NOT_FOUND)
+                    .verify();
+        }
+
+        assertEquals(6, server.getRequestCount());
+        assertEquals(CircuitBreaker.State.CLOSED.ordinal(),
+                meterRegistry.get("portfoliopro.circuitbreaker.state").tag("provider", AlphaVantageApiClient.NAME).gauge().value());
+        server.enqueue(json(SERIES));
+        StepVerifier.create(client.getLatestStockPrice("IBM"))
+                .expectNextMatches(quote -> quote.getClosePrice() == 224.75)
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetLatestStockPrice_SpentQuotaIsNotRetried() {
+        server.enqueue(json("{\"Information\": \"API rate limit reached\"}"));
+
+        StepVerifier.create(client.getLatestStockPrice("IBM"))
+                .expectErrorMatches(error -> error instanceof HttpError httpError && httpError.getStatus() == HttpStatus.TOO_MANY_REQUESTS)
+                .verify();
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void testGetLatestStockPrice_RetriesServerError() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(json(SERIES));
+
+        StepVerifier.create(client.getLatestStockPrice("IBM"))
+                .expectNextMatches(quote -> quote.getClosePrice() == 224.75)
+                .verifyComplete();
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    void testGetLatestStockPrice_DoesNotRetryClientError() {
+        server.enqueue(new MockResponse().setResponseCode(400));
+
+        StepVerifier.create(client.getLatestStockPrice("IBM"))
+                .expectError(HttpError.class)
+                .verify();
+        assertEquals(1, server.getRequestCount());
+    }
+
+    private static MockResponse json(final String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+    }
+}
@@ -0,0 +1,139 @@
+package com.task.PortfolioPro.apiClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.task.portfoliopro.apiClients.CircuitBreaker;
+import com.task.portfoliopro.config.CircuitBreakerConfig;
+import com.task.portfoliopro.errors.HttpError;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+public class CircuitBreakerTest {
+
+    private final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final CircuitBreaker circuitBreaker = circuitBreaker();
+
+    @Test
+    void testOpensAfterConsecutiveFailuresAndFailsFast() {
+        fail();
+        succeed();
+        fail();
+        fail();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+
+        fail();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        assertEquals(5, calls.get());
+
+        StepVerifier.create(circuitBreaker.protect(call(Mono.just("quote"))))
+                .expectErrorMatches(error -> CircuitBreaker.isRejection(error))
+                .verify();
+        assertEquals(5, calls.get());
+        assertEquals(1.0, meterRegistry.get("portfoliopro.circuitbreaker.rejected").counter().count());
+        assertEquals(2.0, meterRegistry.get("portfoliopro.circuitbreaker.state").gauge().value());
+    }
+
+    @Test
+    void testTrialCallClosesOrReopensTheCircuit() {
+        fail();
+        fail();
+        fail();
+
+        scheduler.advanceTimeBy(Duration.ofSeconds(30));
+        fail();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+
+        scheduler.advanceTimeBy(Duration.ofSeconds(29));
+        StepVerifier.create(circuitBreaker.protect(call(Mono.just("quote")))).expectError(HttpError.class).verify();
+
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        succeed();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+        assertEquals(5, calls.get());
+    }
+
+    @Test
+    void testOnlyOneTrialCallAtATime() {
+        fail();
+        fail();
+        fail();
+        scheduler.advanceTimeBy(Duration.ofSeconds(30));
+
+        Sinks.One<String> trial = Sinks.one();
+        StepVerifier.create(circuitBreaker.protect(call(trial.asMono())))
+                .then(() -> StepVerifier.create(circuitBreaker.protect(call(Mono.just("quote"))))
+                        .expectErrorMatches(error -> CircuitBreaker.isRejection(error))
+                        .verify())
+                .then(() -> trial.tryEmitValue("quote"))
+                .expectNext("quote")
+                .verifyComplete();
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void testRateLimiterRejectionsAreNotCounted() {
+        for (int i = 0; i < 5; i++) {
+            StepVerifier.create(circuitBreaker.protect(call(Mono.error(
+                    new HttpError(HttpStatus.TOO_MANY_REQUESTS, "alpha-vantage: too many requests waiting for quota")))))
+                    .expectError(HttpError.class)
+                    .verify();
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+    }
+
+    @Test
+    void testUnknownSymbolCountsAsSuccess() {
+        fail();
+        fail();
+        StepVerifier.create(circuitBreaker.protect(call(Mono.error(new HttpError(HttpStatus.NOT_FOUND, "unknown symbol")))))
+                .expectError(HttpError.class)
+                .verify();
+        fail();
+        fail();
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+    }
+
+    private void succeed() {
+        StepVerifier.create(circuitBreaker.protect(call(Mono.just("quote")))).expectNext("quote").verifyComplete();
+    }
+
+    private void fail() {
+        StepVerifier.create(circuitBreaker.protect(call(Mono.error(new HttpError(HttpStatus.EXPECTATION_FAILED, "API error")))))
+                .expectErrorMatches(error -> !CircuitBreaker.isRejection(error))
+                .verify();
+    }
+
+    private Mono<String> call(final Mono<String> response) {
+        return Mono.defer(() -> {
+            calls.incrementAndGet();
+            return response;
+        });
+    }
+
+    /** Opens after three consecutive failures, for thirty seconds. */
+    private CircuitBreaker circuitBreaker() {
+        CircuitBreakerConfig config = new CircuitBreakerConfig();
+        config.setFailureThreshold(3);
+        config.setOpenDuration(Duration.ofSeconds(30));
+        return new CircuitBreaker("alpha-vantage", config, meterRegistry, scheduler);
+    }
+}
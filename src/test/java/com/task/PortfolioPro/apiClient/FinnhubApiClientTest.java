@@ -1,5 +1,6 @@
 package com.task.PortfolioPro.apiClient;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -7,20 +8,29 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.function.Function;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 
 import com.task.portfoliopro.apiClients.FinnuhApiClient;
+import com.task.portfoliopro.config.CircuitBreakerConfig;
 import com.task.portfoliopro.config.FinnhubApiConfig;
+import com.task.portfoliopro.config.RateLimitConfig;
 import com.task.portfoliopro.dto.CompanyDTO;
 import com.task.portfoliopro.dto.FinnhubResponseDTO;
+import com.task.portfoliopro.errors.HttpError;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -55,11 +65,13 @@ public class FinnhubApiClientTest {
 
         when(finnhubApiConfig.getUrl()).thenReturn("http://mock-finnhub-url.com");
         when(finnhubApiConfig.getApiKey()).thenReturn("mock-api-key");
+        when(finnhubApiConfig.getRateLimit()).thenReturn(RateLimitConfig.of(60, Duration.ofMinutes(1), 30));
+        when(finnhubApiConfig.getCircuitBreaker()).thenReturn(new CircuitBreakerConfig());
 
         when(webClientBuilder.baseUrl(anyString())).thenReturn(webClientBuilder);
         when(webClientBuilder.build()).thenReturn(webClient);
 
-        finnhubApiClient = new FinnuhApiClient(webClientBuilder, finnhubApiConfig);
+        finnhubApiClient = new FinnuhApiClient(webClientBuilder, finnhubApiConfig, new SimpleMeterRegistry());
     }
 
     @Test
@@ -120,4 +132,39 @@ public class FinnhubApiClientTest {
         verify(webClient, times(1)).get();
         verify(responseSpec, times(1)).bodyToMono(FinnhubResponseDTO.class); // Retry happens
     }
+
+    @Test
+    void testGetLatestStockPrice_RetriesServerError() throws IOException {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+            server.enqueue(new MockResponse().setHeader("Content-Type", "application/json")
+                    .setBody("{\"c\": 225.1, \"h\": 225.3, \"l\": 224.0, \"o\": 224.6}"));
+
+            StepVerifier.create(clientOf(server).getLatestStockPrice("IBM"))
+                    .expectNextMatches(quote -> quote.getClosePrice() == 225.1)
+                    .verifyComplete();
+            assertEquals(2, server.getRequestCount());
+        }
+    }
+
+    @Test
+    void testGetLatestStockPrice_DoesNotRetryClientError() throws IOException {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setResponseCode(401));
+
+            StepVerifier.create(clientOf(server).getLatestStockPrice("IBM"))
+                    .expectErrorMatches(error -> error instanceof HttpError httpError && httpError.getStatus() == HttpStatus.EXPECTATION_FAILED)
+                    .verify();
+            assertEquals(1, server.getRequestCount());
+        }
+    }
+
+    private static FinnuhApiClient clientOf(final MockWebServer server) {
+        FinnhubApiConfig config = new FinnhubApiConfig();
+        config.setUrl(server.url("/api/v1/search").toString());
+        config.setQuoteUrl(server.url("/api/v1/quote").toString());
+        config.setApiKey("test");
+        config.getRateLimit().setEnabled(false);
+        return new FinnuhApiClient(WebClient.builder(), config, new SimpleMeterRegistry());
+    }
 }
@@ -0,0 +1,126 @@
+package com.task.PortfolioPro.apiClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.portfoliopro.apiClients.IntradayQuoteParser;
+import com.task.portfoliopro.dto.PriceBarDTO;
+import com.task.portfoliopro.dto.PriceResolution;
+import com.task.portfoliopro.dto.StockPriceDTO;
+import com.task.portfoliopro.errors.HttpError;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+public class IntradayQuoteParserTest {
+
+    private static final String PAYLOAD = """
+            {
+                "Meta Data": {
+                    "1. Information": "Intraday (1min) open, high, low, close prices and volume",
+                    "2. Symbol": "IBM",
+                    "3. Last Refreshed": "2025-01-17 19:59:00"
+                },
+                "Time Series (1min)": {
+                    "2025-01-17 19:59:00": {
+                        "1. open": "224.5000",
+                        "2. high": "224.9000",
+                        "3. low": "224.1000",
+                        "4. close": "224.7500",
+                        "5. volume": "120"
+                    },
+                    "2025-01-17 19:58:00": {
+                        "1. open": "1.0000",
+                        "2. high": "1.0000",
+                        "3. low": "1.0000",
+                        "4. close": "1.0000",
+                        "5. volume": "1"
+                    }
+                }
+            }
+            """;
+
+    private final IntradayQuoteParser parser = new IntradayQuoteParser(new ObjectMapper());
+
+    @Test
+    void testParseLatest_ReadsFirstBar() {
+        StockPriceDTO quote = parser.parseLatest(PAYLOAD.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(new StockPriceDTO(224.5, 224.75, 224.9, 224.1), quote);
+    }
+
+    @Test
+    void testParseLatest_AcrossSplitBuffers() {
+        StepVerifier.create(parser.parseLatest(chunked(PAYLOAD, 7)))
+                .expectNext(new StockPriceDTO(224.5, 224.75, 224.9, 224.1))
+                .verifyComplete();
+    }
+
+    @Test
+    void testParseLatest_EmitsBeforeBodyCompletes() {
+        int secondBar = PAYLOAD.indexOf("\"2025-01-17 19:58:00\"");
+        Sinks.Many<DataBuffer> body = Sinks.many().unicast().onBackpressureBuffer();
+
+        StepVerifier.create(parser.parseLatest(body.asFlux()))
+                .then(() -> body.tryEmitNext(wrap(PAYLOAD.substring(0, secondBar))))
+                .expectNext(new StockPriceDTO(224.5, 224.75, 224.9, 224.1))
+                .then(() -> body.tryEmitNext(wrap(PAYLOAD.substring(secondBar))))
+                .verifyComplete();
+    }
+
+    @Test
+    void testParseLatest_ThrottledResponse() {
+        String throttled = "{\"Information\": \"API rate limit reached\"}";
+
+        StepVerifier.create(parser.parseLatest(chunked(throttled, 5)))
+                .expectErrorMatches(throwable -> throwable instanceof HttpError
+                        && throwable.getMessage().contains("API rate limit reached"))
+                .verify();
+    }
+
+    @Test
+    void testParseLatest_MalformedJson() {
+        assertThrows(HttpError.class, () -> parser.parseLatest("{\"Time Series (1min)\": {".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testParseSeries_AllBarsOldestFirst() {
+        List<PriceBarDTO> bars = parser.parseSeries("IBM", PAYLOAD);
+
+        assertEquals(List.of(
+                new PriceBarDTO("IBM", PriceResolution.ONE_MINUTE, LocalDateTime.of(2025, 1, 17, 19, 58), 1.0, 1.0, 1.0, 1.0, 1),
+                new PriceBarDTO("IBM", PriceResolution.ONE_MINUTE, LocalDateTime.of(2025, 1, 17, 19, 59), 224.5, 224.9, 224.1, 224.75, 120)),
+                bars);
+    }
+
+    @Test
+    void testParseSeries_NoSeries() {
+        assertThrows(HttpError.class, () -> parser.parseSeries("IBM", "{\"Information\": \"API rate limit reached\"}"));
+    }
+
+    private static Flux<DataBuffer> chunked(final String payload, final int chunkSize) {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            byte[] chunk = Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + chunkSize));
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(chunk));
+        }
+        return Flux.fromIterable(buffers);
+    }
+
+    private static DataBuffer wrap(final String text) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
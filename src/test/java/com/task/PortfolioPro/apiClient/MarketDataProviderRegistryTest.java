@@ -0,0 +1,163 @@
+package com.task.PortfolioPro.apiClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.portfoliopro.apiClients.AlphaVantageApiClient;
+import com.task.portfoliopro.apiClients.FinnuhApiClient;
+import com.task.portfoliopro.apiClients.IntradayQuoteParser;
+import com.task.portfoliopro.apiClients.MarketDataProviderRegistry;
+import com.task.portfoliopro.apiClients.RequestPriority;
+import com.task.portfoliopro.config.AlphaVantageApiConfig;
+import com.task.portfoliopro.config.FinnhubApiConfig;
+import com.task.portfoliopro.config.MarketDataConfig;
+import com.task.portfoliopro.dto.StockPriceDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import reactor.test.StepVerifier;
+
+public class MarketDataProviderRegistryTest {
+
+    private static final String ALPHA_PAYLOAD = """
+            {
+                "Meta Data": {"2. Symbol": "IBM"},
+                "Time Series (1min)": {
+                    "2025-01-17 19:59:00": {
+                        "1. open": "224.5000",
+                        "2. high": "224.9000",
+                        "3. low": "224.1000",
+                        "4. close": "224.7500",
+                        "5. volume": "120"
+                    }
+                }
+            }""";
+
+    private static final String FINNHUB_QUOTE = """
+            {"c": 225.1, "d": 0.35, "dp": 0.16, "h": 225.3, "l": 224.0, "o": 224.6, "pc": 224.75, "t": 1737147600}""";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final MarketDataConfig config = new MarketDataConfig();
+
+    private MockWebServer alphaServer;
+
+    private MockWebServer finnhubServer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        alphaServer = new MockWebServer();
+        alphaServer.start();
+        finnhubServer = new MockWebServer();
+        finnhubServer.start();
+        config.getHedge().setInitialDelay(Duration.ofMillis(200));
+        config.getHedge().setMinDelay(Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        alphaServer.shutdown();
+        finnhubServer.shutdown();
+    }
+
+    @Test
+    void testFastPrimaryIsNotHedged() {
+        alphaServer.enqueue(json(ALPHA_PAYLOAD));
+
+        StepVerifier.create(registry().getLatestStockPrice("IBM"))
+                .expectNext(new StockPriceDTO(224.5, 224.75, 224.9, 224.1))
+                .verifyComplete();
+
+        assertEquals(0, finnhubServer.getRequestCount());
+        assertEquals(1, meterRegistry.get("portfoliopro.marketdata.requests")
+                .tags("provider", "alpha-vantage", "call", "quote", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void testSlowPrimaryIsHedged() {
+        alphaServer.enqueue(json(ALPHA_PAYLOAD).setHeadersDelay(3, TimeUnit.SECONDS));
+        finnhubServer.enqueue(json(FINNHUB_QUOTE));
+
+        Duration elapsed = StepVerifier.create(registry().getLatestStockPrice("IBM"))
+                .expectNext(new StockPriceDTO(224.6, 225.1, 225.3, 224.0))
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+
+        assertTrue(elapsed.compareTo(Duration.ofMillis(200)) >= 0, "hedged after " + elapsed);
+        assertEquals(1, finnhubServer.getRequestCount());
+        assertEquals(1.0, meterRegistry.get("portfoliopro.marketdata.hedged").tag("provider", "alpha-vantage").counter().count());
+        assertEquals(1, meterRegistry.get("portfoliopro.marketdata.requests")
+                .tags("provider", "alpha-vantage", "outcome", "cancelled").timer().count());
+    }
+
+    @Test
+    void testBackgroundRequestIsNotHedged() {
+        alphaServer.enqueue(json(ALPHA_PAYLOAD).setHeadersDelay(600, TimeUnit.MILLISECONDS));
+        finnhubServer.enqueue(json(FINNHUB_QUOTE));
+
+        StepVerifier.create(RequestPriority.background(registry().getLatestStockPrice("IBM")))
+                .expectNext(new StockPriceDTO(224.5, 224.75, 224.9, 224.1))
+                .verifyComplete();
+
+        assertEquals(0, finnhubServer.getRequestCount());
+    }
+
+    @Test
+    void testHedgeDelayFollowsPrimaryLatency() {
+        config.getHedge().setInitialDelay(Duration.ofSeconds(10));
+        config.getHedge().setMinSamples(5);
+        MarketDataProviderRegistry registry = registry();
+        for (int i = 0; i < 5; i++) {
+            alphaServer.enqueue(json(ALPHA_PAYLOAD));
+            StepVerifier.create(registry.getLatestStockPrice("IBM")).expectNextCount(1).verifyComplete();
+        }
+
+        alphaServer.enqueue(json(ALPHA_PAYLOAD).setHeadersDelay(3, TimeUnit.SECONDS));
+        finnhubServer.enqueue(json(FINNHUB_QUOTE));
+
+        // fast responses so far put the hedge delay near min-delay, far below the initial delay
+        StepVerifier.create(registry.getLatestStockPrice("IBM"))
+                .expectNext(new StockPriceDTO(224.6, 225.1, 225.3, 224.0))
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void testUnknownProviderIsRejected() {
+        config.setQuoteProviders(List.of("alpha-vantage", "bloomberg"));
+
+        assertThrows(IllegalArgumentException.class, this::registry);
+    }
+
+    private MarketDataProviderRegistry registry() {
+        AlphaVantageApiConfig alphaConfig = new AlphaVantageApiConfig();
+        alphaConfig.setUrl(alphaServer.url("/query").toString());
+        alphaConfig.getRateLimit().setEnabled(false);
+        FinnhubApiConfig finnhubConfig = new FinnhubApiConfig();
+        finnhubConfig.setUrl(finnhubServer.url("/api/v1/search").toString());
+        finnhubConfig.setQuoteUrl(finnhubServer.url("/api/v1/quote").toString());
+        finnhubConfig.getRateLimit().setEnabled(false);
+
+        AlphaVantageApiClient alpha = new AlphaVantageApiClient(WebClient.builder(), alphaConfig,
+                new IntradayQuoteParser(new ObjectMapper()), meterRegistry);
+        FinnuhApiClient finnhub = new FinnuhApiClient(WebClient.builder(), finnhubConfig, meterRegistry);
+        return new MarketDataProviderRegistry(List.of(alpha, finnhub), config, meterRegistry);
+    }
+
+    private static MockResponse json(final String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+    }
+}
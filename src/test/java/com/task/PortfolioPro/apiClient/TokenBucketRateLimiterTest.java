@@ -0,0 +1,190 @@
+package com.task.PortfolioPro.apiClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.http.HttpStatus;
+
+import com.task.portfoliopro.apiClients.RequestPriority;
+import com.task.portfoliopro.apiClients.TokenBucketRateLimiter;
+import com.task.portfoliopro.config.RateLimitConfig;
+import com.task.portfoliopro.errors.HttpError;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+public class TokenBucketRateLimiterTest {
+
+    private final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /** One token a second, two at most. */
+    private final RateLimitConfig config = RateLimitConfig.of(60, Duration.ofMinutes(1), 2);
+
+    @Test
+    void testAcquire_ReleasesWaitersAtRefillRate() {
+        TokenBucketRateLimiter limiter = limiter();
+        List<String> granted = new CopyOnWriteArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            String name = "call-" + i;
+            limiter.acquire(RequestPriority.INTERACTIVE).subscribe(null, null, () -> granted.add(name));
+        }
+
+        assertEquals(List.of("call-0", "call-1"), granted);
+        assertEquals(2, limiter.queueDepth());
+
+        scheduler.advanceTimeBy(Duration.ofMillis(999));
+        assertEquals(2, granted.size());
+
+        scheduler.advanceTimeBy(Duration.ofMillis(1));
+        assertEquals(List.of("call-0", "call-1", "call-2"), granted);
+
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        assertEquals(List.of("call-0", "call-1", "call-2", "call-3"), granted);
+        assertEquals(0, limiter.queueDepth());
+        assertEquals(4, meterRegistry.get("portfoliopro.ratelimiter.wait")
+                .tag("priority", "interactive").timer().count());
+        assertEquals(2000.0, meterRegistry.get("portfoliopro.ratelimiter.wait")
+                .tag("priority", "interactive").timer().max(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testAcquire_InteractiveAheadOfQueuedBackground() {
+        TokenBucketRateLimiter limiter = limiter();
+        List<String> granted = new CopyOnWriteArrayList<>();
+        limiter.acquire(RequestPriority.BACKGROUND).subscribe();
+        limiter.acquire(RequestPriority.BACKGROUND).subscribe();
+
+        limiter.acquire(RequestPriority.BACKGROUND).subscribe(null, null, () -> granted.add("background"));
+        RequestPriority.background(limiter.acquire()).subscribe(null, null, () -> granted.add("background-context"));
+        limiter.acquire().subscribe(null, null, () -> granted.add("interactive"));
+
+        scheduler.advanceTimeBy(Duration.ofSeconds(3));
+
+        assertEquals(List.of("interactive", "background", "background-context"), granted);
+    }
+
+    @Test
+    void testAcquire_RejectsWhenQueueFull() {
+        config.setMaxQueueSize(1);
+        TokenBucketRateLimiter limiter = limiter();
+        limiter.acquire(RequestPriority.INTERACTIVE).subscribe();
+        limiter.acquire(RequestPriority.INTERACTIVE).subscribe();
+        limiter.acquire(RequestPriority.INTERACTIVE).subscribe();
+
+        StepVerifier.create(limiter.acquire(RequestPriority.INTERACTIVE))
+                .expectErrorMatches(error -> error instanceof HttpError httpError
+                        && httpError.getStatus() == HttpStatus.TOO_MANY_REQUESTS)
+                .verify();
+
+        assertEquals(1.0, meterRegistry.get("portfoliopro.ratelimiter.rejected").tag("reason", "queue-full").counter().count());
+    }
+
+    @Test
+    void testAcquire_TimesOutAndLeavesQueue() {
+        config.setQueueTimeout(Duration.ofMillis(500));
+        TokenBucketRateLimiter limiter = limiter();
+        limiter.acquire(RequestPriority.INTERACTIVE).subscribe();
+        limiter.acquire(RequestPriority.INTERACTIVE).subscribe();
+
+        StepVerifier.withVirtualTime(() -> limiter.acquire(RequestPriority.BACKGROUND), () -> scheduler, Long.MAX_VALUE)
+                .expectSubscription()
+                .then(() -> assertEquals(1, limiter.queueDepth()))
+                .thenAwait(Duration.ofMillis(500))
+                .expectErrorMatches(TokenBucketRateLimiter::isRejection)
+                .verify();
+
+        assertEquals(0, limiter.queueDepth());
+        assertEquals(1.0, meterRegistry.get("portfoliopro.ratelimiter.rejected").tag("reason", "timeout").counter().count());
+    }
+
+    @Test
+    void testAcquire_CancelledCallerTakesNoToken() {
+        TokenBucketRateLimiter limiter = limiter();
+        limiter.acquire(RequestPriority.INTERACTIVE).subscribe();
+        limiter.acquire(RequestPriority.INTERACTIVE).subscribe(new BaseSubscriber<Void>() {
+            @Override
+            protected void hookOnSubscribe(final Subscription subscription) {
+                cancel();
+            }
+        });
+
+        List<String> granted = new CopyOnWriteArrayList<>();
+        limiter.acquire(RequestPriority.INTERACTIVE).subscribe(null, null, () -> granted.add("next"));
+
+        assertEquals(List.of("next"), granted);
+        assertEquals(0, limiter.queueDepth());
+    }
+
+    @Test
+    void testAcquire_TimedOutWaiterIsNotGranted() {
+        config.setQueueTimeout(Duration.ofMillis(500));
+        TokenBucketRateLimiter limiter = limiter();
+        List<String> granted = new CopyOnWriteArrayList<>();
+        limiter.acquire(RequestPriority.INTERACTIVE).subscribe();
+        limiter.acquire(RequestPriority.INTERACTIVE).subscribe();
+
+        limiter.acquire(RequestPriority.BACKGROUND).subscribe(null, error -> granted.add("timed out"), () -> granted.add("background"));
+        scheduler.advanceTimeBy(Duration.ofMillis(500));
+        limiter.acquire(RequestPriority.INTERACTIVE).subscribe(null, null, () -> granted.add("interactive"));
+        scheduler.advanceTimeBy(Duration.ofMillis(500));
+
+        assertEquals(List.of("timed out", "interactive"), granted);
+    }
+
+    @Test
+    void testAcquire_InteractiveGivesUpBeforeBackground() {
+        config.setPermits(1);
+        TokenBucketRateLimiter limiter = limiter();
+        limiter.acquire(RequestPriority.INTERACTIVE).subscribe();
+        limiter.acquire(RequestPriority.INTERACTIVE).subscribe();
+
+        StepVerifier.withVirtualTime(() -> Flux.merge(
+                        limiter.acquire(RequestPriority.INTERACTIVE).thenReturn("interactive")
+                            .onErrorReturn(TokenBucketRateLimiter::isRejection, "interactive timed out"),
+                        limiter.acquire(RequestPriority.BACKGROUND).thenReturn("background")),
+                    () -> scheduler, Long.MAX_VALUE)
+                .expectSubscription()
+                .thenAwait(Duration.ofSeconds(5))
+                .expectNext("interactive timed out")
+                // the next token is a minute away, well within the background queue timeout
+                .thenAwait(Duration.ofMinutes(1))
+                .expectNext("background")
+                .verifyComplete();
+    }
+
+    @Test
+    void testAcquire_Disabled() {
+        config.setEnabled(false);
+        TokenBucketRateLimiter limiter = limiter();
+
+        for (int i = 0; i < 10; i++) {
+            StepVerifier.create(limiter.acquire()).verifyComplete();
+        }
+        assertEquals(0, limiter.queueDepth());
+    }
+
+    @Test
+    void testIsRejection() {
+        assertTrue(TokenBucketRateLimiter.isRejection(new HttpError(HttpStatus.TOO_MANY_REQUESTS, "quota")));
+        assertFalse(TokenBucketRateLimiter.isRejection(new HttpError(HttpStatus.EXPECTATION_FAILED, "upstream")));
+        assertFalse(TokenBucketRateLimiter.isRejection(new IllegalStateException()));
+    }
+
+    private TokenBucketRateLimiter limiter() {
+        return new TokenBucketRateLimiter("test-provider", config, meterRegistry, scheduler);
+    }
+}
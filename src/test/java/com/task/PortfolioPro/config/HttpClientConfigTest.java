@@ -0,0 +1,104 @@
+package com.task.PortfolioPro.config;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import com.task.portfoliopro.config.HttpClientConfig;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.timeout.ReadTimeoutException;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.test.StepVerifier;
+
+public class HttpClientConfigTest {
+
+    private final HttpClientConfig httpClientConfig = new HttpClientConfig();
+
+    /** Client ports seen by the server, one per TCP connection. */
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DisposableServer server;
+
+    private ConnectionProvider connectionProvider;
+
+    @BeforeEach
+    void setUp() {
+        // the pool publishes to the global registry
+        Metrics.addRegistry(meterRegistry);
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/quote", (request, response) -> {
+                            clientPorts.add(request.remoteAddress().getPort());
+                            return response.sendString(Mono.just("ok"));
+                        })
+                        .get("/slow", (request, response) -> response.sendString(Mono.just("late").delayElement(Duration.ofSeconds(2)))))
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+        if (connectionProvider != null) {
+            connectionProvider.disposeLater().block();
+        }
+        Metrics.removeRegistry(meterRegistry);
+    }
+
+    /** Idle connections of the market-data pool, as published by its metrics. */
+    private double idleConnections() {
+        return meterRegistry.find("reactor.netty.connection.provider.idle.connections").tag("name", "market-data")
+                .gauges().stream().mapToDouble(Gauge::value).sum();
+    }
+
+    @Test
+    void testConnector_ReusesPooledConnection() {
+        WebClient webClient = webClient();
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(webClient.get().uri("/quote").retrieve().bodyToMono(String.class))
+                    .expectNext("ok")
+                    .verifyComplete();
+            // the connection is released on its event loop just after the body completes
+            await().atMost(Duration.ofSeconds(5)).until(() -> idleConnections() == 1);
+        }
+
+        assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    void testConnector_ResponseTimeout() {
+        httpClientConfig.setResponseTimeout(Duration.ofMillis(200));
+        WebClient webClient = webClient();
+
+        StepVerifier.create(webClient.get().uri("/slow").retrieve().bodyToMono(String.class))
+                .expectErrorMatches(error -> error instanceof WebClientRequestException
+                        && error.getCause() instanceof ReadTimeoutException)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private WebClient webClient() {
+        connectionProvider = httpClientConfig.marketDataConnectionProvider();
+        return WebClient.builder()
+                .clientConnector(httpClientConfig.marketDataClientHttpConnector(connectionProvider))
+                .baseUrl("http://localhost:" + server.port())
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.task.PortfolioPro.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.task.portfoliopro.config.R2dbcPoolConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.R2dbcTimeoutException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class R2dbcPoolConfigTest {
+
+    private final R2dbcPoolConfig poolConfig = new R2dbcPoolConfig();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ConnectionPool connectionPool;
+
+    @AfterEach
+    void tearDown() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+
+    @Test
+    void testConnectionPool_ReusesConnections() {
+        poolConfig.setInitialSize(1);
+        poolConfig.setMinIdle(0);
+        DatabaseClient databaseClient = DatabaseClient.create(connectionPool());
+
+        for (int i = 0; i < 5; i++) {
+            StepVerifier.create(databaseClient.sql("SELECT 1").map(row -> row.get(0, Integer.class)).one())
+                    .expectNext(1)
+                    .verifyComplete();
+        }
+
+        assertEquals(1, meterRegistry.get("portfoliopro.r2dbc.pool.connections.created").tag("outcome", "success").timer().count());
+        assertEquals(5, meterRegistry.get("portfoliopro.r2dbc.pool.acquire").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testConnectionPool_AppliesStatementCacheSize() {
+        poolConfig.setStatementCacheSize(128);
+        R2dbcProperties properties = new R2dbcProperties();
+        properties.setUrl("r2dbc:h2:mem:///pool-" + System.nanoTime() + "?options=DB_CLOSE_DELAY=-1");
+        connectionPool = poolConfig.connectionPool("test", ConnectionFactories.get(poolConfig.connectionOptions(properties)), meterRegistry);
+        DatabaseClient databaseClient = DatabaseClient.create(connectionPool);
+
+        StepVerifier.create(databaseClient.sql("SELECT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = 'QUERY_CACHE_SIZE'")
+                        .map(row -> row.get(0, String.class))
+                        .one())
+                .expectNext("128")
+                .verifyComplete();
+    }
+
+    @Test
+    void testConnectionPool_SaturatedAcquireTimesOut() {
+        poolConfig.setInitialSize(1);
+        poolConfig.setMaxSize(1);
+        poolConfig.setMinIdle(0);
+        poolConfig.setMaxAcquireTime(Duration.ofMillis(200));
+        ConnectionPool pool = connectionPool();
+        // opens the H2 connection up front, so only the wait for a free one counts against the 200ms
+        assertEquals(1, pool.warmup().block());
+        Connection held = pool.create().block();
+
+        StepVerifier.create(pool.create())
+                .expectError(R2dbcTimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+
+        Mono.from(held.close()).block();
+        StepVerifier.create(Mono.usingWhen(pool.create(), connection -> Mono.just("acquired"), Connection::close))
+                .expectNext("acquired")
+                .verifyComplete();
+        assertEquals(1, meterRegistry.get("portfoliopro.r2dbc.pool.acquire").tag("outcome", "timeout").timer().count());
+        assertEquals(1, meterRegistry.get("portfoliopro.r2dbc.pool.connections.created").tag("outcome", "success").timer().count());
+    }
+
+    private ConnectionPool connectionPool() {
+        connectionPool = poolConfig.connectionPool("test", ConnectionFactories.get(
+                "r2dbc:h2:mem:///pool-" + System.nanoTime() + "?options=DB_CLOSE_DELAY=-1"), meterRegistry);
+        return connectionPool;
+    }
+}
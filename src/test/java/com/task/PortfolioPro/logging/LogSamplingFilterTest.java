@@ -0,0 +1,113 @@
+package com.task.PortfolioPro.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.task.portfoliopro.logging.LogSamplingFilter;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+public class LogSamplingFilterTest {
+
+    private final TestClock clock = new TestClock(Instant.parse("2025-01-17T15:00:00Z"));
+
+    private final LoggerContext context = new LoggerContext();
+
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        LogSamplingFilter filter = new LogSamplingFilter(clock);
+        filter.setLoggerPrefix("com.task.portfoliopro");
+        filter.setMaxPerInterval(2);
+        filter.setInterval("1s");
+        filter.start();
+        context.addTurboFilter(filter);
+        appender.setContext(context);
+        appender.start();
+        logger = context.getLogger("com.task.portfoliopro.api.v1.StockController");
+        logger.setLevel(Level.DEBUG);
+        logger.addAppender(appender);
+    }
+
+    @Test
+    void testSamplesEachStatementPerInterval() {
+        for (int i = 0; i < 5; i++) {
+            logger.info("Request received to fetch the real time price data for {}", "AAPL");
+            logger.info("Request received to fetch company info for stock ticker {}", "AAPL");
+        }
+        assertEquals(4, appender.list.size());
+
+        clock.advance(Duration.ofSeconds(1));
+        logger.info("Request received to fetch the real time price data for {}", "GOOGL");
+
+        assertEquals(5, appender.list.size());
+        assertEquals("Request received to fetch the real time price data for GOOGL", appender.list.get(4).getFormattedMessage());
+    }
+
+    @Test
+    void testWarningsAndOtherLoggersAreNotSampled() {
+        Logger other = context.getLogger("reactor.netty.http.client.HttpClient");
+        other.addAppender(appender);
+        for (int i = 0; i < 5; i++) {
+            logger.warn("Valuing {} at cost, no quote available", "AAPL");
+            other.info("Connection acquired");
+        }
+
+        assertEquals(10, appender.list.size());
+    }
+
+    @Test
+    void testDisabledLevelsDoNotUseUpTheAllowance() {
+        logger.setLevel(Level.INFO);
+        for (int i = 0; i < 5; i++) {
+            logger.debug("Quote received for {}", "AAPL");
+        }
+        logger.setLevel(Level.DEBUG);
+        logger.debug("Quote received for {}", "AAPL");
+
+        assertEquals(1, appender.list.size());
+    }
+
+    private static final class TestClock extends Clock {
+
+        private Instant now;
+
+        TestClock(final Instant now) {
+            this.now = now;
+        }
+
+        void advance(final Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
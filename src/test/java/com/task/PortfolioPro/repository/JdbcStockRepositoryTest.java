@@ -0,0 +1,180 @@
+package com.task.PortfolioPro.repository;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.task.portfoliopro.config.PersistenceConfig;
+import com.task.portfoliopro.config.R2dbcPoolConfig;
+import com.task.portfoliopro.dto.PositionDTO;
+import com.task.portfoliopro.dto.StockDTO;
+import com.task.portfoliopro.entities.Stock;
+import com.task.portfoliopro.repository.JdbcStockRepository;
+import com.task.portfoliopro.repository.RepositoryMetrics;
+import com.task.portfoliopro.repository.StockBatchRepository;
+import com.task.portfoliopro.repository.StockRepository;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import reactor.test.StepVerifier;
+
+public class JdbcStockRepositoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JdbcStockRepository jdbcStockRepository;
+
+    private StockRepository stockRepository;
+
+    /** Seeds through R2DBC and reads through JDBC, so both modes are shown to open the same database. */
+    @BeforeEach
+    void setUp() {
+        R2dbcProperties properties = new R2dbcProperties();
+        properties.setUrl("r2dbc:h2:mem:///jdbc-stock-" + System.nanoTime() + "?options=DB_CLOSE_DELAY=-1");
+        R2dbcPoolConfig poolConfig = new R2dbcPoolConfig();
+        ConnectionFactory connectionFactory = ConnectionFactories.get(poolConfig.connectionOptions(properties));
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).populate(connectionFactory).block();
+        new StockBatchRepository(DatabaseClient.create(connectionFactory)).insertAll(List.of(
+                new Stock("id-lot-1", "Apple Inc", "AAPL", 10, 150.0, false, 1500),
+                new Stock("id-lot-2", "Apple Inc", "AAPL", 5, 160.0, false, 800),
+                new Stock("id-lot-3", "Alphabet Inc", "GOOGL", 2, 2800.0, false, 5600),
+                new Stock("id-lot-4", "Tesla Inc", "TSLA", 4, 250.0, true, 1000),
+                new Stock("id-lot-5", "Microsoft Corp", "MSFT", 3, 400.0, false, 1200, "book-b"),
+                new Stock("id-lot-6", "Apple Inc", "AAPL", 1, 170.0, false, 170, "book-b"))).block();
+
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(PersistenceConfig.jdbcUrl(poolConfig.connectionOptions(properties)));
+        dataSource.setMaximumPoolSize(2);
+        jdbcStockRepository = new JdbcStockRepository(dataSource);
+        stockRepository = new RepositoryMetrics(meterRegistry).timed(jdbcStockRepository, StockRepository.class);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        jdbcStockRepository.close();
+    }
+
+    @Test
+    void testJdbcUrl_KeepsH2Options() {
+        R2dbcProperties properties = new R2dbcProperties();
+        properties.setUrl("r2dbc:h2:file:///./portfoliopro3db;DB_CLOSE_DELAY=-1");
+
+        assertEquals("jdbc:h2:file:./portfoliopro3db;DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=64",
+                PersistenceConfig.jdbcUrl(new R2dbcPoolConfig().connectionOptions(properties)));
+    }
+
+    @Test
+    void testFindActivePositions_SumsPerTicker() {
+        StepVerifier.create(stockRepository.findActivePositions(Stock.DEFAULT_PORTFOLIO).sort((left, right) -> left.getTicker().compareTo(right.getTicker())))
+                .expectNext(new PositionDTO("AAPL", 15, 2300.0), new PositionDTO("GOOGL", 2, 5600.0))
+                .verifyComplete();
+    }
+
+    @Test
+    void testFindActiveByPortfolioId() {
+        StepVerifier.create(stockRepository.findActiveByPortfolioId("book-b").map(Stock::getId).sort())
+                .expectNext("id-lot-5", "id-lot-6")
+                .verifyComplete();
+    }
+
+    @Test
+    void testFindActivePortfolioIdsAndTickers() {
+        StepVerifier.create(stockRepository.findActivePortfolioIds().sort())
+                .expectNext("book-b", Stock.DEFAULT_PORTFOLIO)
+                .verifyComplete();
+        StepVerifier.create(stockRepository.findActiveTickers().sort())
+                .expectNext("AAPL", "GOOGL", "MSFT")
+                .verifyComplete();
+    }
+
+    @Test
+    void testFindByIdAndIsDeletedFalse_SkipsSoftDeleted() {
+        StepVerifier.create(stockRepository.findByIdAndIsDeletedFalse("id-lot-1"))
+                .assertNext(stock -> {
+                    assertEquals("Apple Inc", stock.getStockName());
+                    assertEquals(1500.0, stock.getTotalCost());
+                    assertNotNull(stock.getCreatedAt());
+                })
+                .verifyComplete();
+        StepVerifier.create(stockRepository.findByIdAndIsDeletedFalse("id-lot-4")).verifyComplete();
+    }
+
+    @Test
+    void testSave_InsertsNewStockThenUpdatesIt() {
+        Stock stock = new Stock("book-b", new StockDTO("Nvidia Corp", "NVDA", 2, 120.0));
+
+        StepVerifier.create(stockRepository.save(stock).then(stockRepository.findById(stock.getId())))
+                .assertNext(saved -> {
+                    assertEquals("NVDA", saved.getTicker());
+                    assertEquals("book-b", saved.getPortfolioId());
+                    assertEquals(240.0, saved.getTotalCost());
+                    assertFalse(saved.isNew());
+                })
+                .verifyComplete();
+        Stock read = stockRepository.findById(stock.getId()).block();
+        read.setShares(3);
+
+        StepVerifier.create(stockRepository.save(read).then(stockRepository.findById(stock.getId())).map(Stock::getShares))
+                .expectNext(3)
+                .verifyComplete();
+    }
+
+    @Test
+    void testSave_FailsToUpdateMissingRow() {
+        Stock stock = stockRepository.findById("id-lot-1").block();
+        stockRepository.deleteById("id-lot-1").block();
+
+        StepVerifier.create(stockRepository.save(stock)).verifyError(TransientDataAccessResourceException.class);
+    }
+
+    @Test
+    void testSoftDeleteById_UpdatesOnce() {
+        StepVerifier.create(stockRepository.softDeleteById("id-lot-5")).expectNext(1).verifyComplete();
+        StepVerifier.create(stockRepository.softDeleteById("id-lot-5")).expectNext(0).verifyComplete();
+        StepVerifier.create(stockRepository.findActiveByPortfolioId("book-b").map(Stock::getId))
+                .expectNext("id-lot-6")
+                .verifyComplete();
+    }
+
+    @Test
+    void testQueriesRunOnVirtualThreads() {
+        StepVerifier.create(stockRepository.findActiveTickers().map(ticker -> Thread.currentThread().isVirtual()))
+                .expectNext(true, true, true)
+                .verifyComplete();
+    }
+
+    @Test
+    void testInvocationsAreTimedOnSubscription() {
+        stockRepository.findActiveTickers();
+        assertTrue(meterRegistry.find("portfoliopro.repository.invocations").timers().isEmpty());
+
+        StepVerifier.create(stockRepository.findActiveTickers()).expectNextCount(3).verifyComplete();
+
+        // recorded on the virtual thread once the subscriber has seen the last row
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            Timer tickers = meterRegistry.get("portfoliopro.repository.invocations")
+                    .tags("repository", "JdbcStockRepository", "method", "findActiveTickers", "outcome", "success")
+                    .timer();
+            assertEquals(1, tickers.count());
+            assertTrue(tickers.totalTime(TimeUnit.NANOSECONDS) > 0);
+        });
+    }
+}
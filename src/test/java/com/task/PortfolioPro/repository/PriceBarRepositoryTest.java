@@ -0,0 +1,91 @@
+package com.task.PortfolioPro.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.task.portfoliopro.dto.PriceBarDTO;
+import com.task.portfoliopro.dto.PriceResolution;
+import com.task.portfoliopro.repository.PriceBarRepository;
+
+import io.r2dbc.spi.ConnectionFactories;
+import reactor.test.StepVerifier;
+
+public class PriceBarRepositoryTest {
+
+    private static final LocalDateTime OPEN = LocalDateTime.of(2025, 1, 17, 9, 30);
+
+    private PriceBarRepository priceBarRepository;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseClient databaseClient = DatabaseClient.create(
+                ConnectionFactories.get("r2dbc:h2:mem:///bars-" + System.nanoTime() + "?options=DB_CLOSE_DELAY=-1"));
+        databaseClient.sql("""
+                CREATE TABLE price_bar (
+                    ticker VARCHAR(50) NOT NULL,
+                    resolution VARCHAR(8) NOT NULL,
+                    bar_time TIMESTAMP NOT NULL,
+                    open_price DOUBLE PRECISION NOT NULL,
+                    high_price DOUBLE PRECISION NOT NULL,
+                    low_price DOUBLE PRECISION NOT NULL,
+                    close_price DOUBLE PRECISION NOT NULL,
+                    volume BIGINT NOT NULL,
+                    PRIMARY KEY (ticker, resolution, bar_time)
+                )""").then().block();
+        priceBarRepository = new PriceBarRepository(databaseClient);
+    }
+
+    @Test
+    void testUpsertAll_ReplacesExistingBars() {
+        StepVerifier.create(priceBarRepository.upsertAll(List.of(minute("AAPL", 0, 230.0), minute("AAPL", 1, 231.0))))
+                .expectNext(2L)
+                .verifyComplete();
+        StepVerifier.create(priceBarRepository.upsertAll(List.of(minute("AAPL", 1, 232.0), minute("AAPL", 2, 233.0))))
+                .expectNext(2L)
+                .verifyComplete();
+
+        StepVerifier.create(priceBarRepository.findRange("AAPL", List.of(PriceResolution.ONE_MINUTE), OPEN, OPEN.plusHours(1)))
+                .expectNext(minute("AAPL", 0, 230.0), minute("AAPL", 1, 232.0), minute("AAPL", 2, 233.0))
+                .verifyComplete();
+    }
+
+    @Test
+    void testFindRange_FiltersTickerResolutionAndTime() {
+        PriceBarDTO daily = new PriceBarDTO("AAPL", PriceResolution.DAILY, OPEN.minusDays(1).toLocalDate().atStartOfDay(),
+                228.0, 229.0, 227.0, 228.5, 10_000);
+        priceBarRepository.upsertAll(List.of(minute("AAPL", 0, 230.0), minute("AAPL", 5, 231.0), minute("MSFT", 1, 410.0), daily))
+                .block();
+
+        StepVerifier.create(priceBarRepository.findRange("AAPL", List.of(PriceResolution.ONE_MINUTE), OPEN, OPEN.plusMinutes(5)))
+                .expectNext(minute("AAPL", 0, 230.0))
+                .verifyComplete();
+        StepVerifier.create(priceBarRepository.findRange("AAPL", List.of(PriceResolution.ONE_MINUTE, PriceResolution.DAILY),
+                        OPEN.minusDays(2), OPEN.plusDays(1)))
+                .expectNext(daily, minute("AAPL", 0, 230.0), minute("AAPL", 5, 231.0))
+                .verifyComplete();
+    }
+
+    @Test
+    void testFindAndDeleteBefore() {
+        priceBarRepository.upsertAll(List.of(minute("MSFT", 0, 410.0), minute("AAPL", 1, 230.0), minute("AAPL", 0, 229.0),
+                minute("AAPL", 5, 231.0))).block();
+
+        StepVerifier.create(priceBarRepository.findBefore(PriceResolution.ONE_MINUTE, OPEN.plusMinutes(5)))
+                .expectNext(minute("AAPL", 0, 229.0), minute("AAPL", 1, 230.0), minute("MSFT", 0, 410.0))
+                .verifyComplete();
+        StepVerifier.create(priceBarRepository.deleteBefore(PriceResolution.ONE_MINUTE, OPEN.plusMinutes(5)))
+                .expectNext(3L)
+                .verifyComplete();
+        StepVerifier.create(priceBarRepository.findBefore(PriceResolution.ONE_MINUTE, OPEN.plusDays(1)))
+                .expectNext(minute("AAPL", 5, 231.0))
+                .verifyComplete();
+    }
+
+    private static PriceBarDTO minute(final String ticker, final int minute, final double close) {
+        return new PriceBarDTO(ticker, PriceResolution.ONE_MINUTE, OPEN.plusMinutes(minute), close, close + 1, close - 1, close, 100);
+    }
+}
@@ -0,0 +1,78 @@
+package com.task.PortfolioPro.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.task.portfoliopro.entities.Stock;
+import com.task.portfoliopro.repository.StockBatchRepository;
+
+import io.r2dbc.spi.ConnectionFactories;
+import reactor.test.StepVerifier;
+
+public class StockBatchRepositoryTest {
+
+    private DatabaseClient databaseClient;
+
+    private StockBatchRepository stockBatchRepository;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient = DatabaseClient.create(ConnectionFactories.get("r2dbc:h2:mem:///batch-" + System.nanoTime() + "?options=DB_CLOSE_DELAY=-1"));
+        databaseClient.sql("""
+                CREATE TABLE stock (
+                    id VARCHAR(36) PRIMARY KEY,
+                    portfolio_id VARCHAR(36) NOT NULL DEFAULT 'default',
+                    stock_name VARCHAR(255) NOT NULL,
+                    ticker VARCHAR(50) NOT NULL,
+                    shares INT NOT NULL,
+                    price DOUBLE PRECISION NOT NULL,
+                    total_cost DOUBLE PRECISION NOT NULL,
+                    is_deleted BOOLEAN NOT NULL DEFAULT FALSE
+                )""").then().block();
+        stockBatchRepository = new StockBatchRepository(databaseClient);
+    }
+
+    @Test
+    void testInsertAll() {
+        Stock lot1 = new Stock("id-lot-1", "Apple Inc", "AAPL", 10, 150.0, false, 1500);
+        Stock lot2 = new Stock("id-lot-2", "Alphabet Inc", "GOOGL", 2, 2800.0, false, 5600);
+        lot2.setPortfolioId("book-b");
+
+        StepVerifier.create(stockBatchRepository.insertAll(List.of(lot1, lot2)))
+                .expectNext(2L)
+                .verifyComplete();
+
+        StepVerifier.create(databaseClient.sql("SELECT portfolio_id, ticker, shares, total_cost FROM stock ORDER BY id")
+                        .map(row -> row.get("portfolio_id", String.class) + ":" + row.get("ticker", String.class) + ":" + row.get("shares", Integer.class)
+                                + ":" + row.get("total_cost", Double.class))
+                        .all())
+                .expectNext("default:AAPL:10:1500.0", "book-b:GOOGL:2:5600.0")
+                .verifyComplete();
+    }
+
+    @Test
+    void testInsertAll_Empty() {
+        StepVerifier.create(stockBatchRepository.insertAll(List.of()))
+                .expectNext(0L)
+                .verifyComplete();
+    }
+
+    @Test
+    void testInsertAll_DuplicateIdFailsWholeChunk() {
+        Stock lot1 = new Stock("id-lot-1", "Apple Inc", "AAPL", 10, 150.0, false, 1500);
+        Stock duplicate = new Stock("id-lot-1", "Apple Inc", "AAPL", 5, 150.0, false, 750);
+
+        StepVerifier.create(stockBatchRepository.insertAll(List.of(lot1, duplicate)))
+                .expectError()
+                .verify();
+
+        StepVerifier.create(databaseClient.sql("SELECT COUNT(*) AS n FROM stock").map(row -> row.get("n", Long.class)).one())
+                .expectNext(0L)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,88 @@
+package com.task.PortfolioPro.repository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.task.portfoliopro.entities.Stock;
+import com.task.portfoliopro.repository.StockBatchRepository;
+import com.task.portfoliopro.repository.StockPageRepository;
+
+import io.r2dbc.spi.ConnectionFactories;
+import reactor.test.StepVerifier;
+
+public class StockPageRepositoryTest {
+
+    private StockPageRepository stockPageRepository;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseClient databaseClient = DatabaseClient.create(
+                ConnectionFactories.get("r2dbc:h2:mem:///page-" + System.nanoTime() + "?options=DB_CLOSE_DELAY=-1"));
+        databaseClient.sql("""
+                CREATE TABLE stock (
+                    id VARCHAR(36) PRIMARY KEY,
+                    stock_name VARCHAR(255) NOT NULL,
+                    ticker VARCHAR(50) NOT NULL,
+                    shares INT NOT NULL,
+                    price DOUBLE PRECISION NOT NULL,
+                    total_cost DOUBLE PRECISION NOT NULL,
+                    is_deleted BOOLEAN NOT NULL DEFAULT FALSE,
+                    portfolio_id VARCHAR(36) NOT NULL DEFAULT 'default'
+                )""").then().block();
+        new StockBatchRepository(databaseClient).insertAll(List.of(
+                new Stock("id-1", "Apple Inc", "AAPL", 10, 150.0, false, 1500),
+                new Stock("id-2", "Alphabet Inc", "GOOGL", 2, 2800.0, false, 5600),
+                new Stock("id-3", "Apple Inc", "AAPL", 5, 160.0, true, 800),
+                new Stock("id-4", "Microsoft Corp", "MSFT", 3, 400.0, false, 1200),
+                new Stock("id-5", "Apple Inc", "AAPL", 1, 170.0, false, 170),
+                new Stock("id-6", "Apple Inc", "AAPL", 4, 150.0, false, 600, "book-b"))).block();
+        stockPageRepository = new StockPageRepository(databaseClient);
+    }
+
+    @Test
+    void testFindActivePage_ContinuesAfterCursor() {
+        List<String> fields = List.of("id", "ticker");
+
+        StepVerifier.create(stockPageRepository.findActivePage(Stock.DEFAULT_PORTFOLIO, fields, List.of(), null, 2))
+                .expectNext(item("id-1", "AAPL"), item("id-2", "GOOGL"))
+                .verifyComplete();
+        StepVerifier.create(stockPageRepository.findActivePage(Stock.DEFAULT_PORTFOLIO, fields, List.of(), "id-2", 2))
+                .expectNext(item("id-4", "MSFT"), item("id-5", "AAPL"))
+                .verifyComplete();
+    }
+
+    @Test
+    void testFindActivePage_FiltersTickers() {
+        StepVerifier.create(stockPageRepository.findActivePage(Stock.DEFAULT_PORTFOLIO, List.of("id", "ticker"), List.of("AAPL", "MSFT"), "id-1", 10))
+                .expectNext(item("id-4", "MSFT"), item("id-5", "AAPL"))
+                .verifyComplete();
+    }
+
+    @Test
+    void testFindActivePage_ReadsOnlyRequestedFields() {
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("id", "id-1");
+        expected.put("shares", 10);
+        expected.put("totalCost", 1500.0);
+
+        StepVerifier.create(stockPageRepository.findActivePage(Stock.DEFAULT_PORTFOLIO, List.of("id", "shares", "totalCost"), List.of(), null, 1))
+                .expectNext(expected)
+                .verifyComplete();
+    }
+
+    @Test
+    void testFindActivePage_OnlyReadsThePortfolio() {
+        StepVerifier.create(stockPageRepository.findActivePage("book-b", List.of("id", "ticker"), List.of(), null, 10))
+                .expectNext(item("id-6", "AAPL"))
+                .verifyComplete();
+    }
+
+    private static Map<String, Object> item(final String id, final String ticker) {
+        return Map.of("id", id, "ticker", ticker);
+    }
+}
@@ -0,0 +1,67 @@
+package com.task.PortfolioPro.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.task.portfoliopro.repository.R2dbcStockRepository;
+import com.task.portfoliopro.repository.StockRepository;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+
+/**
+ * Runs {@code EXPLAIN} for every {@link StockRepository} query against the shipped
+ * {@code schema.sql} and fails when one falls back to a full table scan.
+ */
+public class StockRepositoryQueryPlanTest {
+
+    private static DatabaseClient databaseClient;
+
+    @BeforeAll
+    static void setUp() {
+        ConnectionFactory connectionFactory =
+                ConnectionFactories.get("r2dbc:h2:mem:///plans-" + System.nanoTime() + "?options=DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).populate(connectionFactory).block();
+        databaseClient = DatabaseClient.create(connectionFactory);
+        // enough rows, one in ten soft deleted, for the planner to prefer an index when one fits
+        databaseClient.sql("""
+                INSERT INTO stock (id, portfolio_id, stock_name, ticker, shares, price, total_cost, is_deleted)
+                SELECT RANDOM_UUID(), 'P' || MOD(X, 200), 'Stock ' || X, 'T' || MOD(X, 500), 1, 1.0, 1.0, MOD(X, 10) = 0
+                FROM SYSTEM_RANGE(1, 20000)""").then().block();
+        databaseClient.sql("ANALYZE").then().block();
+    }
+
+    static Stream<String> queries() {
+        Stream<String> declared = Arrays.stream(R2dbcStockRepository.class.getDeclaredMethods())
+                .filter(method -> method.isAnnotationPresent(Query.class))
+                .map(method -> method.getAnnotation(Query.class).value());
+        // derived by-id operations of R2dbcRepository used by StockService, run alike by JdbcStockRepository
+        Stream<String> derived = Stream.of(
+                "SELECT * FROM stock WHERE id = :id",
+                "DELETE FROM stock WHERE id = :id");
+        return Stream.concat(declared, derived);
+    }
+
+    @ParameterizedTest
+    @MethodSource("queries")
+    void testQueryUsesIndex(final String query) {
+        String plan = databaseClient.sql("EXPLAIN " + query.replaceAll(":\\w+", "'x'"))
+                .map(row -> row.get(0, String.class))
+                .one()
+                .block();
+
+        assertFalse(plan.contains("tableScan"), () -> "Full table scan for " + query + ":\n" + plan);
+        assertTrue(plan.contains("PUBLIC.IDX_") || plan.contains("PUBLIC.PRIMARY_KEY"), () -> "No index used for " + query + ":\n" + plan);
+    }
+}
@@ -0,0 +1,127 @@
+package com.task.PortfolioPro.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.task.portfoliopro.dto.PositionDTO;
+import com.task.portfoliopro.dto.StockDTO;
+import com.task.portfoliopro.entities.Stock;
+import com.task.portfoliopro.repository.R2dbcStockRepository;
+import com.task.portfoliopro.repository.RepositoryMetrics;
+import com.task.portfoliopro.repository.StockBatchRepository;
+import com.task.portfoliopro.repository.StockRepository;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import reactor.test.StepVerifier;
+
+public class StockRepositoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private StockRepository stockRepository;
+
+    @BeforeEach
+    void setUp() {
+        ConnectionFactory connectionFactory =
+                ConnectionFactories.get("r2dbc:h2:mem:///stock-" + System.nanoTime() + "?options=DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).populate(connectionFactory).block();
+        new StockBatchRepository(DatabaseClient.create(connectionFactory)).insertAll(List.of(
+                new Stock("id-lot-1", "Apple Inc", "AAPL", 10, 150.0, false, 1500),
+                new Stock("id-lot-2", "Apple Inc", "AAPL", 5, 160.0, false, 800),
+                new Stock("id-lot-3", "Alphabet Inc", "GOOGL", 2, 2800.0, false, 5600),
+                new Stock("id-lot-4", "Tesla Inc", "TSLA", 4, 250.0, true, 1000),
+                new Stock("id-lot-5", "Microsoft Corp", "MSFT", 3, 400.0, false, 1200, "book-b"),
+                new Stock("id-lot-6", "Apple Inc", "AAPL", 1, 170.0, false, 170, "book-b"))).block();
+        R2dbcRepositoryFactory factory = new R2dbcRepositoryFactory(new R2dbcEntityTemplate(connectionFactory));
+        factory.addRepositoryProxyPostProcessor(new RepositoryMetrics(meterRegistry));
+        stockRepository = factory.getRepository(R2dbcStockRepository.class);
+    }
+
+    @Test
+    void testFindActivePositions_SumsPerTicker() {
+        StepVerifier.create(stockRepository.findActivePositions(Stock.DEFAULT_PORTFOLIO).sort((left, right) -> left.getTicker().compareTo(right.getTicker())))
+                .expectNext(new PositionDTO("AAPL", 15, 2300.0), new PositionDTO("GOOGL", 2, 5600.0))
+                .verifyComplete();
+        StepVerifier.create(stockRepository.findActivePositions("book-b").sort((left, right) -> left.getTicker().compareTo(right.getTicker())))
+                .expectNext(new PositionDTO("AAPL", 1, 170.0), new PositionDTO("MSFT", 3, 1200.0))
+                .verifyComplete();
+    }
+
+    @Test
+    void testFindActiveByPortfolioId() {
+        StepVerifier.create(stockRepository.findActiveByPortfolioId("book-b").map(Stock::getId).sort())
+                .expectNext("id-lot-5", "id-lot-6")
+                .verifyComplete();
+    }
+
+    @Test
+    void testFindActivePortfolioIds() {
+        StepVerifier.create(stockRepository.findActivePortfolioIds().sort())
+                .expectNext("book-b", Stock.DEFAULT_PORTFOLIO)
+                .verifyComplete();
+    }
+
+    @Test
+    void testFindActiveTickers() {
+        StepVerifier.create(stockRepository.findActiveTickers().sort())
+                .expectNext("AAPL", "GOOGL", "MSFT")
+                .verifyComplete();
+    }
+
+    @Test
+    void testSave_InsertsNewStockAndReadsItBackById() {
+        Stock stock = new Stock("book-b", new StockDTO("Nvidia Corp", "NVDA", 2, 120.0));
+        assertTrue(stock.isNew());
+
+        StepVerifier.create(stockRepository.save(stock).then(stockRepository.findById(stock.getId())))
+                .assertNext(saved -> {
+                    assertEquals("NVDA", saved.getTicker());
+                    assertEquals("book-b", saved.getPortfolioId());
+                    assertEquals(240.0, saved.getTotalCost());
+                    assertNotNull(saved.getCreatedAt());
+                    assertFalse(saved.isNew());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testDeleteById() {
+        StepVerifier.create(stockRepository.deleteById("id-lot-5").then(stockRepository.findById("id-lot-5")))
+                .verifyComplete();
+        StepVerifier.create(stockRepository.findActiveByPortfolioId("book-b").map(Stock::getId))
+                .expectNext("id-lot-6")
+                .verifyComplete();
+    }
+
+    @Test
+    void testInvocationsAreTimedOnSubscription() {
+        stockRepository.findActiveTickers();
+        assertTrue(meterRegistry.find("portfoliopro.repository.invocations").timers().isEmpty());
+
+        StepVerifier.create(stockRepository.findActiveTickers()).expectNextCount(3).verifyComplete();
+        StepVerifier.create(stockRepository.findActivePositions(Stock.DEFAULT_PORTFOLIO)).expectNextCount(2).verifyComplete();
+
+        Timer tickers = meterRegistry.get("portfoliopro.repository.invocations")
+                .tags("repository", "R2dbcStockRepository", "method", "findActiveTickers", "outcome", "success")
+                .timer();
+        assertEquals(1, tickers.count());
+        assertTrue(tickers.totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertEquals(1, meterRegistry.get("portfoliopro.repository.invocations").tag("method", "findActivePositions").timer().count());
+    }
+}
@@ -0,0 +1,180 @@
+package com.task.PortfolioPro.services;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.task.portfoliopro.apiClients.FinnuhApiClient;
+import com.task.portfoliopro.apiClients.MarketDataProvider.Capability;
+import com.task.portfoliopro.apiClients.MarketDataProviderRegistry;
+import com.task.portfoliopro.config.CacheConfig;
+import com.task.portfoliopro.config.CompanyInfoCacheConfig;
+import com.task.portfoliopro.config.MarketDataConfig;
+import com.task.portfoliopro.config.QuoteCacheConfig;
+import com.task.portfoliopro.config.ValuationConfig;
+import com.task.portfoliopro.errors.HttpError;
+import com.task.portfoliopro.repository.CompanyInfoRepository;
+import com.task.portfoliopro.services.CompanyInfoCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class CompanyInfoCacheTest {
+
+    private final TestClock clock = new TestClock(Instant.parse("2025-01-17T15:00:00Z"));
+
+    private final CompanyInfoCacheConfig config = new CompanyInfoCacheConfig();
+
+    private final FinnuhApiClient finnuhApiClient = mock(FinnuhApiClient.class);
+
+    private CompanyInfoRepository companyInfoRepository;
+
+    private CompanyInfoCache companyInfoCache;
+
+    @BeforeEach
+    void setUp() {
+        ConnectionFactory connectionFactory =
+                ConnectionFactories.get("r2dbc:h2:mem:///companies-" + System.nanoTime() + "?options=DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).populate(connectionFactory).block();
+        companyInfoRepository = new CompanyInfoRepository(DatabaseClient.create(connectionFactory));
+        when(finnuhApiClient.name()).thenReturn(FinnuhApiClient.NAME);
+        when(finnuhApiClient.capabilities()).thenReturn(Set.of(Capability.QUOTES, Capability.COMPANY_INFO));
+        companyInfoCache = newCache();
+    }
+
+    @Test
+    void testWarmTickerIsServedWithoutCallingFinnhub() {
+        when(finnuhApiClient.getCompanyInfo("AAPL")).thenReturn(Mono.just("APPLE INC"));
+
+        StepVerifier.create(companyInfoCache.get("AAPL")).expectNext("APPLE INC").verifyComplete();
+        StepVerifier.create(companyInfoCache.get(" aapl ")).expectNext("APPLE INC").verifyComplete();
+
+        verify(finnuhApiClient, times(1)).getCompanyInfo("AAPL");
+    }
+
+    @Test
+    void testStoredDescriptionSurvivesRestart() {
+        when(finnuhApiClient.getCompanyInfo("MSFT")).thenReturn(Mono.just("MICROSOFT CORP"));
+        StepVerifier.create(companyInfoCache.get("MSFT")).expectNext("MICROSOFT CORP").verifyComplete();
+
+        StepVerifier.create(newCache().get("MSFT")).expectNext("MICROSOFT CORP").verifyComplete();
+
+        verify(finnuhApiClient, times(1)).getCompanyInfo("MSFT");
+    }
+
+    @Test
+    void testUnknownTickerIsCachedUntilNegativeTtl() {
+        when(finnuhApiClient.getCompanyInfo("NOPE")).thenReturn(Mono.empty());
+
+        StepVerifier.create(companyInfoCache.get("NOPE")).verifyComplete();
+        StepVerifier.create(newCache().get("NOPE")).verifyComplete();
+        verify(finnuhApiClient, times(1)).getCompanyInfo("NOPE");
+
+        when(finnuhApiClient.getCompanyInfo("NOPE")).thenReturn(Mono.just("NOPE HOLDINGS"));
+        clock.advance(config.getNegativeTtl());
+
+        // served as unknown once more while the background refresh runs
+        StepVerifier.create(companyInfoCache.get("NOPE")).verifyComplete();
+        StepVerifier.create(companyInfoCache.get("NOPE")).expectNext("NOPE HOLDINGS").verifyComplete();
+        verify(finnuhApiClient, times(2)).getCompanyInfo("NOPE");
+    }
+
+    @Test
+    void testStaleDescriptionIsServedWhileRevalidating() {
+        when(finnuhApiClient.getCompanyInfo("GOOGL")).thenReturn(Mono.just("ALPHABET INC"));
+        StepVerifier.create(companyInfoCache.get("GOOGL")).expectNext("ALPHABET INC").verifyComplete();
+
+        when(finnuhApiClient.getCompanyInfo("GOOGL")).thenReturn(Mono.just("ALPHABET INC-CL A"));
+        clock.advance(config.getTtl().plusHours(1));
+
+        StepVerifier.create(companyInfoCache.get("GOOGL")).expectNext("ALPHABET INC").verifyComplete();
+        StepVerifier.create(companyInfoCache.get("GOOGL")).expectNext("ALPHABET INC-CL A").verifyComplete();
+        StepVerifier.create(newCache().get("GOOGL")).expectNext("ALPHABET INC-CL A").verifyComplete();
+        verify(finnuhApiClient, times(2)).getCompanyInfo("GOOGL");
+    }
+
+    @Test
+    void testExpiredDescriptionIsServedWhenRefreshFails() {
+        when(finnuhApiClient.getCompanyInfo("TSLA")).thenReturn(Mono.just("TESLA INC"));
+        StepVerifier.create(companyInfoCache.get("TSLA")).expectNext("TESLA INC").verifyComplete();
+
+        when(finnuhApiClient.getCompanyInfo("TSLA"))
+                .thenReturn(Mono.error(new HttpError(HttpStatus.EXPECTATION_FAILED, "API error")));
+        clock.advance(config.getTtl().plus(config.getStaleWhileRevalidate()));
+
+        StepVerifier.create(companyInfoCache.get("TSLA")).expectNext("TESLA INC").verifyComplete();
+        verify(finnuhApiClient, times(2)).getCompanyInfo("TSLA");
+    }
+
+    @Test
+    void testFailedFirstLookupIsNotCached() {
+        when(finnuhApiClient.getCompanyInfo("AMZN"))
+                .thenReturn(Mono.error(new HttpError(HttpStatus.EXPECTATION_FAILED, "API error")));
+        StepVerifier.create(companyInfoCache.get("AMZN")).expectError(HttpError.class).verify();
+
+        when(finnuhApiClient.getCompanyInfo("AMZN")).thenReturn(Mono.just("AMAZON.COM INC"));
+        StepVerifier.create(companyInfoCache.get("AMZN")).expectNext("AMAZON.COM INC").verifyComplete();
+        StepVerifier.create(companyInfoRepository.findByTicker("AMZN").map(stored -> stored.getDescription()))
+                .expectNext("AMAZON.COM INC")
+                .verifyComplete();
+        verify(finnuhApiClient, never()).getCompanyInfo("amzn");
+    }
+
+    /** A fresh in-memory level over the same database, as after a restart. */
+    private CompanyInfoCache newCache() {
+        MarketDataConfig marketDataConfig = new MarketDataConfig();
+        marketDataConfig.setQuoteProviders(List.of(FinnuhApiClient.NAME));
+        MarketDataProviderRegistry marketData =
+                new MarketDataProviderRegistry(List.of(finnuhApiClient), marketDataConfig, new SimpleMeterRegistry());
+        return new CompanyInfoCache(new CacheConfig().cacheManager(new QuoteCacheConfig(), config, new ValuationConfig()), marketData,
+                companyInfoRepository, config, clock);
+    }
+
+    private static final class TestClock extends Clock {
+
+        private Instant now;
+
+        TestClock(final Instant now) {
+            this.now = now;
+        }
+
+        void advance(final Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
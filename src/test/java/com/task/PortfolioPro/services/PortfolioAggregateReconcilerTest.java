@@ -0,0 +1,145 @@
+package com.task.PortfolioPro.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.task.portfoliopro.dto.PositionDTO;
+import com.task.portfoliopro.entities.Stock;
+import com.task.portfoliopro.repository.StockRepository;
+import com.task.portfoliopro.services.PortfolioAggregate;
+import com.task.portfoliopro.services.PortfolioAggregateReconciler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+public class PortfolioAggregateReconcilerTest {
+
+    private static final String DEFAULT = Stock.DEFAULT_PORTFOLIO;
+
+    private final StockRepository stockRepository = mock(StockRepository.class);
+
+    private final PortfolioAggregate aggregate = new PortfolioAggregate();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final PortfolioAggregateReconciler reconciler =
+            new PortfolioAggregateReconciler(stockRepository, aggregate, meterRegistry);
+
+    private final PositionDTO apple = new PositionDTO("AAPL", 10, 1500);
+
+    private final PositionDTO alphabet = new PositionDTO("GOOGL", 2, 5600);
+
+    @BeforeEach
+    void setUp() {
+        when(stockRepository.findActivePortfolioIds()).thenReturn(Flux.just(DEFAULT));
+    }
+
+    @Test
+    void testReconcile_LoadsAggregate() {
+        when(stockRepository.findActivePositions(DEFAULT)).thenReturn(Flux.just(apple, alphabet));
+
+        StepVerifier.create(reconciler.reconcile())
+                .expectNext(true)
+                .verifyComplete();
+
+        assertTrue(aggregate.isLoaded());
+        assertEquals(7100.0, aggregate.totalCost(DEFAULT));
+        assertEquals(2, aggregate.tickerCount());
+        assertEquals(0.0, meterRegistry.get("portfoliopro.aggregate.drift.tickers").gauge().value());
+    }
+
+    @Test
+    void testReconcile_RecordsAndRepairsDrift() {
+        when(stockRepository.findActivePositions(DEFAULT)).thenReturn(Flux.just(apple, alphabet));
+        reconciler.reconcile().block();
+
+        aggregate.add(new Stock("id-lot-3", "Tesla Inc", "TSLA", 4, 250.0, false, 1000));
+
+        StepVerifier.create(reconciler.reconcile())
+                .expectNext(true)
+                .verifyComplete();
+
+        assertEquals(1.0, meterRegistry.get("portfoliopro.aggregate.drift.tickers").gauge().value());
+        assertEquals(1000.0, meterRegistry.get("portfoliopro.aggregate.drift.cost").gauge().value());
+        assertEquals(7100.0, aggregate.totalCost(DEFAULT));
+        assertEquals(2.0, meterRegistry.get("portfoliopro.aggregate.reconciliations")
+                .tag("outcome", "applied").counter().count());
+    }
+
+    @Test
+    void testReconcile_SkippedWhileWriteInFlight() {
+        when(stockRepository.findActivePositions(DEFAULT)).thenReturn(Flux.just(apple, alphabet));
+        Sinks.One<Stock> pendingSave = Sinks.one();
+        aggregate.tracked(DEFAULT, pendingSave.asMono(), aggregate::add).subscribe();
+
+        StepVerifier.create(reconciler.reconcile())
+                .expectNext(false)
+                .verifyComplete();
+
+        assertFalse(aggregate.isLoaded());
+        assertEquals(1.0, meterRegistry.get("portfoliopro.aggregate.reconciliations")
+                .tag("outcome", "skipped").counter().count());
+
+        pendingSave.tryEmitValue(new Stock("id-lot-3", "Tesla Inc", "TSLA", 4, 250.0, false, 1000));
+        when(stockRepository.findActivePositions(DEFAULT)).thenReturn(Flux.just(apple, alphabet));
+
+        StepVerifier.create(reconciler.reconcile())
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void testReconcile_WriteToOnePortfolioDoesNotHoldBackOthers() {
+        when(stockRepository.findActivePortfolioIds()).thenReturn(Flux.just(DEFAULT, "book-b"));
+        when(stockRepository.findActivePositions(DEFAULT)).thenReturn(Flux.just(apple, alphabet));
+        when(stockRepository.findActivePositions("book-b")).thenReturn(Flux.just(new PositionDTO("MSFT", 3, 1200)));
+        aggregate.tracked("book-b", Sinks.<Stock>one().asMono(), aggregate::add).subscribe();
+
+        StepVerifier.create(reconciler.reconcile())
+                .expectNext(false)
+                .verifyComplete();
+
+        assertTrue(aggregate.isLoaded(DEFAULT));
+        assertFalse(aggregate.isLoaded("book-b"));
+        assertFalse(aggregate.isLoaded());
+        assertEquals(7100.0, aggregate.totalCost(DEFAULT));
+    }
+
+    @Test
+    void testReconcile_ReadsEachPortfolioSeparately() {
+        when(stockRepository.findActivePortfolioIds()).thenReturn(Flux.just(DEFAULT, "book-b"));
+        when(stockRepository.findActivePositions(DEFAULT)).thenReturn(Flux.just(apple, alphabet));
+        when(stockRepository.findActivePositions("book-b")).thenReturn(Flux.just(new PositionDTO("AAPL", 3, 600)));
+
+        StepVerifier.create(reconciler.reconcile())
+                .expectNext(true)
+                .verifyComplete();
+
+        assertTrue(aggregate.isLoaded());
+        assertEquals(7100.0, aggregate.totalCost(DEFAULT));
+        assertEquals(600.0, aggregate.totalCost("book-b"));
+        assertEquals(2, aggregate.tickerCount());
+        assertEquals(2.0, meterRegistry.get("portfoliopro.aggregate.portfolios").gauge().value());
+    }
+
+    @Test
+    void testReconcile_FailureLeavesAggregateUnloaded() {
+        when(stockRepository.findActivePositions(DEFAULT)).thenReturn(Flux.error(new IllegalStateException("db down")));
+
+        StepVerifier.create(reconciler.reconcile())
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertFalse(aggregate.isLoaded());
+        assertEquals(1.0, meterRegistry.get("portfoliopro.aggregate.reconciliations")
+                .tag("outcome", "failed").counter().count());
+    }
+}
@@ -0,0 +1,129 @@
+package com.task.PortfolioPro.services;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.task.portfoliopro.config.ValuationConfig;
+import com.task.portfoliopro.dto.PortfolioUpdateDTO;
+import com.task.portfoliopro.entities.Stock;
+import com.task.portfoliopro.errors.HttpError;
+import com.task.portfoliopro.services.PortfolioValuationStream;
+import com.task.portfoliopro.services.StockService;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+public class PortfolioValuationStreamTest {
+
+    private static final String DEFAULT = Stock.DEFAULT_PORTFOLIO;
+
+    private final PortfolioUpdateDTO first = new PortfolioUpdateDTO(1000.0, 1100.0);
+
+    private final PortfolioUpdateDTO second = new PortfolioUpdateDTO(1500.0, 1650.0);
+
+    private StockService stockService;
+
+    private Sinks.Many<String> positionChanges;
+
+    private PortfolioValuationStream valuationStream;
+
+    @BeforeEach
+    void setUp() {
+        stockService = mock(StockService.class);
+        positionChanges = Sinks.many().multicast().directBestEffort();
+        when(stockService.positionChanges()).thenReturn(positionChanges.asFlux());
+
+        ValuationConfig valuationConfig = new ValuationConfig();
+        valuationConfig.setStreamInterval(Duration.ofHours(1));
+        valuationStream = new PortfolioValuationStream(stockService, valuationConfig);
+    }
+
+    @Test
+    void testPositionChangePushesNewValue() {
+        when(stockService.revaluePortfolio(DEFAULT)).thenReturn(Mono.just(first), Mono.just(second));
+
+        StepVerifier.create(valuationStream.updates(DEFAULT))
+                .expectNext(first)
+                .then(() -> positionChanges.tryEmitNext(DEFAULT))
+                .expectNext(second)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testUnchangedValueIsNotPushed() {
+        when(stockService.revaluePortfolio(DEFAULT)).thenReturn(Mono.just(first), Mono.just(first), Mono.just(second));
+
+        StepVerifier.create(valuationStream.updates(DEFAULT))
+                .expectNext(first)
+                .then(() -> positionChanges.tryEmitNext(DEFAULT))
+                .then(() -> positionChanges.tryEmitNext(DEFAULT))
+                .expectNext(second)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testSubscribersShareOneValuation() {
+        when(stockService.revaluePortfolio(DEFAULT)).thenReturn(Mono.just(first));
+
+        StepVerifier.create(valuationStream.updates(DEFAULT))
+                .expectNext(first)
+                .then(() -> StepVerifier.create(valuationStream.updates(DEFAULT).take(1))
+                        .expectNext(first)
+                        .verifyComplete())
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        verify(stockService, times(1)).revaluePortfolio(DEFAULT);
+    }
+
+    @Test
+    void testFailedValuationKeepsStreamAlive() {
+        when(stockService.revaluePortfolio(DEFAULT)).thenReturn(
+                Mono.just(first),
+                Mono.error(new HttpError(HttpStatus.EXPECTATION_FAILED, "API error")),
+                Mono.just(second));
+
+        StepVerifier.create(valuationStream.updates(DEFAULT))
+                .expectNext(first)
+                .then(() -> positionChanges.tryEmitNext(DEFAULT))
+                .then(() -> positionChanges.tryEmitNext(DEFAULT))
+                .expectNext(second)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testChangeToAnotherPortfolioIsIgnored() {
+        when(stockService.revaluePortfolio(DEFAULT)).thenReturn(Mono.just(first), Mono.just(second));
+
+        StepVerifier.create(valuationStream.updates(DEFAULT))
+                .expectNext(first)
+                .then(() -> positionChanges.tryEmitNext("book-b"))
+                .expectNoEvent(Duration.ofMillis(200))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        verify(stockService, times(1)).revaluePortfolio(DEFAULT);
+        verify(stockService, never()).revaluePortfolio("book-b");
+    }
+
+    @Test
+    void testInvalidPortfolioIdIsRejected() {
+        StepVerifier.create(valuationStream.updates("no/such book"))
+                .expectErrorMatches(error -> error instanceof HttpError httpError
+                        && httpError.getStatus() == HttpStatus.BAD_REQUEST)
+                .verify(Duration.ofSeconds(5));
+    }
+}
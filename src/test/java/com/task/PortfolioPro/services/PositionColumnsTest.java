@@ -0,0 +1,69 @@
+package com.task.PortfolioPro.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.task.portfoliopro.dto.PositionDTO;
+import com.task.portfoliopro.services.PositionColumns;
+
+public class PositionColumnsTest {
+
+    @Test
+    void testAdd_InternsTickers() {
+        PositionColumns columns = new PositionColumns();
+        columns.add("AAPL", 10, 1500.0);
+        columns.add("GOOGL", 2, 5600.0);
+        columns.add("AAPL", 5, 800.0);
+
+        assertEquals(2, columns.size());
+        assertEquals("AAPL", columns.ticker(0));
+        assertEquals(15, columns.shares(0));
+        assertEquals(2300.0, columns.cost(0));
+        assertEquals(7900.0, columns.totalCost());
+    }
+
+    @Test
+    void testAdd_GrowsPastInitialCapacity() {
+        PositionColumns columns = new PositionColumns();
+        for (int i = 0; i < 200; i++) {
+            columns.add("T" + i, i + 1, 10.0);
+        }
+
+        assertEquals(200, columns.size());
+        assertEquals("T199", columns.ticker(199));
+        assertEquals(200, columns.shares(199));
+        assertEquals(2000.0, columns.totalCost());
+    }
+
+    @Test
+    void testCopy_DropsClosedPositions() {
+        PositionColumns columns = new PositionColumns();
+        columns.add("AAPL", 10, 1500.0);
+        columns.add("TSLA", 3, 900.0);
+        columns.add("GOOGL", 2, 5600.0);
+        columns.add("TSLA", -3, -900.0);
+
+        PositionColumns copy = columns.copy();
+        columns.add("AAPL", 1, 150.0);
+
+        assertEquals(2, copy.size());
+        assertEquals(2, copy.held());
+        assertEquals("GOOGL", copy.ticker(1));
+        assertEquals(10, copy.shares(0));
+        assertEquals(7100.0, copy.totalCost());
+        assertEquals(List.of(new PositionDTO("AAPL", 10, 1500.0), new PositionDTO("GOOGL", 2, 5600.0)),
+                copy.toPositions());
+    }
+
+    @Test
+    void testMarketValue() {
+        PositionColumns columns = new PositionColumns();
+        columns.add("AAPL", 10, 1500.0);
+        columns.add("GOOGL", 2, 5600.0);
+
+        assertEquals(10 * 200.0 + 2 * 3000.0, columns.marketValue(new double[] {200.0, 3000.0}));
+    }
+}
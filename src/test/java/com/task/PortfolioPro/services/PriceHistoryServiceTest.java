@@ -0,0 +1,185 @@
+package com.task.PortfolioPro.services;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.portfoliopro.apiClients.AlphaVantageApiClient;
+import com.task.portfoliopro.apiClients.IntradayQuoteParser;
+import com.task.portfoliopro.config.PriceHistoryConfig;
+import com.task.portfoliopro.dto.PriceBarDTO;
+import com.task.portfoliopro.dto.PriceResolution;
+import com.task.portfoliopro.repository.PriceBarRepository;
+import com.task.portfoliopro.services.PriceHistoryService;
+
+import io.r2dbc.spi.ConnectionFactories;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class PriceHistoryServiceTest {
+
+    /** 16:00 in New York. */
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-01-17T21:00:00Z"), ZoneOffset.UTC);
+
+    private static final LocalDateTime CLOSE = LocalDateTime.of(2025, 1, 17, 16, 0);
+
+    private static final String PAYLOAD = """
+            {
+                "Time Series (1min)": {
+                    "2025-01-17 15:59:00": {"1. open": "231.0", "2. high": "233.0", "3. low": "230.5", "4. close": "232.0", "5. volume": "300"},
+                    "2025-01-17 15:56:00": {"1. open": "230.0", "2. high": "231.5", "3. low": "229.0", "4. close": "231.0", "5. volume": "200"},
+                    "2025-01-17 15:54:00": {"1. open": "229.0", "2. high": "230.0", "3. low": "228.0", "4. close": "230.0", "5. volume": "100"}
+                }
+            }
+            """;
+
+    private final AlphaVantageApiClient alpha = mock(AlphaVantageApiClient.class);
+
+    private PriceBarRepository priceBarRepository;
+
+    private PriceHistoryService priceHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseClient databaseClient = DatabaseClient.create(
+                ConnectionFactories.get("r2dbc:h2:mem:///history-" + System.nanoTime() + "?options=DB_CLOSE_DELAY=-1"));
+        databaseClient.sql("""
+                CREATE TABLE price_bar (
+                    ticker VARCHAR(50) NOT NULL,
+                    resolution VARCHAR(8) NOT NULL,
+                    bar_time TIMESTAMP NOT NULL,
+                    open_price DOUBLE PRECISION NOT NULL,
+                    high_price DOUBLE PRECISION NOT NULL,
+                    low_price DOUBLE PRECISION NOT NULL,
+                    close_price DOUBLE PRECISION NOT NULL,
+                    volume BIGINT NOT NULL,
+                    PRIMARY KEY (ticker, resolution, bar_time)
+                )""").then().block();
+        priceBarRepository = new PriceBarRepository(databaseClient);
+        priceHistoryService = new PriceHistoryService(alpha, new IntradayQuoteParser(new ObjectMapper()), priceBarRepository,
+                new PriceHistoryConfig(), CLOCK);
+    }
+
+    @Test
+    void testHistory_DownloadsOnceThenServesStoredBars() {
+        when(alpha.getStockPrice("AAPL")).thenReturn(Mono.just(PAYLOAD));
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(priceHistoryService.history("AAPL", PriceResolution.ONE_MINUTE, CLOSE.minusMinutes(5), null))
+                    .expectNext(minute(56, 230.0, 231.5, 229.0, 231.0, 200), minute(59, 231.0, 233.0, 230.5, 232.0, 300))
+                    .verifyComplete();
+        }
+
+        verify(alpha, times(1)).getStockPrice("AAPL");
+    }
+
+    @Test
+    void testHistory_RollsUpMinuteBars() {
+        when(alpha.getStockPrice("AAPL")).thenReturn(Mono.just(PAYLOAD));
+
+        StepVerifier.create(priceHistoryService.history("AAPL", PriceResolution.FIVE_MINUTES, CLOSE.minusMinutes(10), CLOSE))
+                .expectNext(
+                        bar(PriceResolution.FIVE_MINUTES, CLOSE.minusMinutes(10), 229.0, 230.0, 228.0, 230.0, 100),
+                        bar(PriceResolution.FIVE_MINUTES, CLOSE.minusMinutes(5), 230.0, 233.0, 229.0, 232.0, 500))
+                .verifyComplete();
+    }
+
+    @Test
+    void testHistory_RollsUpBarsDownloadedAfterTheWeekend() {
+        // 10:00 on the Monday after, so every downloaded bar is past minute-retention
+        priceHistoryService = new PriceHistoryService(alpha, new IntradayQuoteParser(new ObjectMapper()), priceBarRepository,
+                new PriceHistoryConfig(), Clock.fixed(Instant.parse("2025-01-20T15:00:00Z"), ZoneOffset.UTC));
+        // compacted earlier from the whole bucket, of which the download only holds two minutes
+        priceBarRepository.upsertAll(List.of(bar(PriceResolution.FIVE_MINUTES, CLOSE.minusMinutes(5), 229.5, 234.0, 228.5, 232.5, 900)))
+                .block();
+        when(alpha.getStockPrice("AAPL")).thenReturn(Mono.just(PAYLOAD));
+
+        StepVerifier.create(priceHistoryService.history("AAPL", PriceResolution.FIVE_MINUTES, CLOSE.minusMinutes(10), CLOSE))
+                .expectNext(
+                        bar(PriceResolution.FIVE_MINUTES, CLOSE.minusMinutes(10), 229.0, 230.0, 228.0, 230.0, 100),
+                        bar(PriceResolution.FIVE_MINUTES, CLOSE.minusMinutes(5), 229.5, 234.0, 228.5, 232.5, 900))
+                .verifyComplete();
+        StepVerifier.create(priceBarRepository.findBefore(PriceResolution.ONE_MINUTE, CLOSE.plusDays(7)))
+                .verifyComplete();
+    }
+
+    @Test
+    void testHistory_RollsUpBarsPastFiveMinuteRetentionIntoDays() {
+        priceHistoryService = new PriceHistoryService(alpha, new IntradayQuoteParser(new ObjectMapper()), priceBarRepository,
+                new PriceHistoryConfig(), Clock.offset(CLOCK, Duration.ofDays(40)));
+        when(alpha.getStockPrice("AAPL")).thenReturn(Mono.just(PAYLOAD));
+
+        StepVerifier.create(priceHistoryService.history("AAPL", PriceResolution.DAILY, CLOSE.minusDays(1), CLOSE))
+                .expectNext(bar(PriceResolution.DAILY, CLOSE.toLocalDate().atStartOfDay(), 229.0, 233.0, 228.0, 232.0, 600))
+                .verifyComplete();
+    }
+
+    @Test
+    void testHistory_ServesStoredBarsWhenRefreshFails() {
+        priceBarRepository.upsertAll(List.of(minute(59, 231.0, 233.0, 230.5, 232.0, 300))).block();
+        when(alpha.getStockPrice("AAPL")).thenReturn(Mono.error(new RuntimeException("quota")));
+
+        StepVerifier.create(priceHistoryService.history("AAPL", PriceResolution.ONE_MINUTE, null, null))
+                .expectNext(minute(59, 231.0, 233.0, 230.5, 232.0, 300))
+                .verifyComplete();
+    }
+
+    @Test
+    void testFetchSeries_ReturnsPayloadThatCannotBeStored() {
+        when(alpha.getStockPrice("AAPL")).thenReturn(Mono.just("{\"Information\": \"API rate limit reached\"}"));
+
+        StepVerifier.create(priceHistoryService.fetchSeries("AAPL"))
+                .expectNext("{\"Information\": \"API rate limit reached\"}")
+                .verifyComplete();
+        StepVerifier.create(priceBarRepository.findBefore(PriceResolution.ONE_MINUTE, CLOSE.plusDays(1)))
+                .verifyComplete();
+    }
+
+    @Test
+    void testCompact() {
+        LocalDateTime twoDaysAgo = CLOSE.minusDays(2).withHour(10);
+        LocalDateTime lastMonth = CLOSE.minusDays(40).withHour(10);
+        priceBarRepository.upsertAll(List.of(
+                bar(PriceResolution.ONE_MINUTE, twoDaysAgo, 10.0, 11.0, 9.0, 10.5, 1),
+                bar(PriceResolution.ONE_MINUTE, twoDaysAgo.plusMinutes(4), 10.5, 12.0, 10.0, 11.5, 2),
+                bar(PriceResolution.ONE_MINUTE, twoDaysAgo.plusMinutes(5), 11.5, 11.5, 11.0, 11.0, 4),
+                bar(PriceResolution.FIVE_MINUTES, lastMonth, 20.0, 21.0, 19.0, 20.5, 10),
+                bar(PriceResolution.FIVE_MINUTES, lastMonth.plusHours(5), 20.5, 25.0, 20.0, 24.0, 20),
+                minute(59, 231.0, 233.0, 230.5, 232.0, 300))).block();
+
+        StepVerifier.create(priceHistoryService.compact())
+                .expectNext(5L)
+                .verifyComplete();
+
+        StepVerifier.create(priceBarRepository.findRange("AAPL", List.of(PriceResolution.values()), lastMonth.minusDays(1), CLOSE))
+                .expectNext(
+                        bar(PriceResolution.DAILY, lastMonth.toLocalDate().atStartOfDay(), 20.0, 25.0, 19.0, 24.0, 30),
+                        bar(PriceResolution.FIVE_MINUTES, twoDaysAgo, 10.0, 12.0, 9.0, 11.5, 3),
+                        bar(PriceResolution.FIVE_MINUTES, twoDaysAgo.plusMinutes(5), 11.5, 11.5, 11.0, 11.0, 4),
+                        minute(59, 231.0, 233.0, 230.5, 232.0, 300))
+                .verifyComplete();
+    }
+
+    private static PriceBarDTO minute(final int minute, final double open, final double high, final double low,
+            final double close, final long volume) {
+        return bar(PriceResolution.ONE_MINUTE, CLOSE.minusHours(1).withMinute(minute), open, high, low, close, volume);
+    }
+
+    private static PriceBarDTO bar(final PriceResolution resolution, final LocalDateTime time, final double open,
+            final double high, final double low, final double close, final long volume) {
+        return new PriceBarDTO("AAPL", resolution, time, open, high, low, close, volume);
+    }
+}
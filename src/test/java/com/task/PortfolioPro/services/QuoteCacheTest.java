@@ -0,0 +1,108 @@
+package com.task.PortfolioPro.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.task.portfoliopro.config.CacheConfig;
+import com.task.portfoliopro.config.CompanyInfoCacheConfig;
+import com.task.portfoliopro.config.QuoteCacheConfig;
+import com.task.portfoliopro.config.ValuationConfig;
+import com.task.portfoliopro.dto.StockPriceDTO;
+import com.task.portfoliopro.errors.HttpError;
+import com.task.portfoliopro.services.QuoteCache;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+public class QuoteCacheTest {
+
+    private final StockPriceDTO quote = new StockPriceDTO(150.0, 151.0, 152.0, 149.0);
+
+    private QuoteCache quoteCache;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        QuoteCacheConfig config = new QuoteCacheConfig();
+        config.setTtl(Duration.ofMinutes(1));
+        quoteCache = new QuoteCache(new CacheConfig().cacheManager(config, new CompanyInfoCacheConfig(), new ValuationConfig()));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testConcurrentMissesShareOneLoad() {
+        Sinks.One<StockPriceDTO> upstream = Sinks.one();
+        Mono<StockPriceDTO> first = quoteCache.get("AAPL", ticker -> {
+            loads.incrementAndGet();
+            return upstream.asMono();
+        });
+        Mono<StockPriceDTO> second = quoteCache.get("aapl", ticker -> {
+            loads.incrementAndGet();
+            return Mono.just(quote);
+        });
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> upstream.tryEmitValue(quote))
+                .assertNext(pair -> {
+                    assertEquals(quote, pair.getT1());
+                    assertEquals(quote, pair.getT2());
+                })
+                .verifyComplete();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testCachedQuoteIsServedWithoutLoading() {
+        StepVerifier.create(quoteCache.get("MSFT", this::load)).expectNext(quote).verifyComplete();
+        StepVerifier.create(quoteCache.get("MSFT", this::load)).expectNext(quote).verifyComplete();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() {
+        StepVerifier.create(quoteCache.get("TSLA", ticker -> {
+                    loads.incrementAndGet();
+                    return Mono.error(new HttpError(HttpStatus.EXPECTATION_FAILED, "API error"));
+                }))
+                .expectError(HttpError.class)
+                .verify();
+
+        StepVerifier.create(quoteCache.get("TSLA", this::load)).expectNext(quote).verifyComplete();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testPutQuoteIsServedWithoutLoading() {
+        quoteCache.put("nvda", quote);
+
+        StepVerifier.create(quoteCache.get("NVDA", this::load)).expectNext(quote).verifyComplete();
+
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void testLastKnownGoodQuote() {
+        StepVerifier.create(quoteCache.get("NFLX", this::load)).expectNext(quote).verifyComplete();
+        quoteCache.put("AMZN", quote);
+
+        StepVerifier.create(quoteCache.lastKnownGood("nflx")).expectNext(quote).verifyComplete();
+        StepVerifier.create(quoteCache.lastKnownGood("AMZN")).expectNext(quote).verifyComplete();
+        StepVerifier.create(quoteCache.lastKnownGood("META")).verifyComplete();
+    }
+
+    private Mono<StockPriceDTO> load(final String ticker) {
+        loads.incrementAndGet();
+        return Mono.just(quote);
+    }
+}
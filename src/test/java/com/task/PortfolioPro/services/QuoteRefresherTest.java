@@ -0,0 +1,265 @@
+package com.task.PortfolioPro.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.task.portfoliopro.apiClients.AlphaVantageApiClient;
+import com.task.portfoliopro.config.CacheConfig;
+import com.task.portfoliopro.config.CompanyInfoCacheConfig;
+import com.task.portfoliopro.config.QuoteCacheConfig;
+import com.task.portfoliopro.config.ValuationConfig;
+import com.task.portfoliopro.config.QuoteRefreshConfig;
+import com.task.portfoliopro.dto.StockPriceDTO;
+import com.task.portfoliopro.errors.HttpError;
+import com.task.portfoliopro.repository.StockRepository;
+import com.task.portfoliopro.services.PortfolioAggregate;
+import com.task.portfoliopro.services.QuoteCache;
+import com.task.portfoliopro.services.QuoteRefresher;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class QuoteRefresherTest {
+
+    /** Wednesday 10:00 in New York. */
+    private static final Instant SESSION = Instant.parse("2025-01-15T15:00:00Z");
+
+    /** Saturday 12:00 in New York. */
+    private static final Instant WEEKEND = Instant.parse("2025-01-18T17:00:00Z");
+
+    private final StockPriceDTO quote = new StockPriceDTO(150.0, 151.0, 152.0, 149.0);
+
+    private final AlphaVantageApiClient alpha = mock(AlphaVantageApiClient.class);
+
+    private final StockRepository stockRepository = mock(StockRepository.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final QuoteRefreshConfig config = new QuoteRefreshConfig();
+
+    private final TestClock clock = new TestClock(SESSION);
+
+    private final QuoteCacheConfig cacheConfig = new QuoteCacheConfig();
+
+    private QuoteCache quoteCache;
+
+    private QuoteRefresher refresher;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        build();
+        when(stockRepository.findActiveTickers()).thenReturn(Flux.just("AAPL", "googl", "MSFT"));
+        when(alpha.getLatestStockPrice(anyString())).thenReturn(Mono.just(quote));
+    }
+
+    @Test
+    void testRefresh_StalestTickersFirst() {
+        // 3 held tickers within the default 60s ttl at one run every 30s take 2 a run
+        StepVerifier.create(refresher.refresh()).expectNext("AAPL", "GOOGL").verifyComplete();
+        clock.advance(Duration.ofSeconds(31));
+        StepVerifier.create(refresher.refresh()).expectNext("MSFT", "AAPL").verifyComplete();
+
+        StepVerifier.create(quoteCache.get("MSFT", ticker -> Mono.error(new IllegalStateException("not cached"))))
+                .expectNext(quote)
+                .verifyComplete();
+        assertEquals(4.0, meterRegistry.get("portfoliopro.quotes.refreshed").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    void testRefresh_TickersPerRunFollowHeldTickersAndTtl() {
+        cacheConfig.setTtl(Duration.ofMinutes(2));
+        StepVerifier.create(refresher.refresh()).expectNext("AAPL").verifyComplete();
+
+        cacheConfig.setTtl(Duration.ofSeconds(30));
+        clock.advance(Duration.ofSeconds(31));
+        StepVerifier.create(refresher.refresh()).expectNext("GOOGL", "MSFT").verifyComplete();
+
+        config.setMaxTickersPerRun(5);
+        clock.advance(Duration.ofSeconds(31));
+        StepVerifier.create(refresher.refresh()).expectNext("AAPL", "GOOGL", "MSFT").verifyComplete();
+    }
+
+    @Test
+    void testRefresh_HeldTickersAreNeverLoadedOnRequestPath() {
+        expireQuotesAtOnce();
+
+        for (int run = 0; run < 6; run++) {
+            StepVerifier.create(refresher.refresh()).expectNextCount(2).verifyComplete();
+            for (String ticker : List.of("AAPL", "GOOGL", "MSFT")) {
+                StepVerifier.create(quoteCache.get(ticker, this::load)).expectNext(quote).verifyComplete();
+            }
+            clock.advance(Duration.ofSeconds(31));
+        }
+
+        // MSFT was loaded once, before the second run first refreshed it
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testRefresh_OverdueQuoteIsLoadedOnRequestPath() {
+        expireQuotesAtOnce();
+        StepVerifier.create(refresher.refresh()).expectNext("AAPL", "GOOGL").verifyComplete();
+
+        // a pass over 3 tickers at 2 a run takes 60s, and the next run may start up to 30s late
+        clock.advance(Duration.ofSeconds(89));
+        StepVerifier.create(quoteCache.get("AAPL", this::load)).expectNext(quote).verifyComplete();
+        assertEquals(0, loads.get());
+        clock.advance(Duration.ofSeconds(2));
+        StepVerifier.create(quoteCache.get("AAPL", this::load)).expectNext(quote).verifyComplete();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testRefresh_QuoteAfterCloseIsServedUntilOpen() {
+        expireQuotesAtOnce();
+        clock.set(WEEKEND);
+        StepVerifier.create(refresher.refresh()).expectNext("AAPL", "GOOGL").verifyComplete();
+        StepVerifier.create(refresher.refresh()).expectNext("MSFT").verifyComplete();
+
+        // Monday 09:29 in New York
+        clock.set(Instant.parse("2025-01-20T14:29:00Z"));
+        for (String ticker : List.of("AAPL", "GOOGL", "MSFT")) {
+            StepVerifier.create(quoteCache.get(ticker, this::load)).expectNext(quote).verifyComplete();
+        }
+        assertEquals(0, loads.get());
+        clock.advance(Duration.ofMinutes(2));
+        StepVerifier.create(quoteCache.get("MSFT", this::load)).expectNext(quote).verifyComplete();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testRefresh_FailedTickerIsLoadedOnRequestPath() {
+        expireQuotesAtOnce();
+        config.setMaxTickersPerRun(3);
+        StepVerifier.create(refresher.refresh()).expectNextCount(3).verifyComplete();
+        when(alpha.getLatestStockPrice("AAPL")).thenReturn(Mono.error(new HttpError(HttpStatus.EXPECTATION_FAILED, "API error")));
+        clock.advance(Duration.ofSeconds(31));
+
+        StepVerifier.create(refresher.refresh()).expectNext("GOOGL", "MSFT").verifyComplete();
+
+        StockPriceDTO loaded = new StockPriceDTO(160.0, 161.0, 162.0, 159.0);
+        StepVerifier.create(quoteCache.get("AAPL", ticker -> Mono.just(loaded)))
+                .expectNext(loaded)
+                .verifyComplete();
+    }
+
+    @Test
+    void testRefresh_SkipsFreshQuotes() {
+        everyTickerEachRun();
+
+        StepVerifier.create(refresher.refresh()).expectNext("AAPL", "GOOGL", "MSFT").verifyComplete();
+        clock.advance(Duration.ofSeconds(10));
+
+        StepVerifier.create(refresher.refresh()).verifyComplete();
+    }
+
+    @Test
+    void testRefresh_FailingTickerDoesNotStarveOthers() {
+        cacheConfig.setTtl(Duration.ofMinutes(2));
+        when(alpha.getLatestStockPrice("AAPL")).thenReturn(Mono.error(new HttpError(HttpStatus.EXPECTATION_FAILED, "API error")));
+
+        StepVerifier.create(refresher.refresh()).verifyComplete();
+        clock.advance(Duration.ofSeconds(31));
+        StepVerifier.create(refresher.refresh()).expectNext("GOOGL").verifyComplete();
+
+        assertEquals(1.0, meterRegistry.get("portfoliopro.quotes.refreshed").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    void testRefresh_OnceAfterCloseWhileMarketClosed() {
+        everyTickerEachRun();
+        clock.set(WEEKEND);
+
+        StepVerifier.create(refresher.refresh()).expectNext("AAPL", "GOOGL", "MSFT").verifyComplete();
+        clock.advance(Duration.ofHours(6));
+
+        StepVerifier.create(refresher.refresh()).verifyComplete();
+    }
+
+    @Test
+    void testRefresh_MarketHoursDisabled() {
+        everyTickerEachRun();
+        config.getMarketHours().setEnabled(false);
+        clock.set(WEEKEND);
+
+        StepVerifier.create(refresher.refresh()).expectNextCount(3).verifyComplete();
+        clock.advance(Duration.ofSeconds(31));
+
+        StepVerifier.create(refresher.refresh()).expectNextCount(3).verifyComplete();
+    }
+
+    private void build() {
+        quoteCache = new QuoteCache(new CacheConfig().cacheManager(cacheConfig, new CompanyInfoCacheConfig(), new ValuationConfig()), clock);
+        refresher = new QuoteRefresher(alpha, quoteCache, new PortfolioAggregate(), stockRepository, config, cacheConfig,
+                meterRegistry, clock);
+    }
+
+    /** Every request-path read misses the cache, so only refreshed quotes are served without a load. */
+    private void expireQuotesAtOnce() {
+        cacheConfig.setTtl(Duration.ZERO);
+        build();
+    }
+
+    /** A 30s ttl needs all 3 held tickers refreshed on each 30s run. */
+    private void everyTickerEachRun() {
+        cacheConfig.setTtl(Duration.ofSeconds(30));
+        config.setMaxTickersPerRun(3);
+    }
+
+    private Mono<StockPriceDTO> load(final String ticker) {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return quote;
+        });
+    }
+
+    private static final class TestClock extends Clock {
+
+        private Instant now;
+
+        TestClock(final Instant now) {
+            this.now = now;
+        }
+
+        void set(final Instant instant) {
+            now = instant;
+        }
+
+        void advance(final Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
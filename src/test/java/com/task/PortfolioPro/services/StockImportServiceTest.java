@@ -0,0 +1,157 @@
+package com.task.PortfolioPro.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.portfoliopro.config.StockImportConfig;
+import com.task.portfoliopro.dto.StockImportResultDTO;
+import com.task.portfoliopro.dto.StockImportResultDTO.Status;
+import com.task.portfoliopro.dto.StockPriceDTO;
+import com.task.portfoliopro.entities.Stock;
+import com.task.portfoliopro.errors.HttpError;
+import com.task.portfoliopro.services.StockImportService;
+import com.task.portfoliopro.services.StockService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class StockImportServiceTest {
+
+    private final StockService stockService = mock(StockService.class);
+
+    private final StockImportConfig importConfig = new StockImportConfig();
+
+    private final StockImportService importService =
+            new StockImportService(stockService, new ObjectMapper(), importConfig);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportStocks_PricesEachTickerOncePerChunk() {
+        when(stockService.getCurrentStockPrice("AAPL")).thenReturn(Mono.just(new StockPriceDTO(149.0, 150.0, 151.0, 148.0)));
+        when(stockService.getCurrentStockPrice("GOOGL")).thenReturn(Mono.just(new StockPriceDTO(2790.0, 2800.0, 2810.0, 2780.0)));
+        when(stockService.addStocks(eq(Stock.DEFAULT_PORTFOLIO), anyList())).thenAnswer(invocation -> Flux.fromIterable(invocation.getArgument(1)));
+
+        Flux<String> lines = Flux.just(
+                "{\"stockName\": \"Apple Inc\", \"ticker\": \"AAPL\", \"shares\": 10}",
+                "{\"stockName\": \"Alphabet Inc\", \"ticker\": \"GOOGL\", \"shares\": 2}",
+                "",
+                "{\"stockName\": \"Apple Inc\", \"ticker\": \"AAPL\", \"shares\": 5}");
+
+        StepVerifier.create(importService.importStocks(Stock.DEFAULT_PORTFOLIO, lines))
+                .assertNext(result -> assertCreated(result, 1, "AAPL"))
+                .assertNext(result -> assertCreated(result, 2, "GOOGL"))
+                .assertNext(result -> assertCreated(result, 4, "AAPL"))
+                .verifyComplete();
+
+        verify(stockService, times(1)).getCurrentStockPrice("AAPL");
+        verify(stockService, times(1)).getCurrentStockPrice("GOOGL");
+        ArgumentCaptor<List<Stock>> written = ArgumentCaptor.forClass(List.class);
+        verify(stockService, times(1)).addStocks(eq(Stock.DEFAULT_PORTFOLIO), written.capture());
+        assertEquals(3, written.getValue().size());
+        assertEquals(1500.0, written.getValue().get(0).getTotalCost());
+        assertEquals(5600.0, written.getValue().get(1).getTotalCost());
+    }
+
+    @Test
+    void testImportStocks_WritesInChunks() {
+        importConfig.setChunkSize(2);
+        when(stockService.getCurrentStockPrice("AAPL")).thenReturn(Mono.just(new StockPriceDTO(149.0, 150.0, 151.0, 148.0)));
+        when(stockService.addStocks(eq(Stock.DEFAULT_PORTFOLIO), anyList())).thenAnswer(invocation -> Flux.fromIterable(invocation.getArgument(1)));
+
+        Flux<String> lines = Flux.range(0, 5)
+                .map(i -> "{\"stockName\": \"Apple Inc\", \"ticker\": \"AAPL\", \"shares\": 1}");
+
+        StepVerifier.create(importService.importStocks(Stock.DEFAULT_PORTFOLIO, lines))
+                .expectNextCount(5)
+                .verifyComplete();
+
+        verify(stockService, times(3)).addStocks(eq(Stock.DEFAULT_PORTFOLIO), anyList());
+    }
+
+    @Test
+    void testImportStocks_ReportsFailedLines() {
+        when(stockService.getCurrentStockPrice("AAPL")).thenReturn(Mono.just(new StockPriceDTO(149.0, 150.0, 151.0, 148.0)));
+        when(stockService.getCurrentStockPrice("NOPE"))
+                .thenReturn(Mono.error(new HttpError(HttpStatus.EXPECTATION_FAILED, "unknown symbol")));
+        when(stockService.addStocks(eq(Stock.DEFAULT_PORTFOLIO), anyList())).thenAnswer(invocation -> Flux.fromIterable(invocation.getArgument(1)));
+
+        Flux<String> lines = Flux.just(
+                "{\"stockName\": \"Apple Inc\", \"ticker\": \"AAPL\", \"shares\": 10",
+                "{\"stockName\": \"Apple Inc\", \"ticker\": \"AAPL\", \"shares\": 0}",
+                "{\"stockName\": \"Nope Inc\", \"ticker\": \"NOPE\", \"shares\": 3}",
+                "{\"stockName\": \"Apple Inc\", \"ticker\": \"AAPL\", \"shares\": 1}");
+
+        StepVerifier.create(importService.importStocks(Stock.DEFAULT_PORTFOLIO, lines))
+                .assertNext(result -> assertFailed(result, 1, "Malformed JSON"))
+                .assertNext(result -> assertFailed(result, 2, "shares must be positive"))
+                .assertNext(result -> assertFailed(result, 3, "No quote available for NOPE"))
+                .assertNext(result -> assertCreated(result, 4, "AAPL"))
+                .verifyComplete();
+    }
+
+    @Test
+    void testImportStocks_NullLineFailsOnlyThatLine() {
+        when(stockService.getCurrentStockPrice("AAPL")).thenReturn(Mono.just(new StockPriceDTO(149.0, 150.0, 151.0, 148.0)));
+        when(stockService.addStocks(eq(Stock.DEFAULT_PORTFOLIO), anyList())).thenAnswer(invocation -> Flux.fromIterable(invocation.getArgument(1)));
+
+        Flux<String> lines = Flux.just(
+                "null",
+                "{\"stockName\": \"Apple Inc\", \"ticker\": \"AAPL\", \"shares\": 1}");
+
+        StepVerifier.create(importService.importStocks(Stock.DEFAULT_PORTFOLIO, lines))
+                .assertNext(result -> assertFailed(result, 1, "line is not a StockDTO object"))
+                .assertNext(result -> assertCreated(result, 2, "AAPL"))
+                .verifyComplete();
+    }
+
+    @Test
+    void testImportStocks_WriteFailureFailsChunk() {
+        when(stockService.getCurrentStockPrice("AAPL")).thenReturn(Mono.just(new StockPriceDTO(149.0, 150.0, 151.0, 148.0)));
+        when(stockService.addStocks(eq(Stock.DEFAULT_PORTFOLIO), anyList())).thenReturn(Flux.error(new IllegalStateException("duplicate key")));
+
+        Flux<String> lines = Flux.just(
+                "{\"stockName\": \"Apple Inc\", \"ticker\": \"AAPL\", \"shares\": 10}",
+                "{\"stockName\": \"Apple Inc\"}");
+
+        StepVerifier.create(importService.importStocks(Stock.DEFAULT_PORTFOLIO, lines))
+                .assertNext(result -> assertFailed(result, 1, "duplicate key"))
+                .assertNext(result -> assertFailed(result, 2, "ticker is required"))
+                .verifyComplete();
+    }
+
+    @Test
+    void testImportStocks_NothingToWrite() {
+        StepVerifier.create(importService.importStocks(Stock.DEFAULT_PORTFOLIO, Flux.just("not json")))
+                .assertNext(result -> assertFailed(result, 1, "Malformed JSON"))
+                .verifyComplete();
+
+        verify(stockService, never()).addStocks(eq(Stock.DEFAULT_PORTFOLIO), anyList());
+    }
+
+    private static void assertCreated(final StockImportResultDTO result, final long line, final String ticker) {
+        assertEquals(line, result.getLine());
+        assertEquals(ticker, result.getTicker());
+        assertEquals(Status.CREATED, result.getStatus());
+    }
+
+    private static void assertFailed(final StockImportResultDTO result, final long line, final String error) {
+        assertEquals(line, result.getLine());
+        assertEquals(Status.FAILED, result.getStatus());
+        assertTrue(result.getError().contains(error), result.getError());
+    }
+}
@@ -2,55 +2,151 @@ package com.task.PortfolioPro.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.task.portfoliopro.apiClients.AlphaVantageApiClient;
-import com.task.portfoliopro.apiClients.FinnuhApiClient;
+import com.task.portfoliopro.apiClients.MarketDataProvider.Capability;
+import com.task.portfoliopro.apiClients.MarketDataProviderRegistry;
+import com.task.portfoliopro.config.CacheConfig;
+import com.task.portfoliopro.config.CompanyInfoCacheConfig;
+import com.task.portfoliopro.config.MarketDataConfig;
+import com.task.portfoliopro.config.QuoteCacheConfig;
+import com.task.portfoliopro.config.ValuationConfig;
+import com.task.portfoliopro.dto.PositionDTO;
 import com.task.portfoliopro.dto.StockDTO;
+import com.task.portfoliopro.dto.StockPageDTO;
+import com.task.portfoliopro.dto.StockPriceDTO;
 import com.task.portfoliopro.entities.Stock;
 import com.task.portfoliopro.errors.HttpError;
+import com.task.portfoliopro.repository.StockBatchRepository;
+import com.task.portfoliopro.repository.StockPageRepository;
 import com.task.portfoliopro.repository.StockRepository;
+import com.task.portfoliopro.services.CompanyInfoCache;
+import com.task.portfoliopro.services.PortfolioAggregate;
+import com.task.portfoliopro.services.PortfolioAggregateReconciler;
+import com.task.portfoliopro.services.PortfolioValueCache;
+import com.task.portfoliopro.services.QuoteCache;
 import com.task.portfoliopro.services.StockService;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 @SpringJUnitConfig
 public class StockServiceTest {
+    private static final String DEFAULT = Stock.DEFAULT_PORTFOLIO;
+
     @Mock
     private StockRepository stockRepository;
 
+    @Mock
+    private StockBatchRepository stockBatchRepository;
+
+    @Mock
+    private StockPageRepository stockPageRepository;
+
     @Mock
     private AlphaVantageApiClient alphaVantageApiClient;
 
     @Mock
-    private FinnuhApiClient finnuhApiClient;
+    private CompanyInfoCache companyInfoCache;
+
+    @Spy
+    private QuoteCache quoteCache = new QuoteCache(new CacheConfig().cacheManager(new QuoteCacheConfig(), new CompanyInfoCacheConfig(), new ValuationConfig()));
+
+    @Spy
+    private PortfolioValueCache portfolioValueCache = new PortfolioValueCache(new CacheConfig().cacheManager(new QuoteCacheConfig(), new CompanyInfoCacheConfig(), new ValuationConfig()));
+
+    @Spy
+    private ValuationConfig valuationConfig = new ValuationConfig();
+
+    @Spy
+    private PortfolioAggregate portfolioAggregate = new PortfolioAggregate();
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private StockService stockService;
 
+    /** The mocked Alpha Vantage client is the only provider, so nothing is hedged. */
+    @BeforeEach
+    void setUpMarketData() {
+        when(alphaVantageApiClient.name()).thenReturn(AlphaVantageApiClient.NAME);
+        when(alphaVantageApiClient.capabilities()).thenReturn(Set.of(Capability.QUOTES, Capability.COMPANY_INFO));
+        MarketDataConfig marketDataConfig = new MarketDataConfig();
+        marketDataConfig.setQuoteProviders(List.of(AlphaVantageApiClient.NAME));
+        marketDataConfig.setCompanyInfoProviders(List.of(AlphaVantageApiClient.NAME));
+        ReflectionTestUtils.setField(stockService, "marketData",
+                new MarketDataProviderRegistry(List.of(alphaVantageApiClient), marketDataConfig, new SimpleMeterRegistry()));
+    }
+
     @Test
     void testGetAllStocks() {
         Stock stock1 = new Stock("id-3459k-ky76", "Apple Inc", "AAPL", 10, 150.0, false, 1500);
         Stock stock2 = new Stock("id-test-32", "Alphabet Inc", "GOOGL", 5, 2800.0, false, 1400);
-        when(stockRepository.findAllByIsDeletedFalse()).thenReturn(Flux.just(stock1, stock2));
+        when(stockRepository.findActiveByPortfolioId(DEFAULT)).thenReturn(Flux.just(stock1, stock2));
 
-        StepVerifier.create(stockService.getAllStocks())
+        StepVerifier.create(stockService.getAllStocks(DEFAULT))
                 .expectNext(stock1)
                 .expectNext(stock2)
                 .verifyComplete();
 
-        verify(stockRepository).findAllByIsDeletedFalse();
+        verify(stockRepository).findActiveByPortfolioId(DEFAULT);
+    }
+
+    @Test
+    void testGetStockPage() {
+        Map<String, Object> first = Map.of("id", "id-1", "ticker", "AAPL");
+        Map<String, Object> second = Map.of("id", "id-2", "ticker", "GOOGL");
+        Map<String, Object> third = Map.of("id", "id-4", "ticker", "AAPL");
+        when(stockPageRepository.findActivePage(DEFAULT, List.of("id", "ticker"), List.of(), null, 3))
+                .thenReturn(Flux.just(first, second, third));
+        when(stockPageRepository.findActivePage(DEFAULT, List.of("id", "ticker"), List.of(), "id-2", 3))
+                .thenReturn(Flux.just(third));
+
+        StepVerifier.create(stockService.getStockPage(DEFAULT, 2, null, null, List.of("ticker")))
+                .expectNext(new StockPageDTO(List.of(first, second), "id-2"))
+                .verifyComplete();
+        StepVerifier.create(stockService.getStockPage(DEFAULT, 2, "id-2", null, List.of("ticker")))
+                .expectNext(new StockPageDTO(List.of(third), null))
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetStockPage_RejectsUnknownFieldAndBadLimit() {
+        StepVerifier.create(stockService.getStockPage(DEFAULT, 10, null, null, List.of("createdBy")))
+                .expectErrorMatches(error -> error instanceof HttpError httpError
+                        && httpError.getStatus() == HttpStatus.BAD_REQUEST)
+                .verify();
+        StepVerifier.create(stockService.getStockPage(DEFAULT, 0, null, null, null))
+                .expectError(HttpError.class)
+                .verify();
+
+        verify(stockPageRepository, never()).findActivePage(any(), any(), any(), any(), anyInt());
     }
 
     @Test
@@ -60,18 +156,33 @@ public class StockServiceTest {
         Stock savedStock = new Stock(stockDTO);
         savedStock.setPrice(150.0);
 
-        when(alphaVantageApiClient.getStockPrice(stockDTO.getTicker()))
-                .thenReturn(Mono.just("{ \"Time Series (1min)\": { \"close\": 150.0 } }"));
+        when(alphaVantageApiClient.getLatestStockPrice(stockDTO.getTicker()))
+                .thenReturn(Mono.just(new StockPriceDTO(149.0, 150.0, 151.0, 148.0)));
         when(stockRepository.save(any(Stock.class))).thenReturn(Mono.just(savedStock));
 
-        StepVerifier.create(stockService.addStock(stockDTO))
+        StepVerifier.create(stockService.addStock(DEFAULT, stockDTO))
                 .expectNext(savedStock)
                 .verifyComplete();
 
-        verify(alphaVantageApiClient).getStockPrice("AAPL");
+        verify(alphaVantageApiClient).getLatestStockPrice("AAPL");
         verify(stockRepository).save(any(Stock.class));
     }
 
+    @Test
+    void testAddStocks() {
+        Stock lot1 = new Stock("id-lot-1", "Apple Inc", "AAPL", 10, 150.0, false, 1500);
+        Stock lot2 = new Stock("id-lot-2", "Alphabet Inc", "GOOGL", 2, 2800.0, false, 5600);
+        when(stockBatchRepository.insertAll(List.of(lot1, lot2))).thenReturn(Mono.just(2L));
+
+        StepVerifier.create(stockService.addStocks(DEFAULT, List.of(lot1, lot2)))
+                .expectNext(lot1, lot2)
+                .verifyComplete();
+
+        verify(stockBatchRepository).insertAll(List.of(lot1, lot2));
+        verify(stockRepository, never()).save(any(Stock.class));
+        assertEquals(7100.0, portfolioAggregate.totalCost(DEFAULT));
+    }
+
     @Test
     void testRemoveStock() {
         String stockId = "1";
@@ -81,7 +192,7 @@ public class StockServiceTest {
                 .thenReturn(Mono.just(existingStock));
         when(stockRepository.softDeleteById(stockId)).thenReturn(Mono.empty());
 
-        StepVerifier.create(stockService.removeStock(stockId))
+        StepVerifier.create(stockService.removeStock(DEFAULT, stockId))
                 .expectNext(existingStock)
                 .verifyComplete();
 
@@ -94,7 +205,7 @@ public class StockServiceTest {
         String stockId = "1";
         when(stockRepository.findByIdAndIsDeletedFalse(stockId)).thenReturn(Mono.empty());
 
-        StepVerifier.create(stockService.removeStock(stockId))
+        StepVerifier.create(stockService.removeStock(DEFAULT, stockId))
                 .expectErrorMatches(throwable -> throwable instanceof HttpError &&
                         throwable.getMessage().contains("No stock found with the id"))
                 .verify();
@@ -103,12 +214,27 @@ public class StockServiceTest {
         verify(stockRepository, never()).softDeleteById(anyString());
     }
 
+    @Test
+    void testRemoveStock_OtherPortfolio() {
+        Stock existingStock = new Stock("book-b", new StockDTO("Apple Inc", "AAPL", 10, 150.0));
+        when(stockRepository.findByIdAndIsDeletedFalse("id-1")).thenReturn(Mono.just(existingStock));
+
+        StepVerifier.create(stockService.removeStock(DEFAULT, "id-1"))
+                .expectErrorMatches(error -> error instanceof HttpError httpError
+                        && httpError.getStatus() == HttpStatus.NOT_FOUND)
+                .verify();
+
+        verify(stockRepository, never()).softDeleteById(anyString());
+    }
+
     @Test
     void testDeleteStock() {
         String stockId = "1";
+        Stock existingStock = new Stock(stockId, "Apple Inc", "AAPL", 10, 150.0, false, 1500);
+        when(stockRepository.findById(stockId)).thenReturn(Mono.just(existingStock));
         when(stockRepository.deleteById(stockId)).thenReturn(Mono.empty());
 
-        StepVerifier.create(stockService.deleteStock(stockId))
+        StepVerifier.create(stockService.deleteStock(DEFAULT, stockId))
                 .verifyComplete();
 
         verify(stockRepository).deleteById(stockId);
@@ -117,53 +243,179 @@ public class StockServiceTest {
     @Test
     void testGetCurrentStockPrice() {
         String ticker = "AAPL";
-        String mockApiResponse = """
-            {
-                "Time Series (1min)": {
-                    "2024-12-01 10:00:00": { "close": 150.00 }
-                }
-            }
-            """;
-        when(alphaVantageApiClient.getStockPrice(ticker)).thenReturn(Mono.just(mockApiResponse));
+        StockPriceDTO latestPrice = new StockPriceDTO(149.0, 150.00, 151.0, 148.0);
+        when(alphaVantageApiClient.getLatestStockPrice(ticker)).thenReturn(Mono.just(latestPrice));
 
         StepVerifier.create(stockService.getCurrentStockPrice(ticker))
                 .assertNext(priceDTO -> assertEquals(150.00, priceDTO.getClosePrice()))
                 .verifyComplete();
 
-        verify(alphaVantageApiClient).getStockPrice(ticker);
+        verify(alphaVantageApiClient).getLatestStockPrice(ticker);
     }
 
     @Test
     void testGetCompanyInfo() {
         String ticker = "AAPL";
         String companyInfo = "Apple Inc. - Technology Giant";
-        when(finnuhApiClient.getCompanyInfo(ticker)).thenReturn(Mono.just(companyInfo));
+        when(companyInfoCache.get(ticker)).thenReturn(Mono.just(companyInfo));
 
         StepVerifier.create(stockService.getCompanyInfo(ticker))
                 .expectNext(companyInfo)
                 .verifyComplete();
 
-        verify(finnuhApiClient).getCompanyInfo(ticker);
+        verify(companyInfoCache).get(ticker);
     }
 
     @Test
     void testTotalPortfolioValue() {
         Stock stock1 = new Stock("id-3459k-ky76", "Apple Inc", "AAPL", 10, 150.0, false, 1500);
         Stock stock2 = new Stock("id-test-32", "Alphabet Inc", "GOOGL", 5, 2800.0, false, 1400);
-        when(stockRepository.findAllByIsDeletedFalse()).thenReturn(Flux.just(stock1, stock2));
+        when(stockRepository.findActivePositions(DEFAULT)).thenReturn(Flux.just(
+                new PositionDTO(stock1.getTicker(), stock1.getShares(), stock1.getTotalCost()),
+                new PositionDTO(stock2.getTicker(), stock2.getShares(), stock2.getTotalCost())));
 
-        when(alphaVantageApiClient.getStockPrice(stock1.getTicker()))
-                .thenReturn(Mono.just("{ \"close\": 160.0 }"));
-        when(alphaVantageApiClient.getStockPrice(stock2.getTicker()))
-                .thenReturn(Mono.just("{ \"close\": 2900.0 }"));
+        when(alphaVantageApiClient.getLatestStockPrice(stock1.getTicker()))
+                .thenReturn(Mono.just(new StockPriceDTO(160.0, 160.0, 160.0, 160.0)));
+        when(alphaVantageApiClient.getLatestStockPrice(stock2.getTicker()))
+                .thenReturn(Mono.just(new StockPriceDTO(2900.0, 2900.0, 2900.0, 2900.0)));
 
-        StepVerifier.create(stockService.totalPortfolioValue())
+        StepVerifier.create(stockService.totalPortfolioValue(DEFAULT))
                 .assertNext(dto -> {
-                    assertEquals(14800.0, dto.getInitialPortfolioValue());
-                    assertEquals(15300.0, dto.getCurrentPortfolioValue());
+                    assertEquals(2900.0, dto.getInitialPortfolioValue());
+                    assertEquals(16100.0, dto.getCurrentPortfolioValue());
                 })
                 .verifyComplete();
 
-        verify(stockRepository).findAllByIsDeletedFalse();
+        verify(stockRepository).findActivePositions(DEFAULT);
+        verify(stockRepository, never()).findActiveByPortfolioId(anyString());
+    }
+
+    @Test
+    void testTotalPortfolioValue_PricesEachTickerOnce() {
+        when(stockRepository.findActivePositions(DEFAULT)).thenReturn(Flux.just(
+                new PositionDTO("AAPL", 15, 2300), new PositionDTO("GOOGL", 2, 5600)));
+
+        when(alphaVantageApiClient.getLatestStockPrice("AAPL"))
+                .thenReturn(Mono.just(new StockPriceDTO(200.0, 200.0, 200.0, 200.0)));
+        when(alphaVantageApiClient.getLatestStockPrice("GOOGL"))
+                .thenReturn(Mono.just(new StockPriceDTO(3000.0, 3000.0, 3000.0, 3000.0)));
+
+        StepVerifier.create(stockService.totalPortfolioValue(DEFAULT))
+                .assertNext(dto -> {
+                    assertEquals(7900.0, dto.getInitialPortfolioValue());
+                    assertEquals(9000.0, dto.getCurrentPortfolioValue());
+                })
+                .verifyComplete();
+
+        verify(stockRepository, times(1)).findActivePositions(DEFAULT);
+        verify(alphaVantageApiClient, times(1)).getLatestStockPrice("AAPL");
+        verify(alphaVantageApiClient, times(1)).getLatestStockPrice("GOOGL");
+        assertEquals(2.0, meterRegistry.get("portfoliopro.valuation.tickers").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("portfoliopro.valuation").tag("outcome", "on_complete").timer().count());
+    }
+
+    @Test
+    void testTotalPortfolioValue_FromLoadedAggregate() {
+        Stock lot1 = new Stock("id-lot-1", "Apple Inc", "AAPL", 10, 150.0, false, 1500);
+        Stock lot2 = new Stock("id-lot-2", "Alphabet Inc", "GOOGL", 2, 2800.0, false, 5600);
+        when(stockRepository.findActivePositions(DEFAULT)).thenReturn(Flux.just(
+                new PositionDTO("AAPL", 10, 1500), new PositionDTO("GOOGL", 2, 5600)));
+        when(stockRepository.findActivePortfolioIds()).thenReturn(Flux.just(DEFAULT));
+        new PortfolioAggregateReconciler(stockRepository, portfolioAggregate, new SimpleMeterRegistry())
+                .reconcile().block();
+
+        Stock lot3 = new Stock("id-lot-3", "Apple Inc", "AAPL", 5, 160.0, false, 800);
+        when(alphaVantageApiClient.getLatestStockPrice("AAPL"))
+                .thenReturn(Mono.just(new StockPriceDTO(200.0, 200.0, 200.0, 200.0)));
+        when(alphaVantageApiClient.getLatestStockPrice("GOOGL"))
+                .thenReturn(Mono.just(new StockPriceDTO(3000.0, 3000.0, 3000.0, 3000.0)));
+        when(stockRepository.save(any(Stock.class))).thenReturn(Mono.just(lot3));
+        when(stockRepository.findByIdAndIsDeletedFalse("id-lot-2")).thenReturn(Mono.just(lot2));
+        when(stockRepository.softDeleteById("id-lot-2")).thenReturn(Mono.just(1));
+
+        StepVerifier.create(stockService.addStock(DEFAULT, new StockDTO("Apple Inc", "AAPL", 5, 160))
+                .then(stockService.removeStock(DEFAULT, "id-lot-2"))
+                .then(stockService.totalPortfolioValue(DEFAULT)))
+                .assertNext(dto -> {
+                    assertEquals(2300.0, dto.getInitialPortfolioValue());
+                    assertEquals(3000.0, dto.getCurrentPortfolioValue());
+                })
+                .verifyComplete();
+
+        verify(stockRepository, times(1)).findActivePositions(DEFAULT);
+        verify(alphaVantageApiClient, never()).getLatestStockPrice("GOOGL");
+    }
+
+    @Test
+    void testTotalPortfolioValue_FallsBackWhenQuotesFail() {
+        valuationConfig.setQuoteTimeout(Duration.ofMillis(200));
+        when(stockRepository.findActivePositions(DEFAULT)).thenReturn(Flux.just(
+                new PositionDTO("AAPL", 15, 2300), new PositionDTO("GOOGL", 2, 5600), new PositionDTO("MSFT", 4, 1600)));
+        quoteCache.put("AAPL", new StockPriceDTO(190.0, 190.0, 190.0, 190.0));
+        doReturn(Mono.never()).when(quoteCache).get(eq("AAPL"), any());
+        when(alphaVantageApiClient.getLatestStockPrice("GOOGL"))
+                .thenReturn(Mono.just(new StockPriceDTO(3000.0, 3000.0, 3000.0, 3000.0)));
+        when(alphaVantageApiClient.getLatestStockPrice("MSFT"))
+                .thenReturn(Mono.error(new HttpError(HttpStatus.SERVICE_UNAVAILABLE, "alpha-vantage: circuit open, failing fast")));
+
+        StepVerifier.create(stockService.totalPortfolioValue(DEFAULT))
+                .assertNext(dto -> {
+                    assertEquals(9500.0, dto.getInitialPortfolioValue());
+                    // AAPL at its last known quote, MSFT at cost
+                    assertEquals(15 * 190.0 + 2 * 3000.0 + 1600.0, dto.getCurrentPortfolioValue());
+                    assertEquals(List.of("AAPL"), dto.getStaleTickers());
+                    assertEquals(List.of("MSFT"), dto.getUnpricedTickers());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testTotalPortfolioValue_CachedPerPortfolio() {
+        when(stockRepository.findActivePositions(DEFAULT)).thenReturn(Flux.just(new PositionDTO("AAPL", 10, 1500)));
+        when(stockRepository.findActivePositions("book-b")).thenReturn(Flux.just(new PositionDTO("AAPL", 1, 170)));
+        when(alphaVantageApiClient.getLatestStockPrice("AAPL"))
+                .thenReturn(Mono.just(new StockPriceDTO(200.0, 200.0, 200.0, 200.0)));
+
+        StepVerifier.create(stockService.totalPortfolioValue(DEFAULT)
+                .then(stockService.totalPortfolioValue(DEFAULT)))
+                .assertNext(dto -> assertEquals(2000.0, dto.getCurrentPortfolioValue()))
+                .verifyComplete();
+        StepVerifier.create(stockService.totalPortfolioValue("book-b"))
+                .assertNext(dto -> assertEquals(200.0, dto.getCurrentPortfolioValue()))
+                .verifyComplete();
+
+        verify(stockRepository, times(1)).findActivePositions(DEFAULT);
+        verify(stockRepository, times(1)).findActivePositions("book-b");
+    }
+
+    @Test
+    void testTotalPortfolioValue_ChangeEvictsOnlyThatPortfolio() {
+        Stock lot = new Stock("book-b", new StockDTO("Apple Inc", "AAPL", 1, 170));
+        when(stockRepository.findActivePositions(DEFAULT)).thenReturn(Flux.just(new PositionDTO("AAPL", 10, 1500)));
+        when(stockRepository.findActivePositions("book-b")).thenReturn(Flux.just(new PositionDTO("AAPL", 1, 170)));
+        when(stockBatchRepository.insertAll(List.of(lot))).thenReturn(Mono.just(1L));
+        when(alphaVantageApiClient.getLatestStockPrice("AAPL"))
+                .thenReturn(Mono.just(new StockPriceDTO(200.0, 200.0, 200.0, 200.0)));
+
+        StepVerifier.create(stockService.totalPortfolioValue(DEFAULT)
+                .then(stockService.totalPortfolioValue("book-b"))
+                .thenMany(stockService.addStocks("book-b", List.of(lot)))
+                .then(stockService.totalPortfolioValue(DEFAULT))
+                .then(stockService.totalPortfolioValue("book-b")))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(stockRepository, times(1)).findActivePositions(DEFAULT);
+        verify(stockRepository, times(2)).findActivePositions("book-b");
+    }
+
+    @Test
+    void testTotalPortfolioValue_RejectsInvalidPortfolioId() {
+        StepVerifier.create(stockService.totalPortfolioValue("../etc"))
+                .expectErrorMatches(error -> error instanceof HttpError httpError
+                        && httpError.getStatus() == HttpStatus.BAD_REQUEST)
+                .verify();
+
+        verify(stockRepository, never()).findActivePositions(anyString());
     }
 }